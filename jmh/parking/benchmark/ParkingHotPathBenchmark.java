@@ -0,0 +1,198 @@
+package parking.benchmark;
+
+import org.openjdk.jmh.annotations.*;
+import org.openjdk.jmh.infra.BenchmarkParams;
+import parking.domain.*;
+import parking.service.ParkingService;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicInteger;
+
+/**
+ * Throughput and per-operation cost of the ParkingLot hot paths across lot sizes, occupancy
+ * levels and thread counts.
+ *
+ * Every combination of {@code slots} and {@code occupancyPercent} gets a freshly built lot
+ * filled to that occupancy. Each benchmark runs once on one thread ({@link OneThread}) and once
+ * on every available processor ({@link AllThreads}):
+ * <ul>
+ *   <li>parkUnpark: each thread parks one of its own vehicles into a free slot and unparks it
+ *       again, so occupancy stays where it was set</li>
+ *   <li>getVehicleInfo: random lookups of parked vehicles</li>
+ *   <li>getParkingLotStatus</li>
+ *   <li>transferVehicle: each thread moves one parked vehicle back and forth between its slot
+ *       and a free slot through ParkingService.transferVehicle</li>
+ * </ul>
+ * A combination the lot cannot run (e.g. transfer in an empty lot) fails in its setup with the
+ * reason, and JMH moves on to the next one.
+ *
+ * Build with {@code mvn -Pjmh package}, then e.g.
+ * <pre>
+ *   java -jar target/benchmarks.jar ParkingHotPathBenchmark -p slots=100,10000 -p occupancyPercent=0,99 -rf csv
+ * </pre>
+ * {@code -rf csv} or {@code -rf json} writes machine-readable results that two runs can be diffed by.
+ */
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.NANOSECONDS)
+@Warmup(iterations = 3, time = 1)
+@Measurement(iterations = 5, time = 1)
+@Fork(1)
+public abstract class ParkingHotPathBenchmark {
+
+    @Threads(1)
+    public static class OneThread extends ParkingHotPathBenchmark {
+    }
+
+    @Threads(Threads.MAX)
+    public static class AllThreads extends ParkingHotPathBenchmark {
+    }
+
+    @Benchmark
+    public long parkUnpark(Lot lot, ParkWorker worker) {
+        long transactionId = lot.parkingLot.parkVehicle(new Vehicle(worker.plate, VehicleType.CAR)).getNumericTransactionId();
+        return transactionId + lot.parkingLot.unparkVehicle(worker.plate).getNumericTransactionId();
+    }
+
+    @Benchmark
+    public VehicleInfo getVehicleInfo(Lot lot, LookupWorker worker) {
+        return lot.parkingLot.getVehicleInfo(worker.nextPlate(lot.parkedPlates));
+    }
+
+    @Benchmark
+    public ParkingLotStatus getParkingLotStatus(Lot lot) {
+        return lot.parkingLot.getParkingLotStatus();
+    }
+
+    @Benchmark
+    public ParkingTransaction transferVehicle(Lot lot, TransferWorker worker) {
+        return lot.parkingService.transferVehicle(worker.plate, worker.nextSlotId());
+    }
+
+    // A lot filled to the requested occupancy, plus the plates and slots the benchmarks work on
+    @State(Scope.Benchmark)
+    public static class Lot {
+        @Param({"100", "10000", "100000", "1000000"})
+        public int slots;
+
+        @Param({"0", "50", "90", "99"})
+        public int occupancyPercent;
+
+        ParkingLot parkingLot;
+        ParkingService parkingService;
+        String[] parkedPlates;
+        String[] homeSlotIds;        // slot of parkedPlates[i], for the first vehicle of each thread
+        String[] spareSlotIds;       // one free slot per thread for transfers
+        int freeSlots;
+        final AtomicInteger nextThread = new AtomicInteger();
+
+        @Setup(Level.Trial)
+        public void setUp(BenchmarkParams params) {
+            int threads = params.getThreads();
+            parkingLot = createParkingLot(slots);
+            parkingService = new ParkingService(parkingLot);
+
+            int parked = (int) ((long) slots * occupancyPercent / 100);
+            parkedPlates = new String[parked];
+            homeSlotIds = new String[Math.min(parked, threads)];
+            for (int i = 0; i < parked; i++) {
+                parkedPlates[i] = "KA-" + i;
+                ParkingTransaction transaction = parkingLot.parkVehicle(new Vehicle(parkedPlates[i], VehicleType.CAR));
+                if (i < homeSlotIds.length) {
+                    homeSlotIds[i] = transaction.getSlot().getSlotId();
+                }
+            }
+            freeSlots = slots - parked;
+
+            List<String> spare = new ArrayList<>();
+            for (ParkingFloor floor : parkingLot.getFloors()) {
+                for (ParkingSlot slot : floor.getAvailableSlots(VehicleType.CAR)) {
+                    if (spare.size() == threads) {
+                        break;
+                    }
+                    spare.add(slot.getSlotId());
+                }
+            }
+            spareSlotIds = spare.toArray(new String[0]);
+        }
+
+        // Numbers the benchmark threads 0, 1, ... as their worker state is set up
+        int claimThreadIndex() {
+            return nextThread.getAndIncrement();
+        }
+    }
+
+    @State(Scope.Thread)
+    public static class ParkWorker {
+        String plate;
+
+        @Setup(Level.Trial)
+        public void setUp(Lot lot, BenchmarkParams params) {
+            if (lot.freeSlots < params.getThreads()) {
+                throw new IllegalStateException("fewer free slots than threads");
+            }
+            plate = "T" + lot.claimThreadIndex();
+        }
+    }
+
+    @State(Scope.Thread)
+    public static class LookupWorker {
+        long random;
+
+        @Setup(Level.Trial)
+        public void setUp(Lot lot) {
+            if (lot.parkedPlates.length == 0) {
+                throw new IllegalStateException("no parked vehicles");
+            }
+            random = 0x9E3779B97F4A7C15L * (lot.claimThreadIndex() + 1);
+        }
+
+        String nextPlate(String[] plates) {
+            random ^= random << 13;
+            random ^= random >>> 7;
+            random ^= random << 17;
+            return plates[(int) Long.remainderUnsigned(random, plates.length)];
+        }
+    }
+
+    @State(Scope.Thread)
+    public static class TransferWorker {
+        String plate;
+        String homeSlotId;
+        String spareSlotId;
+        boolean atHome = true;
+
+        @Setup(Level.Trial)
+        public void setUp(Lot lot) {
+            int thread = lot.claimThreadIndex();
+            if (thread >= lot.homeSlotIds.length || thread >= lot.spareSlotIds.length) {
+                throw new IllegalStateException("needs a parked vehicle and a free slot per thread");
+            }
+            plate = lot.parkedPlates[thread];
+            homeSlotId = lot.homeSlotIds[thread];
+            spareSlotId = lot.spareSlotIds[thread];
+        }
+
+        String nextSlotId() {
+            atHome = !atHome;
+            return atHome ? homeSlotId : spareSlotId;
+        }
+    }
+
+    // Mixed layout so cars can fall back to bus slots once car slots run out
+    private static ParkingLot createParkingLot(int slots) {
+        ParkingLot parkingLot = new ParkingLot("BENCH", slots);
+        int slotsPerFloor = 10_000;
+        for (int floorNumber = 1; (floorNumber - 1) * slotsPerFloor < slots; floorNumber++) {
+            int floorSlots = Math.min(slotsPerFloor, slots - (floorNumber - 1) * slotsPerFloor);
+            ParkingFloor floor = new ParkingFloor(floorNumber, floorSlots);
+            for (int i = 0; i < floorSlots; i++) {
+                VehicleType slotType = i % 10 == 0 ? VehicleType.BUS : VehicleType.CAR;
+                floor.addParkingSlot(new ParkingSlot("F" + floorNumber + "-" + i, slotType, floorNumber));
+            }
+            parkingLot.addFloor(floor);
+        }
+        return parkingLot;
+    }
+}
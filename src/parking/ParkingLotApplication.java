@@ -2,15 +2,21 @@ package parking;
 
 import parking.api.*;
 import parking.domain.*;
+import parking.persistence.ParkingLotSnapshot;
 import parking.service.ParkingService;
 
+import java.io.IOException;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.Paths;
+
 public class ParkingLotApplication {
-    public static void main(String[] args) {
+    public static void main(String[] args) throws IOException {
         // Initialize the parking lot system
         System.out.println("=== Parking Lot Management System (Combined Transaction) ===\n");
         
-        // Create parking lot with multiple floors
-        ParkingLot parkingLot = createParkingLot();
+        // Create parking lot with multiple floors, or load it from a snapshot if one is given
+        ParkingLot parkingLot = args.length > 0 ? loadOrCreateParkingLot(Paths.get(args[0])) : createParkingLot();
         ParkingService parkingService = new ParkingService(parkingLot);
         ParkingController parkingController = new ParkingController(parkingService);
 
@@ -18,6 +24,17 @@ public class ParkingLotApplication {
         demonstrateAPIFlow(parkingController);
     }
 
+    private static ParkingLot loadOrCreateParkingLot(Path snapshotFile) throws IOException {
+        if (Files.exists(snapshotFile)) {
+            ParkingLot parkingLot = ParkingLotSnapshot.load(snapshotFile).getParkingLot();
+            System.out.println("Parking Lot loaded from snapshot " + snapshotFile + "\n");
+            return parkingLot;
+        }
+        ParkingLot parkingLot = createParkingLot();
+        ParkingLotSnapshot.write(parkingLot, null, snapshotFile);
+        return parkingLot;
+    }
+
     private static ParkingLot createParkingLot() {
         ParkingLot parkingLot = new ParkingLot("PL-001");
 
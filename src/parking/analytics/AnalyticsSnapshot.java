@@ -0,0 +1,115 @@
+package parking.analytics;
+
+import parking.domain.VehicleType;
+
+import java.util.Collections;
+import java.util.Map;
+import java.util.TreeMap;
+
+/**
+ * Point-in-time copy of the aggregates held by {@link ParkingAnalytics}.
+ * Totals are arrays of {revenueCents, count, dwellMillis}.
+ */
+public class AnalyticsSnapshot {
+    private static final int REVENUE = 0;
+    private static final int COUNT = 1;
+    private static final int DWELL = 2;
+
+    private long[][] byType;
+    private Map<Integer, long[]> byFloor;
+    private Map<Long, long[]> byHour;          // hour start (epoch millis) -> totals
+    private Map<Long, Integer> peakOccupancyByHour;
+    private int currentOccupancy;
+    private int peakOccupancy;
+
+    AnalyticsSnapshot(long[][] byType, Map<Integer, long[]> byFloor, Map<Long, long[]> byHour,
+                      Map<Long, Integer> peakOccupancyByHour, int currentOccupancy, int peakOccupancy) {
+        this.byType = byType;
+        this.byFloor = byFloor;
+        this.byHour = byHour;
+        this.peakOccupancyByHour = peakOccupancyByHour;
+        this.currentOccupancy = currentOccupancy;
+        this.peakOccupancy = peakOccupancy;
+    }
+
+    public long getRevenueCents(VehicleType type) {
+        return byType[type.ordinal()][REVENUE];
+    }
+
+    public long getCompletedCount(VehicleType type) {
+        return byType[type.ordinal()][COUNT];
+    }
+
+    public long getAverageDwellMillis(VehicleType type) {
+        return average(byType[type.ordinal()]);
+    }
+
+    public long getRevenueCentsForFloor(int floorNumber) {
+        long[] totals = byFloor.get(floorNumber);
+        return totals == null ? 0 : totals[REVENUE];
+    }
+
+    public long getCompletedCountForFloor(int floorNumber) {
+        long[] totals = byFloor.get(floorNumber);
+        return totals == null ? 0 : totals[COUNT];
+    }
+
+    public long getAverageDwellMillisForFloor(int floorNumber) {
+        long[] totals = byFloor.get(floorNumber);
+        return totals == null ? 0 : average(totals);
+    }
+
+    /**
+     * Revenue in cents per clock hour in the window, keyed by the hour's start in epoch millis.
+     */
+    public Map<Long, Long> getRevenueCentsByHour() {
+        Map<Long, Long> revenue = new TreeMap<>();
+        for (Map.Entry<Long, long[]> entry : byHour.entrySet()) {
+            revenue.put(entry.getKey(), entry.getValue()[REVENUE]);
+        }
+        return revenue;
+    }
+
+    public Map<Long, Integer> getPeakOccupancyByHour() {
+        return Collections.unmodifiableMap(peakOccupancyByHour);
+    }
+
+    public long getTotalRevenueCents() {
+        long total = 0;
+        for (long[] totals : byType) {
+            total += totals[REVENUE];
+        }
+        return total;
+    }
+
+    public int getCurrentOccupancy() {
+        return currentOccupancy;
+    }
+
+    public int getPeakOccupancy() {
+        return peakOccupancy;
+    }
+
+    private static long average(long[] totals) {
+        return totals[COUNT] == 0 ? 0 : totals[DWELL] / totals[COUNT];
+    }
+
+    @Override
+    public String toString() {
+        StringBuilder sb = new StringBuilder();
+        sb.append("Analytics Snapshot:\n");
+        sb.append("Occupancy: ").append(currentOccupancy).append(" now, ").append(peakOccupancy).append(" peak\n");
+        for (VehicleType type : VehicleType.values()) {
+            sb.append(type.getDisplayName()).append(": ")
+              .append(getCompletedCount(type)).append(" completed, ")
+              .append(getRevenueCents(type)).append(" cents, ")
+              .append(getAverageDwellMillis(type) / 60_000).append(" min average dwell\n");
+        }
+        for (Map.Entry<Integer, long[]> entry : byFloor.entrySet()) {
+            sb.append("Floor ").append(entry.getKey()).append(": ")
+              .append(entry.getValue()[COUNT]).append(" completed, ")
+              .append(entry.getValue()[REVENUE]).append(" cents\n");
+        }
+        return sb.toString();
+    }
+}
@@ -0,0 +1,183 @@
+package parking.analytics;
+
+import parking.domain.*;
+
+import java.util.Arrays;
+import java.util.Map;
+import java.util.TreeMap;
+
+/**
+ * Rolling revenue and occupancy aggregates, updated in O(1) per event.
+ *
+ * Keeps running sums (revenue in cents, completed count, dwell time) per VehicleType, per floor
+ * and per clock hour, plus current and peak occupancy. Hourly buckets form a ring covering the
+ * last {@code windowHours} hours; older hours drop out as new ones start.
+ *
+ * Attach it behind a lossless {@link AsyncParkingLotListener} so aggregation runs off the gate
+ * path without losing events when it falls behind:
+ * <pre>
+ *   parkingLot.addListener(AsyncParkingLotListener.lossless(analytics, "analytics"));
+ * </pre>
+ * {@link #snapshot()} can be called at any time and never rescans history.
+ *
+ * Vehicles already parked when analytics starts listening (including those restored from a
+ * journal or snapshot, which are not reported to listeners) must be passed as the initial
+ * occupancy, e.g. {@code parkingLot.getParkingLotStatus().getTotalParkedVehicles()} taken
+ * before the gates open; otherwise current and peak occupancy are off by that many.
+ */
+public class ParkingAnalytics implements ParkingLotListener {
+    private static final long HOUR_MILLIS = 3_600_000L;
+
+    private final int windowHours;
+    private final Aggregate[] byType = new Aggregate[VehicleType.values().length];
+    private Aggregate[] byFloor = new Aggregate[0]; // indexed by floor number - lowestFloor, grown when a new floor shows up
+    private int lowestFloor;
+    private final Aggregate[] byHour;
+    private final long[] bucketHour;        // epoch hour held by each ring bucket, -1 if unused
+    private final int[] peakOccupancyByHour;
+    private int currentOccupancy;
+    private int peakOccupancy;
+
+    public ParkingAnalytics() {
+        this(24 * 7);
+    }
+
+    public ParkingAnalytics(int windowHours) {
+        this(windowHours, 0);
+    }
+
+    /**
+     * @param initialOccupancy vehicles parked before this instance starts receiving events
+     */
+    public ParkingAnalytics(int windowHours, int initialOccupancy) {
+        if (initialOccupancy < 0) {
+            throw new IllegalArgumentException("Initial occupancy cannot be negative");
+        }
+        this.windowHours = windowHours;
+        this.currentOccupancy = initialOccupancy;
+        this.peakOccupancy = initialOccupancy;
+        for (int i = 0; i < byType.length; i++) {
+            byType[i] = new Aggregate();
+        }
+        this.byHour = new Aggregate[windowHours];
+        this.bucketHour = new long[windowHours];
+        this.peakOccupancyByHour = new int[windowHours];
+        for (int i = 0; i < windowHours; i++) {
+            byHour[i] = new Aggregate();
+            bucketHour[i] = -1;
+        }
+    }
+
+    @Override
+    public synchronized void onVehicleParked(ParkingTransaction transaction) {
+        currentOccupancy++;
+        peakOccupancy = Math.max(peakOccupancy, currentOccupancy);
+        int bucket = bucketFor(transaction.getEntryMillis() / HOUR_MILLIS);
+        if (bucket >= 0) {
+            peakOccupancyByHour[bucket] = Math.max(peakOccupancyByHour[bucket], currentOccupancy);
+        }
+    }
+
+    @Override
+    public synchronized void onVehicleUnparked(ParkingTransaction transaction) {
+        currentOccupancy--; // negative only if the initial occupancy was understated
+
+        long feeCents = transaction.getFeeInCents();
+        long exitMillis = transaction.getExitMillis();
+        long dwellMillis = exitMillis - transaction.getVehicle().getEntryMillis();
+
+        byType[transaction.getVehicle().getType().ordinal()].add(feeCents, dwellMillis);
+        floorAggregate(transaction.getSlot().getFloorNumber()).add(feeCents, dwellMillis);
+        int bucket = bucketFor(exitMillis / HOUR_MILLIS);
+        if (bucket >= 0) {
+            byHour[bucket].add(feeCents, dwellMillis);
+        }
+    }
+
+    public synchronized AnalyticsSnapshot snapshot() {
+        long[][] typeTotals = new long[byType.length][];
+        for (int i = 0; i < byType.length; i++) {
+            typeTotals[i] = byType[i].toArray();
+        }
+        Map<Integer, long[]> floorTotals = new TreeMap<>();
+        for (int i = 0; i < byFloor.length; i++) {
+            if (byFloor[i] != null) {
+                floorTotals.put(lowestFloor + i, byFloor[i].toArray());
+            }
+        }
+        Map<Long, long[]> hourTotals = new TreeMap<>();
+        Map<Long, Integer> hourPeaks = new TreeMap<>();
+        for (int i = 0; i < windowHours; i++) {
+            if (bucketHour[i] >= 0) {
+                hourTotals.put(bucketHour[i] * HOUR_MILLIS, byHour[i].toArray());
+                hourPeaks.put(bucketHour[i] * HOUR_MILLIS, peakOccupancyByHour[i]);
+            }
+        }
+        return new AnalyticsSnapshot(typeTotals, floorTotals, hourTotals, hourPeaks, currentOccupancy, peakOccupancy);
+    }
+
+    // Floors are few and known after the first events, so the array settles quickly
+    private Aggregate floorAggregate(int floorNumber) {
+        if (byFloor.length == 0) {
+            lowestFloor = floorNumber;
+        }
+        int index = floorNumber - lowestFloor;
+        if (index < 0) {
+            Aggregate[] grown = new Aggregate[byFloor.length - index];
+            System.arraycopy(byFloor, 0, grown, -index, byFloor.length);
+            byFloor = grown;
+            lowestFloor = floorNumber;
+            index = 0;
+        } else if (index >= byFloor.length) {
+            byFloor = Arrays.copyOf(byFloor, index + 1);
+        }
+        Aggregate aggregate = byFloor[index];
+        if (aggregate == null) {
+            aggregate = new Aggregate();
+            byFloor[index] = aggregate;
+        }
+        return aggregate;
+    }
+
+    /**
+     * Ring bucket for the given epoch hour, resetting it if it still holds an older hour.
+     *
+     * @return the bucket, or -1 if the hour has already fallen out of the window
+     */
+    private int bucketFor(long epochHour) {
+        int bucket = (int) (epochHour % windowHours);
+        if (bucketHour[bucket] == epochHour) {
+            return bucket;
+        }
+        if (bucketHour[bucket] > epochHour) {
+            return -1;
+        }
+        bucketHour[bucket] = epochHour;
+        byHour[bucket].reset();
+        peakOccupancyByHour[bucket] = currentOccupancy;
+        return bucket;
+    }
+
+    // Running sums for one dimension value
+    private static class Aggregate {
+        long revenueCents;
+        long count;
+        long dwellMillis;
+
+        void add(long feeCents, long dwell) {
+            revenueCents += feeCents;
+            count++;
+            dwellMillis += dwell;
+        }
+
+        void reset() {
+            revenueCents = 0;
+            count = 0;
+            dwellMillis = 0;
+        }
+
+        long[] toArray() {
+            return new long[]{revenueCents, count, dwellMillis};
+        }
+    }
+}
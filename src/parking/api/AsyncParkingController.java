@@ -0,0 +1,67 @@
+package parking.api;
+
+import parking.util.VirtualThreads;
+
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.Executor;
+import java.util.concurrent.ExecutorService;
+
+/**
+ * Non-blocking front end to {@link ParkingController}: every call returns at once with a
+ * CompletableFuture and runs on its own (virtual, where available) thread.
+ *
+ * No extra locking is added here. The domain model already serializes only what it must
+ * (one plate at a time, plus a CAS per slot), so concurrent requests for different vehicles
+ * run in parallel. Responses, including failures, are the same as the synchronous controller's;
+ * the futures never complete exceptionally for domain errors.
+ */
+public class AsyncParkingController implements AutoCloseable {
+    private final ParkingController controller;
+    private final Executor executor;
+    private final ExecutorService ownedExecutor;
+
+    /**
+     * Runs requests on a new thread-per-task executor, shut down by {@link #close()}.
+     */
+    public AsyncParkingController(ParkingController controller) {
+        this.controller = controller;
+        this.ownedExecutor = VirtualThreads.newThreadPerTaskExecutor("parking-async");
+        this.executor = ownedExecutor;
+    }
+
+    /**
+     * Runs requests on the caller's executor, which stays open after {@link #close()}.
+     */
+    public AsyncParkingController(ParkingController controller, Executor executor) {
+        this.controller = controller;
+        this.executor = executor;
+        this.ownedExecutor = null;
+    }
+
+    public CompletableFuture<ParkingResponse> parkVehicle(ParkVehicleRequest request) {
+        return CompletableFuture.supplyAsync(() -> controller.parkVehicle(request), executor);
+    }
+
+    public CompletableFuture<ParkingResponse> unparkVehicle(UnparkVehicleRequest request) {
+        return CompletableFuture.supplyAsync(() -> controller.unparkVehicle(request), executor);
+    }
+
+    public CompletableFuture<ParkingResponse> getVehicleInfo(GetVehicleInfoRequest request) {
+        return CompletableFuture.supplyAsync(() -> controller.getVehicleInfo(request), executor);
+    }
+
+    public CompletableFuture<ParkingResponse> getParkingLotStatus() {
+        return CompletableFuture.supplyAsync(controller::getParkingLotStatus, executor);
+    }
+
+    public ParkingController getController() {
+        return controller;
+    }
+
+    @Override
+    public void close() {
+        if (ownedExecutor != null) {
+            ownedExecutor.shutdown();
+        }
+    }
+}
@@ -0,0 +1,50 @@
+package parking.api;
+
+import parking.domain.ParkingBatchResult;
+
+/**
+ * Response for the batch APIs. {@code success} says whether the batch was processed at all;
+ * per-item outcomes (transaction or failure reason, in request order) are in the result.
+ */
+public class BatchParkingResponse {
+    private boolean success;
+    private String message;
+    private ParkingBatchResult result;
+
+    public BatchParkingResponse(boolean success, String message, ParkingBatchResult result) {
+        this.success = success;
+        this.message = message;
+        this.result = result;
+    }
+
+    // Getters
+    public boolean isSuccess() {
+        return success;
+    }
+
+    public String getMessage() {
+        return message;
+    }
+
+    public ParkingBatchResult getResult() {
+        return result;
+    }
+
+    @Override
+    public String toString() {
+        StringBuilder sb = new StringBuilder();
+        sb.append("BatchParkingResponse{")
+          .append("success=").append(success)
+          .append(", message='").append(message).append('\'');
+        if (result != null) {
+            sb.append(", successCount=").append(result.getSuccessCount())
+              .append(", failureCount=").append(result.getFailureCount());
+            for (int i = 0; i < result.size(); i++) {
+                if (!result.isSuccess(i)) {
+                    sb.append(", [").append(i).append("] ").append(result.getFailureReason(i));
+                }
+            }
+        }
+        return sb.append('}').toString();
+    }
+}
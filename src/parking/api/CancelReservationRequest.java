@@ -0,0 +1,21 @@
+package parking.api;
+
+public class CancelReservationRequest {
+    private String licensePlate;
+
+    public CancelReservationRequest(String licensePlate) {
+        this.licensePlate = licensePlate;
+    }
+
+    // Getters
+    public String getLicensePlate() {
+        return licensePlate;
+    }
+
+    @Override
+    public String toString() {
+        return "CancelReservationRequest{" +
+                "licensePlate='" + licensePlate + '\'' +
+                '}';
+    }
+}
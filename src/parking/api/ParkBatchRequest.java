@@ -0,0 +1,27 @@
+package parking.api;
+
+import java.util.List;
+
+public class ParkBatchRequest {
+    private List<ParkVehicleRequest> requests;
+
+    public ParkBatchRequest(List<ParkVehicleRequest> requests) {
+        this.requests = requests;
+    }
+
+    // Getters
+    public List<ParkVehicleRequest> getRequests() {
+        return requests;
+    }
+
+    public int size() {
+        return requests.size();
+    }
+
+    @Override
+    public String toString() {
+        return "ParkBatchRequest{" +
+                "size=" + requests.size() +
+                '}';
+    }
+}
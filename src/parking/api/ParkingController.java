@@ -1,52 +1,172 @@
 package parking.api;
 
 import parking.domain.*;
+import parking.metrics.ControllerMetrics;
+import parking.metrics.ParkingApi;
+import parking.occupancy.OccupancySubscription;
 import parking.service.ParkingService;
 
+import java.util.ArrayList;
+import java.util.List;
+
 public class ParkingController {
     private ParkingService parkingService;
+    private final ControllerMetrics metrics;
 
     public ParkingController(ParkingService parkingService) {
+        this(parkingService, new ControllerMetrics(false));
+    }
+
+    public ParkingController(ParkingService parkingService, ControllerMetrics metrics) {
         this.parkingService = parkingService;
+        this.metrics = metrics;
+    }
+
+    public ControllerMetrics getMetrics() {
+        return metrics;
     }
 
     // API 1: Park Vehicle
     public ParkingResponse parkVehicle(ParkVehicleRequest request) {
+        long start = metrics.start(ParkingApi.PARK_VEHICLE);
         try {
             ParkingTransaction transaction = parkingService.parkVehicle(request.getLicensePlate(), request.getVehicleType());
+            metrics.recordSuccess(ParkingApi.PARK_VEHICLE, start);
             return new ParkingResponse(true, "Vehicle parked successfully", transaction);
         } catch (Exception e) {
-            return new ParkingResponse(false, "Failed to park vehicle: " + e.getMessage(), null);
+            metrics.recordFailure(ParkingApi.PARK_VEHICLE, start, e);
+            return ParkingResponse.failure("Failed to park vehicle: " + e.getMessage(), e);
         }
     }
 
     // API 2: Unpark Vehicle
     public ParkingResponse unparkVehicle(UnparkVehicleRequest request) {
+        long start = metrics.start(ParkingApi.UNPARK_VEHICLE);
         try {
             ParkingTransaction transaction = parkingService.unparkVehicle(request.getLicensePlate());
+            metrics.recordSuccess(ParkingApi.UNPARK_VEHICLE, start);
             return new ParkingResponse(true, "Vehicle unparked successfully", transaction);
         } catch (Exception e) {
-            return new ParkingResponse(false, "Failed to unpark vehicle: " + e.getMessage(), null);
+            metrics.recordFailure(ParkingApi.UNPARK_VEHICLE, start, e);
+            return ParkingResponse.failure("Failed to unpark vehicle: " + e.getMessage(), e);
         }
     }
 
     // API 3: Get Vehicle Info with Charges
     public ParkingResponse getVehicleInfo(GetVehicleInfoRequest request) {
+        long start = metrics.start(ParkingApi.GET_VEHICLE_INFO);
         try {
             VehicleInfo vehicleInfo = parkingService.getVehicleInfo(request.getLicensePlate());
+            metrics.recordSuccess(ParkingApi.GET_VEHICLE_INFO, start);
             return new ParkingResponse(true, "Vehicle info retrieved successfully", vehicleInfo);
         } catch (Exception e) {
-            return new ParkingResponse(false, "Failed to get vehicle info: " + e.getMessage(), null);
+            metrics.recordFailure(ParkingApi.GET_VEHICLE_INFO, start, e);
+            return ParkingResponse.failure("Failed to get vehicle info: " + e.getMessage(), e);
+        }
+    }
+
+    // Batch API: Park a burst of vehicles in one call
+    public BatchParkingResponse parkVehicles(ParkBatchRequest request) {
+        long start = metrics.start(ParkingApi.PARK_VEHICLES);
+        try {
+            List<String> licensePlates = new ArrayList<>(request.size());
+            List<VehicleType> vehicleTypes = new ArrayList<>(request.size());
+            for (ParkVehicleRequest item : request.getRequests()) {
+                licensePlates.add(item.getLicensePlate());
+                vehicleTypes.add(item.getVehicleType());
+            }
+            ParkingBatchResult result = parkingService.parkVehicles(licensePlates, vehicleTypes);
+            metrics.recordSuccess(ParkingApi.PARK_VEHICLES, start);
+            metrics.recordBatchItems(ParkingApi.PARK_VEHICLES, result);
+            return new BatchParkingResponse(true, "Batch park processed", result);
+        } catch (Exception e) {
+            metrics.recordFailure(ParkingApi.PARK_VEHICLES, start, e);
+            return new BatchParkingResponse(false, "Failed to park vehicles: " + e.getMessage(), null);
+        }
+    }
+
+    // Batch API: Unpark a burst of vehicles in one call
+    public BatchParkingResponse unparkVehicles(UnparkBatchRequest request) {
+        long start = metrics.start(ParkingApi.UNPARK_VEHICLES);
+        try {
+            List<String> licensePlates = new ArrayList<>(request.size());
+            for (UnparkVehicleRequest item : request.getRequests()) {
+                licensePlates.add(item.getLicensePlate());
+            }
+            ParkingBatchResult result = parkingService.unparkVehicles(licensePlates);
+            metrics.recordSuccess(ParkingApi.UNPARK_VEHICLES, start);
+            metrics.recordBatchItems(ParkingApi.UNPARK_VEHICLES, result);
+            return new BatchParkingResponse(true, "Batch unpark processed", result);
+        } catch (Exception e) {
+            metrics.recordFailure(ParkingApi.UNPARK_VEHICLES, start, e);
+            return new BatchParkingResponse(false, "Failed to unpark vehicles: " + e.getMessage(), null);
+        }
+    }
+
+    // Reservation API: Hold a slot for a pre-booked vehicle
+    public ParkingResponse reserveSlot(ReserveSlotRequest request) {
+        long start = metrics.start(ParkingApi.RESERVE_SLOT);
+        try {
+            SlotReservation reservation = parkingService.reserveSlot(
+                    request.getLicensePlate(), request.getVehicleType(), request.getHoldTime());
+            metrics.recordSuccess(ParkingApi.RESERVE_SLOT, start);
+            return new ParkingResponse(true, "Slot reserved successfully", reservation);
+        } catch (Exception e) {
+            metrics.recordFailure(ParkingApi.RESERVE_SLOT, start, e);
+            return ParkingResponse.failure("Failed to reserve slot: " + e.getMessage(), e);
+        }
+    }
+
+    // Reservation API: Release a held slot
+    public ParkingResponse cancelReservation(CancelReservationRequest request) {
+        long start = metrics.start(ParkingApi.CANCEL_RESERVATION);
+        try {
+            SlotReservation reservation = parkingService.cancelReservation(request.getLicensePlate());
+            metrics.recordSuccess(ParkingApi.CANCEL_RESERVATION, start);
+            return new ParkingResponse(true, "Reservation cancelled successfully", reservation);
+        } catch (Exception e) {
+            metrics.recordFailure(ParkingApi.CANCEL_RESERVATION, start, e);
+            return ParkingResponse.failure("Failed to cancel reservation: " + e.getMessage(), e);
+        }
+    }
+
+    // Subscription API: Push occupancy deltas to a client instead of status polling
+    public ParkingResponse subscribeOccupancy(SubscribeOccupancyRequest request) {
+        long start = metrics.start(ParkingApi.SUBSCRIBE_OCCUPANCY);
+        try {
+            OccupancySubscription subscription = parkingService.subscribeOccupancy(request.getFloorNumbers(),
+                    request.getSlotTypes(), request.getInterval(), request.getListener());
+            metrics.recordSuccess(ParkingApi.SUBSCRIBE_OCCUPANCY, start);
+            return new ParkingResponse(true, "Subscribed to occupancy changes", subscription);
+        } catch (Exception e) {
+            metrics.recordFailure(ParkingApi.SUBSCRIBE_OCCUPANCY, start, e);
+            return ParkingResponse.failure("Failed to subscribe: " + e.getMessage(), e);
+        }
+    }
+
+    // Subscription API: Stop pushing occupancy deltas
+    public ParkingResponse unsubscribeOccupancy(UnsubscribeOccupancyRequest request) {
+        long start = metrics.start(ParkingApi.UNSUBSCRIBE_OCCUPANCY);
+        try {
+            parkingService.unsubscribeOccupancy(request.getSubscriptionId());
+            metrics.recordSuccess(ParkingApi.UNSUBSCRIBE_OCCUPANCY, start);
+            return new ParkingResponse(true, "Unsubscribed from occupancy changes", null);
+        } catch (Exception e) {
+            metrics.recordFailure(ParkingApi.UNSUBSCRIBE_OCCUPANCY, start, e);
+            return ParkingResponse.failure("Failed to unsubscribe: " + e.getMessage(), e);
         }
     }
 
     // Additional API: Get Parking Lot Status
     public ParkingResponse getParkingLotStatus() {
+        long start = metrics.start(ParkingApi.GET_PARKING_LOT_STATUS);
         try {
             ParkingLotStatus status = parkingService.getParkingLotStatus();
+            metrics.recordSuccess(ParkingApi.GET_PARKING_LOT_STATUS, start);
             return new ParkingResponse(true, "Parking lot status retrieved successfully", status);
         } catch (Exception e) {
-            return new ParkingResponse(false, "Failed to get parking lot status: " + e.getMessage(), null);
+            metrics.recordFailure(ParkingApi.GET_PARKING_LOT_STATUS, start, e);
+            return ParkingResponse.failure("Failed to get parking lot status: " + e.getMessage(), e);
         }
     }
 } 
\ No newline at end of file
@@ -1,9 +1,13 @@
 package parking.api;
 
+import parking.domain.ParkingFailure;
+import parking.domain.ParkingStateException;
+
 public class ParkingResponse {
     private boolean success;
     private String message;
     private Object data;
+    private ParkingFailure failure; // why a failed call was refused, null if not a known refusal
 
     public ParkingResponse(boolean success, String message, Object data) {
         this.success = success;
@@ -11,6 +15,12 @@ public class ParkingResponse {
         this.data = data;
     }
 
+    public static ParkingResponse failure(String message, Exception exception) {
+        ParkingResponse response = new ParkingResponse(false, message, null);
+        response.failure = ParkingStateException.failureOf(exception);
+        return response;
+    }
+
     // Getters
     public boolean isSuccess() {
         return success;
@@ -24,12 +34,17 @@ public class ParkingResponse {
         return data;
     }
 
+    public ParkingFailure getFailure() {
+        return failure;
+    }
+
     @Override
     public String toString() {
         return "ParkingResponse{" +
                 "success=" + success +
                 ", message='" + message + '\'' +
                 ", data=" + data +
+                (failure != null ? ", failure=" + failure : "") +
                 '}';
     }
 } 
\ No newline at end of file
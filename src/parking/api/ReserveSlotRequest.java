@@ -0,0 +1,39 @@
+package parking.api;
+
+import parking.domain.VehicleType;
+
+import java.time.Duration;
+
+public class ReserveSlotRequest {
+    private String licensePlate;
+    private VehicleType vehicleType;
+    private Duration holdTime;
+
+    public ReserveSlotRequest(String licensePlate, VehicleType vehicleType, Duration holdTime) {
+        this.licensePlate = licensePlate;
+        this.vehicleType = vehicleType;
+        this.holdTime = holdTime;
+    }
+
+    // Getters
+    public String getLicensePlate() {
+        return licensePlate;
+    }
+
+    public VehicleType getVehicleType() {
+        return vehicleType;
+    }
+
+    public Duration getHoldTime() {
+        return holdTime;
+    }
+
+    @Override
+    public String toString() {
+        return "ReserveSlotRequest{" +
+                "licensePlate='" + licensePlate + '\'' +
+                ", vehicleType=" + vehicleType +
+                ", holdTime=" + holdTime +
+                '}';
+    }
+}
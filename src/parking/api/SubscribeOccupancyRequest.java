@@ -0,0 +1,48 @@
+package parking.api;
+
+import parking.domain.VehicleType;
+import parking.occupancy.OccupancyListener;
+
+import java.time.Duration;
+import java.util.Set;
+
+public class SubscribeOccupancyRequest {
+    private Set<Integer> floorNumbers;     // null or empty for every floor
+    private Set<VehicleType> slotTypes;    // null or empty for every slot type
+    private Duration interval;
+    private OccupancyListener listener;
+
+    public SubscribeOccupancyRequest(Set<Integer> floorNumbers, Set<VehicleType> slotTypes,
+                                     Duration interval, OccupancyListener listener) {
+        this.floorNumbers = floorNumbers;
+        this.slotTypes = slotTypes;
+        this.interval = interval;
+        this.listener = listener;
+    }
+
+    // Getters
+    public Set<Integer> getFloorNumbers() {
+        return floorNumbers;
+    }
+
+    public Set<VehicleType> getSlotTypes() {
+        return slotTypes;
+    }
+
+    public Duration getInterval() {
+        return interval;
+    }
+
+    public OccupancyListener getListener() {
+        return listener;
+    }
+
+    @Override
+    public String toString() {
+        return "SubscribeOccupancyRequest{" +
+                "floorNumbers=" + floorNumbers +
+                ", slotTypes=" + slotTypes +
+                ", interval=" + interval +
+                '}';
+    }
+}
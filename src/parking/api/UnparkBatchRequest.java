@@ -0,0 +1,27 @@
+package parking.api;
+
+import java.util.List;
+
+public class UnparkBatchRequest {
+    private List<UnparkVehicleRequest> requests;
+
+    public UnparkBatchRequest(List<UnparkVehicleRequest> requests) {
+        this.requests = requests;
+    }
+
+    // Getters
+    public List<UnparkVehicleRequest> getRequests() {
+        return requests;
+    }
+
+    public int size() {
+        return requests.size();
+    }
+
+    @Override
+    public String toString() {
+        return "UnparkBatchRequest{" +
+                "size=" + requests.size() +
+                '}';
+    }
+}
@@ -0,0 +1,21 @@
+package parking.api;
+
+public class UnsubscribeOccupancyRequest {
+    private long subscriptionId;
+
+    public UnsubscribeOccupancyRequest(long subscriptionId) {
+        this.subscriptionId = subscriptionId;
+    }
+
+    // Getters
+    public long getSubscriptionId() {
+        return subscriptionId;
+    }
+
+    @Override
+    public String toString() {
+        return "UnsubscribeOccupancyRequest{" +
+                "subscriptionId=" + subscriptionId +
+                '}';
+    }
+}
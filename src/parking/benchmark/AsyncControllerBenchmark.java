@@ -0,0 +1,111 @@
+package parking.benchmark;
+
+import parking.api.*;
+import parking.domain.*;
+import parking.service.ParkingService;
+import parking.util.VirtualThreads;
+
+import java.lang.management.ManagementFactory;
+import java.lang.management.ThreadMXBean;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.Semaphore;
+
+/**
+ * Compares the synchronous controller driven by one platform thread per pending request with
+ * AsyncParkingController at the same number of requests in flight.
+ *
+ * Each request is a park followed by an unpark of the same vehicle. For both paths it reports
+ * throughput and the peak number of live threads, which is what each pending request costs
+ * in platform-thread stacks.
+ *
+ * Usage: AsyncControllerBenchmark [inFlight] [requests] [rounds]
+ */
+public class AsyncControllerBenchmark {
+    public static void main(String[] args) throws InterruptedException {
+        int inFlight = args.length > 0 ? Integer.parseInt(args[0]) : 1_000;
+        int requests = args.length > 1 ? Integer.parseInt(args[1]) : 200_000;
+        int rounds = args.length > 2 ? Integer.parseInt(args[2]) : 5;
+
+        ParkingController controller = new ParkingController(new ParkingService(createParkingLot(inFlight)));
+        ThreadMXBean threads = ManagementFactory.getThreadMXBean();
+        System.out.println("inFlight=" + inFlight + ", requests=" + requests
+                + ", virtualThreads=" + VirtualThreads.isAvailable());
+        for (int round = 1; round <= rounds; round++) {
+            threads.resetPeakThreadCount();
+            long syncNanos = runSync(controller, inFlight, requests);
+            int syncThreads = threads.getPeakThreadCount();
+
+            threads.resetPeakThreadCount();
+            long asyncNanos;
+            try (AsyncParkingController asyncController = new AsyncParkingController(controller)) {
+                asyncNanos = runAsync(asyncController, inFlight, requests);
+            }
+            int asyncThreads = threads.getPeakThreadCount();
+
+            System.out.printf("round %d: sync %,10.0f req/s (peak %d threads), async %,10.0f req/s (peak %d threads)%n",
+                    round, requests * 1e9 / syncNanos, syncThreads, requests * 1e9 / asyncNanos, asyncThreads);
+        }
+    }
+
+    // One blocked platform thread per request in flight, as the gate integration does today
+    private static long runSync(ParkingController controller, int inFlight, int requests) throws InterruptedException {
+        CountDownLatch done = new CountDownLatch(inFlight);
+        long start = System.nanoTime();
+        for (int t = 0; t < inFlight; t++) {
+            int worker = t;
+            Thread thread = new Thread(() -> {
+                for (int i = worker; i < requests; i += inFlight) {
+                    parkAndUnpark(controller, "KA-" + i);
+                }
+                done.countDown();
+            });
+            thread.start();
+        }
+        done.await();
+        return System.nanoTime() - start;
+    }
+
+    // A single caller keeps up to inFlight requests outstanding
+    private static long runAsync(AsyncParkingController controller, int inFlight, int requests) throws InterruptedException {
+        Semaphore permits = new Semaphore(inFlight);
+        long start = System.nanoTime();
+        for (int i = 0; i < requests; i++) {
+            permits.acquire();
+            String licensePlate = "KA-" + i;
+            controller.parkVehicle(new ParkVehicleRequest(licensePlate, VehicleType.CAR))
+                    .thenCompose(parked -> {
+                        require(parked.isSuccess());
+                        return controller.unparkVehicle(new UnparkVehicleRequest(licensePlate));
+                    })
+                    .whenComplete((unparked, failure) -> {
+                        permits.release();
+                        require(failure == null && unparked.isSuccess());
+                    });
+        }
+        permits.acquire(inFlight);
+        return System.nanoTime() - start;
+    }
+
+    private static void parkAndUnpark(ParkingController controller, String licensePlate) {
+        require(controller.parkVehicle(new ParkVehicleRequest(licensePlate, VehicleType.CAR)).isSuccess());
+        require(controller.unparkVehicle(new UnparkVehicleRequest(licensePlate)).isSuccess());
+    }
+
+    // One car slot per request in flight, so parks never fail
+    private static ParkingLot createParkingLot(int slots) {
+        ParkingLot parkingLot = new ParkingLot("BENCH", slots);
+        ParkingFloor floor = new ParkingFloor(1, slots);
+        for (int i = 0; i < slots; i++) {
+            floor.addParkingSlot(new ParkingSlot("F1-" + i, VehicleType.CAR, 1));
+        }
+        parkingLot.addFloor(floor);
+        return parkingLot;
+    }
+
+    private static void require(boolean condition) {
+        if (!condition) {
+            throw new IllegalStateException("Benchmark operation failed");
+        }
+    }
+}
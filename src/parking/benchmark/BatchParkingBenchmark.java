@@ -0,0 +1,94 @@
+package parking.benchmark;
+
+import parking.api.*;
+import parking.domain.*;
+import parking.service.ParkingService;
+
+import java.util.ArrayList;
+import java.util.List;
+
+/**
+ * Compares N single park/unpark calls through ParkingController against the same N
+ * operations sent as batches.
+ *
+ * Usage: BatchParkingBenchmark [slots] [batchSize] [rounds]
+ */
+public class BatchParkingBenchmark {
+    public static void main(String[] args) {
+        int slots = args.length > 0 ? Integer.parseInt(args[0]) : 100_000;
+        int batchSize = args.length > 1 ? Integer.parseInt(args[1]) : 256;
+        int rounds = args.length > 2 ? Integer.parseInt(args[2]) : 10;
+
+        ParkingController controller = new ParkingController(new ParkingService(createParkingLot(slots)));
+        List<ParkVehicleRequest> parkRequests = new ArrayList<>(slots);
+        List<UnparkVehicleRequest> unparkRequests = new ArrayList<>(slots);
+        for (int i = 0; i < slots; i++) {
+            String licensePlate = "KA-" + i;
+            parkRequests.add(new ParkVehicleRequest(licensePlate, VehicleType.CAR));
+            unparkRequests.add(new UnparkVehicleRequest(licensePlate));
+        }
+
+        System.out.println("slots=" + slots + ", batchSize=" + batchSize + ", rounds=" + rounds);
+        for (int round = 1; round <= rounds; round++) {
+            long singleNanos = runSingle(controller, parkRequests, unparkRequests);
+            long batchNanos = runBatched(controller, parkRequests, unparkRequests, batchSize);
+            System.out.printf("round %2d: single %,10.0f ops/s, batched %,10.0f ops/s (x%.2f)%n",
+                    round, opsPerSecond(2L * slots, singleNanos), opsPerSecond(2L * slots, batchNanos),
+                    (double) singleNanos / batchNanos);
+        }
+    }
+
+    private static long runSingle(ParkingController controller, List<ParkVehicleRequest> parkRequests,
+                                  List<UnparkVehicleRequest> unparkRequests) {
+        long start = System.nanoTime();
+        for (ParkVehicleRequest request : parkRequests) {
+            require(controller.parkVehicle(request).isSuccess());
+        }
+        for (UnparkVehicleRequest request : unparkRequests) {
+            require(controller.unparkVehicle(request).isSuccess());
+        }
+        return System.nanoTime() - start;
+    }
+
+    private static long runBatched(ParkingController controller, List<ParkVehicleRequest> parkRequests,
+                                   List<UnparkVehicleRequest> unparkRequests, int batchSize) {
+        long start = System.nanoTime();
+        for (int from = 0; from < parkRequests.size(); from += batchSize) {
+            int to = Math.min(from + batchSize, parkRequests.size());
+            BatchParkingResponse response = controller.parkVehicles(new ParkBatchRequest(parkRequests.subList(from, to)));
+            require(response.getResult().getFailureCount() == 0);
+        }
+        for (int from = 0; from < unparkRequests.size(); from += batchSize) {
+            int to = Math.min(from + batchSize, unparkRequests.size());
+            BatchParkingResponse response = controller.unparkVehicles(new UnparkBatchRequest(unparkRequests.subList(from, to)));
+            require(response.getResult().getFailureCount() == 0);
+        }
+        return System.nanoTime() - start;
+    }
+
+    // Mixed layout so cars can fall back to bus slots once car slots run out
+    private static ParkingLot createParkingLot(int slots) {
+        ParkingLot parkingLot = new ParkingLot("BENCH");
+        int slotsPerFloor = 10_000;
+        for (int floorNumber = 1; (floorNumber - 1) * slotsPerFloor < slots; floorNumber++) {
+            ParkingFloor floor = new ParkingFloor(floorNumber);
+            int floorSlots = Math.min(slotsPerFloor, slots - (floorNumber - 1) * slotsPerFloor);
+            for (int i = 0; i < floorSlots; i++) {
+                VehicleType slotType = i % 10 == 0 ? VehicleType.BUS : VehicleType.CAR;
+                floor.addParkingSlot(new ParkingSlot("F" + floorNumber + "-" + i, slotType, floorNumber));
+            }
+            parkingLot.addFloor(floor);
+        }
+        return parkingLot;
+    }
+
+    private static double opsPerSecond(long operations, long nanos) {
+        return operations * 1_000_000_000.0 / nanos;
+    }
+
+    private static void require(boolean condition) {
+        if (!condition) {
+            throw new IllegalStateException("Benchmark operation failed");
+        }
+    }
+}
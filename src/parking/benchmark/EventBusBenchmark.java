@@ -0,0 +1,150 @@
+package parking.benchmark;
+
+import parking.domain.*;
+
+import java.lang.management.ManagementFactory;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.atomic.LongAdder;
+
+/**
+ * What it costs the gates to feed three downstream consumers (e.g. billing, display boards,
+ * audit), each counting the events it receives:
+ * <ul>
+ *   <li>none: no consumer attached, the baseline</li>
+ *   <li>async listeners: one {@link AsyncParkingLotListener} per consumer (a queue node and a
+ *       closure per event and consumer)</li>
+ *   <li>event bus: one {@link ParkingEventBus} with three consumers (blocking, sleeping and
+ *       yielding wait strategies)</li>
+ * </ul>
+ * Reported per park or unpark: wall time with several gate threads, and heap allocated by the
+ * gate threads, which includes the Vehicle and transaction of the park itself.
+ *
+ * Usage: EventBusBenchmark [gates] [operationsPerGate] [bufferSize]
+ */
+public class EventBusBenchmark {
+    private static final int CONSUMERS = 3;
+
+    public static void main(String[] args) throws Exception {
+        int gates = args.length > 0 ? Integer.parseInt(args[0]) : 4;
+        int operationsPerGate = args.length > 1 ? Integer.parseInt(args[1]) : 500_000;
+        int bufferSize = args.length > 2 ? Integer.parseInt(args[2]) : 1 << 16;
+
+        System.out.println("gates=" + gates + ", operationsPerGate=" + operationsPerGate
+                + ", consumers=" + CONSUMERS + ", bufferSize=" + bufferSize);
+        for (int round = 1; round <= 3; round++) {
+            System.out.printf("round %d:%n  none            %s%n  async listeners %s%n  event bus       %s%n", round,
+                    runNone(gates, operationsPerGate),
+                    runAsyncListeners(gates, operationsPerGate),
+                    runEventBus(gates, operationsPerGate, bufferSize));
+        }
+    }
+
+    private static String runNone(int gates, int operationsPerGate) throws Exception {
+        ParkingLot parkingLot = createParkingLot(gates);
+        return runGates(parkingLot, gates, operationsPerGate);
+    }
+
+    private static String runAsyncListeners(int gates, int operationsPerGate) throws Exception {
+        ParkingLot parkingLot = createParkingLot(gates);
+        LongAdder received = new LongAdder();
+        List<AsyncParkingLotListener> listeners = new ArrayList<>();
+        for (int i = 0; i < CONSUMERS; i++) {
+            AsyncParkingLotListener listener = new AsyncParkingLotListener(new ParkingLotListener() {
+                @Override
+                public void onVehicleParked(ParkingTransaction transaction) {
+                    received.increment();
+                }
+
+                @Override
+                public void onVehicleUnparked(ParkingTransaction transaction) {
+                    received.increment();
+                }
+            }, "consumer-" + i);
+            parkingLot.addListener(listener);
+            listeners.add(listener);
+        }
+        String result = runGates(parkingLot, gates, operationsPerGate);
+        for (AsyncParkingLotListener listener : listeners) {
+            listener.drain();
+            listener.close();
+        }
+        return result + check(received.sum(), gates, operationsPerGate);
+    }
+
+    private static String runEventBus(int gates, int operationsPerGate, int bufferSize) throws Exception {
+        ParkingLot parkingLot = createParkingLot(gates);
+        ParkingEventBus bus = new ParkingEventBus(bufferSize);
+        LongAdder received = new LongAdder();
+        WaitStrategy[] waitStrategies = {WaitStrategy.blocking(), WaitStrategy.sleeping(100_000), WaitStrategy.yielding()};
+        List<ParkingEventBus.EventConsumer> consumers = new ArrayList<>();
+        for (int i = 0; i < CONSUMERS; i++) {
+            consumers.add(bus.addConsumer("consumer-" + i, (event, sequence, endOfBatch) -> received.increment(),
+                    waitStrategies[i % waitStrategies.length]));
+        }
+        parkingLot.addListener(bus);
+        String result = runGates(parkingLot, gates, operationsPerGate);
+        for (ParkingEventBus.EventConsumer consumer : consumers) {
+            consumer.drain();
+        }
+        bus.close();
+        long dropped = bus.getDroppedEvents();
+        return result + (dropped > 0 ? " (" + dropped + " dropped)" : "")
+                + check(received.sum() + CONSUMERS * dropped, gates, operationsPerGate);
+    }
+
+    private static String runGates(ParkingLot parkingLot, int gates, int operationsPerGate) throws Exception {
+        com.sun.management.ThreadMXBean threadBean = (com.sun.management.ThreadMXBean) ManagementFactory.getThreadMXBean();
+        LongAdder allocatedBytes = new LongAdder();
+        CountDownLatch start = new CountDownLatch(1);
+        List<Thread> threads = new ArrayList<>();
+        for (int gate = 0; gate < gates; gate++) {
+            String licensePlate = "GATE-" + gate;
+            Thread thread = new Thread(() -> {
+                awaitQuietly(start);
+                long before = threadBean.getCurrentThreadAllocatedBytes();
+                for (int i = 0; i < operationsPerGate; i += 2) {
+                    parkingLot.parkVehicle(new Vehicle(licensePlate, VehicleType.CAR));
+                    parkingLot.unparkVehicle(licensePlate);
+                }
+                allocatedBytes.add(threadBean.getCurrentThreadAllocatedBytes() - before);
+            });
+            thread.start();
+            threads.add(thread);
+        }
+
+        long begin = System.nanoTime();
+        start.countDown();
+        for (Thread thread : threads) {
+            thread.join();
+        }
+        long elapsed = System.nanoTime() - begin;
+        long operations = (long) gates * operationsPerGate;
+        return String.format("%,9.0f ops/s, %6.1f bytes/op on the gate", operations * 1_000_000_000.0 / elapsed,
+                (double) allocatedBytes.sum() / operations);
+    }
+
+    private static String check(long received, int gates, int operationsPerGate) {
+        long expected = (long) CONSUMERS * gates * operationsPerGate;
+        return received == expected ? "" : " (MISSED " + (expected - received) + " events)";
+    }
+
+    private static ParkingLot createParkingLot(int slots) {
+        ParkingLot parkingLot = new ParkingLot("BENCH");
+        ParkingFloor floor = new ParkingFloor(1);
+        for (int i = 0; i < slots; i++) {
+            floor.addParkingSlot(new ParkingSlot("F1-C" + i, VehicleType.CAR, 1));
+        }
+        parkingLot.addFloor(floor);
+        return parkingLot;
+    }
+
+    private static void awaitQuietly(CountDownLatch latch) {
+        try {
+            latch.await();
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+        }
+    }
+}
@@ -0,0 +1,123 @@
+package parking.benchmark;
+
+import parking.domain.*;
+import parking.persistence.ParkingJournal;
+
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.CountDownLatch;
+
+/**
+ * Measures what the write-ahead journal costs per park/unpark (no journal, buffered, and
+ * group-committed fsync) with several gate threads, and how long recovery of a journal takes.
+ *
+ * Usage: JournalBenchmark [gates] [operationsPerGate] [recoveryVehicles]
+ */
+public class JournalBenchmark {
+    public static void main(String[] args) throws Exception {
+        int gates = args.length > 0 ? Integer.parseInt(args[0]) : 12;
+        int operationsPerGate = args.length > 1 ? Integer.parseInt(args[1]) : 20_000;
+        int recoveryVehicles = args.length > 2 ? Integer.parseInt(args[2]) : 200_000;
+
+        System.out.println("gates=" + gates + ", operationsPerGate=" + operationsPerGate);
+        for (int round = 1; round <= 3; round++) {
+            System.out.printf("round %d: no journal %s | buffered %s | group commit %s%n", round,
+                    describe(runGates(gates, operationsPerGate, null), gates, operationsPerGate),
+                    describe(runGates(gates, operationsPerGate, Boolean.FALSE), gates, operationsPerGate),
+                    describe(runGates(gates, operationsPerGate, Boolean.TRUE), gates, operationsPerGate));
+        }
+
+        measureRecovery(recoveryVehicles);
+    }
+
+    // journalSync: null = no journal, false = buffered, true = wait for group commit
+    private static long runGates(int gates, int operationsPerGate, Boolean journalSync) throws Exception {
+        ParkingLot parkingLot = createParkingLot(gates * 2);
+        Path file = Files.createTempFile("parking-journal", ".log");
+        ParkingJournal journal = journalSync == null ? null : ParkingJournal.open(file, journalSync);
+        if (journal != null) {
+            parkingLot.setJournal(journal);
+        }
+
+        CountDownLatch start = new CountDownLatch(1);
+        List<Thread> threads = new ArrayList<>();
+        for (int gate = 0; gate < gates; gate++) {
+            String licensePlate = "GATE-" + gate;
+            Thread thread = new Thread(() -> {
+                awaitQuietly(start);
+                for (int i = 0; i < operationsPerGate; i += 2) {
+                    parkingLot.parkVehicle(new Vehicle(licensePlate, VehicleType.CAR));
+                    parkingLot.unparkVehicle(licensePlate);
+                }
+            });
+            thread.start();
+            threads.add(thread);
+        }
+
+        long begin = System.nanoTime();
+        start.countDown();
+        for (Thread thread : threads) {
+            thread.join();
+        }
+        if (journal != null) {
+            journal.sync();
+        }
+        long elapsed = System.nanoTime() - begin;
+
+        if (journal != null) {
+            journal.close();
+        }
+        Files.deleteIfExists(file);
+        return elapsed;
+    }
+
+    private static void measureRecovery(int vehicles) throws Exception {
+        Path file = Files.createTempFile("parking-journal", ".log");
+        ParkingLot parkingLot = createParkingLot(vehicles);
+        try (ParkingJournal journal = ParkingJournal.open(file, false)) {
+            parkingLot.setJournal(journal);
+            for (int i = 0; i < vehicles; i++) {
+                parkingLot.parkVehicle(new Vehicle("KA-" + i, VehicleType.CAR));
+            }
+            // Churn a tenth of them so replay has to fold unparks and re-parks too
+            for (int i = 0; i < vehicles / 10; i++) {
+                parkingLot.unparkVehicle("KA-" + i);
+                parkingLot.parkVehicle(new Vehicle("KA-" + i, VehicleType.CAR));
+            }
+        }
+
+        ParkingLot recovered = createParkingLot(vehicles);
+        long begin = System.nanoTime();
+        int restored = ParkingJournal.recover(file, recovered);
+        long elapsed = System.nanoTime() - begin;
+        System.out.printf("recovery: %,d records (%,d bytes) -> %,d vehicles in %,d ms%n",
+                vehicles + vehicles / 5, Files.size(file), restored, elapsed / 1_000_000);
+        Files.deleteIfExists(file);
+    }
+
+    private static ParkingLot createParkingLot(int slots) {
+        ParkingLot parkingLot = new ParkingLot("BENCH");
+        ParkingFloor floor = new ParkingFloor(1);
+        for (int i = 0; i < slots; i++) {
+            floor.addParkingSlot(new ParkingSlot("F1-C" + i, VehicleType.CAR, 1));
+        }
+        parkingLot.addFloor(floor);
+        return parkingLot;
+    }
+
+    private static String describe(long nanos, int gates, int operationsPerGate) {
+        long operations = (long) gates * operationsPerGate;
+        return String.format("%,9.0f ops/s (%.2f us/op/gate)", operations * 1_000_000_000.0 / nanos,
+                nanos / 1000.0 / operationsPerGate);
+    }
+
+    private static void awaitQuietly(CountDownLatch latch) {
+        try {
+            latch.await();
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+        }
+    }
+}
@@ -0,0 +1,122 @@
+package parking.benchmark;
+
+import parking.domain.*;
+import parking.occupancy.OccupancyFeed;
+import parking.occupancy.OccupancySubscription;
+
+import java.time.Duration;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Set;
+import java.util.concurrent.Executors;
+import java.util.concurrent.ScheduledExecutorService;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicBoolean;
+import java.util.concurrent.atomic.LongAdder;
+
+/**
+ * Display boards kept up to date while gates park and unpark, one board per floor:
+ * <ul>
+ *   <li>polling: every board calls getParkingLotStatus() once per interval, changed or not</li>
+ *   <li>subscriptions: every board subscribes to its floor on an {@link OccupancyFeed} and is
+ *       pushed a delta at most once per interval, only when its floor changed</li>
+ * </ul>
+ * Reported: gate throughput, and how many status reads or deltas the boards handled.
+ *
+ * Usage: OccupancyFeedBenchmark [boards] [intervalMillis] [seconds]
+ */
+public class OccupancyFeedBenchmark {
+    private static final int GATES = 2;
+    private static final int SLOTS_PER_FLOOR = 50;
+
+    public static void main(String[] args) throws Exception {
+        int boards = args.length > 0 ? Integer.parseInt(args[0]) : 100;
+        long intervalMillis = args.length > 1 ? Long.parseLong(args[1]) : 20;
+        int seconds = args.length > 2 ? Integer.parseInt(args[2]) : 3;
+
+        System.out.println("boards=" + boards + ", intervalMillis=" + intervalMillis
+                + ", gates=" + GATES + ", seconds=" + seconds);
+        for (int round = 1; round <= 3; round++) {
+            System.out.printf("round %d:%n  polling       %s%n  subscriptions %s%n", round,
+                    runPolling(boards, intervalMillis, seconds),
+                    runSubscriptions(boards, intervalMillis, seconds));
+        }
+    }
+
+    private static String runPolling(int boards, long intervalMillis, int seconds) throws Exception {
+        ParkingLot parkingLot = createParkingLot(boards);
+        LongAdder reads = new LongAdder();
+        ScheduledExecutorService scheduler = Executors.newScheduledThreadPool(1);
+        for (int board = 0; board < boards; board++) {
+            scheduler.scheduleAtFixedRate(() -> {
+                parkingLot.getParkingLotStatus();
+                reads.increment();
+            }, 0, intervalMillis, TimeUnit.MILLISECONDS);
+        }
+        String result = runGates(parkingLot, boards, seconds);
+        scheduler.shutdownNow();
+        scheduler.awaitTermination(1, TimeUnit.SECONDS);
+        return result + String.format(", %,9d status reads", reads.sum());
+    }
+
+    private static String runSubscriptions(int boards, long intervalMillis, int seconds) throws Exception {
+        ParkingLot parkingLot = createParkingLot(boards);
+        LongAdder deltas = new LongAdder();
+        OccupancyFeed feed = new OccupancyFeed(parkingLot);
+        List<OccupancySubscription> subscriptions = new ArrayList<>();
+        for (int board = 0; board < boards; board++) {
+            subscriptions.add(feed.subscribe(Set.of(board + 1), Set.of(VehicleType.CAR),
+                    Duration.ofMillis(intervalMillis), delta -> deltas.increment()));
+        }
+        String result = runGates(parkingLot, boards, seconds);
+        long conflated = 0;
+        for (OccupancySubscription subscription : subscriptions) {
+            conflated += subscription.getConflatedDeltas();
+        }
+        feed.close();
+        return result + String.format(", %,9d deltas pushed (%d conflated)", deltas.sum(), conflated);
+    }
+
+    // Each gate parks and unparks one car; allocation keeps it on the lowest floor, so the other
+    // floors stay quiet, as most floors are between two status changes
+    private static String runGates(ParkingLot parkingLot, int floors, int seconds) throws Exception {
+        AtomicBoolean running = new AtomicBoolean(true);
+        LongAdder operations = new LongAdder();
+        List<Thread> threads = new ArrayList<>();
+        for (int gate = 0; gate < GATES; gate++) {
+            String licensePlate = "GATE-" + gate;
+            Thread thread = new Thread(() -> {
+                long count = 0;
+                while (running.get()) {
+                    parkingLot.parkVehicle(new Vehicle(licensePlate, VehicleType.CAR));
+                    parkingLot.unparkVehicle(licensePlate);
+                    count += 2;
+                }
+                operations.add(count);
+            });
+            thread.start();
+            threads.add(thread);
+        }
+
+        long begin = System.nanoTime();
+        Thread.sleep(TimeUnit.SECONDS.toMillis(seconds));
+        running.set(false);
+        for (Thread thread : threads) {
+            thread.join();
+        }
+        long elapsed = System.nanoTime() - begin;
+        return String.format("%,11.0f gate ops/s", operations.sum() * 1_000_000_000.0 / elapsed);
+    }
+
+    private static ParkingLot createParkingLot(int floors) {
+        ParkingLot parkingLot = new ParkingLot("BENCH");
+        for (int floorNumber = 1; floorNumber <= floors; floorNumber++) {
+            ParkingFloor floor = new ParkingFloor(floorNumber);
+            for (int i = 0; i < SLOTS_PER_FLOOR; i++) {
+                floor.addParkingSlot(new ParkingSlot("F" + floorNumber + "-C" + i, VehicleType.CAR, floorNumber));
+            }
+            parkingLot.addFloor(floor);
+        }
+        return parkingLot;
+    }
+}
@@ -0,0 +1,135 @@
+package parking.benchmark;
+
+import parking.domain.*;
+
+import java.nio.charset.StandardCharsets;
+import java.util.Map;
+import java.util.concurrent.ConcurrentHashMap;
+
+/**
+ * Memory and lookup cost of the lot's plate index: the previous pair of plate-keyed
+ * ConcurrentHashMaps (parkedVehicles and activeTransactions) versus one {@link PlateMap}.
+ *
+ * Both hold the same plates and values; the plate strings and values exist before the maps
+ * are built and are not counted, so the footprint is the maps' own structure. Lookups build
+ * a fresh String from the plate's bytes, as a request coming in from a gate would, so neither
+ * side gets a cached String hash:
+ * <ul>
+ *   <li>lookup: what getVehicleInfo needs (two gets before, one get now)</li>
+ *   <li>removePut: an unpark followed by a park of the same plate</li>
+ * </ul>
+ *
+ * Usage: PlateMapBenchmark [activeVehicles] [rounds]
+ */
+public class PlateMapBenchmark {
+    private static final int STRIPES = 64;
+    private static final int OPERATIONS = 1_000_000;
+
+    private static volatile long sink;  // keeps results alive so the JIT cannot drop the calls
+
+    public static void main(String[] args) {
+        int vehicles = args.length > 0 ? Integer.parseInt(args[0]) : 1_000_000;
+        int rounds = args.length > 1 ? Integer.parseInt(args[1]) : 10;
+
+        String[] plates = new String[vehicles];
+        byte[][] plateBytes = new byte[vehicles][];
+        Object[] records = new Object[vehicles];
+        for (int i = 0; i < vehicles; i++) {
+            plates[i] = String.format("KA%02d%c%c%04d", i % 100, 'A' + i / 10_000 % 26, 'A' + i / 260_000 % 26, i % 10_000);
+            plateBytes[i] = plates[i].getBytes(StandardCharsets.ISO_8859_1);
+            records[i] = new Object();
+        }
+        int[] queries = new int[OPERATIONS];
+        long random = 0x9E3779B97F4A7C15L;
+        for (int i = 0; i < OPERATIONS; i++) {
+            random ^= random << 13;
+            random ^= random >>> 7;
+            random ^= random << 17;
+            queries[i] = (int) Long.remainderUnsigned(random, vehicles);
+        }
+
+        long before = usedHeap();
+        Map<String, Object> parkedVehicles = new ConcurrentHashMap<>();
+        Map<String, Object> activeTransactions = new ConcurrentHashMap<>();
+        for (int i = 0; i < vehicles; i++) {
+            parkedVehicles.put(plates[i], records[i]);
+            activeTransactions.put(plates[i], records[i]);
+        }
+        long stringMapsBytes = usedHeap() - before;
+
+        before = usedHeap();
+        PlateMap<Object> plateMap = new PlateMap<>(STRIPES, 0);
+        for (int i = 0; i < vehicles; i++) {
+            plateMap.put(plates[i], records[i]);
+        }
+        long plateMapBytes = usedHeap() - before;
+
+        System.out.printf("activeVehicles=%,d%n", vehicles);
+        System.out.printf("two String maps footprint: %,d bytes (%.1f bytes/vehicle)%n",
+                stringMapsBytes, (double) stringMapsBytes / vehicles);
+        System.out.printf("PlateMap footprint:        %,d bytes (%.1f bytes/vehicle)%n",
+                plateMapBytes, (double) plateMapBytes / vehicles);
+
+        for (int round = 0; round <= rounds; round++) {
+            boolean report = round == rounds; // earlier rounds are warmup
+            long start = System.nanoTime();
+            for (int query : queries) {
+                String plate = new String(plateBytes[query], StandardCharsets.ISO_8859_1);
+                Object vehicle = parkedVehicles.get(plate);
+                Object transaction = activeTransactions.get(plate);
+                sink += vehicle == transaction ? 1 : 0;
+            }
+            long stringMapsLookup = System.nanoTime() - start;
+
+            start = System.nanoTime();
+            for (int query : queries) {
+                sink += plateMap.get(new String(plateBytes[query], StandardCharsets.ISO_8859_1)) != null ? 1 : 0;
+            }
+            long plateMapLookup = System.nanoTime() - start;
+
+            start = System.nanoTime();
+            for (int query : queries) {
+                String plate = new String(plateBytes[query], StandardCharsets.ISO_8859_1);
+                parkedVehicles.remove(plate);
+                activeTransactions.remove(plate);
+                if (!parkedVehicles.containsKey(plate)) {
+                    parkedVehicles.put(plate, records[query]);
+                    activeTransactions.put(plate, records[query]);
+                }
+            }
+            long stringMapsChurn = System.nanoTime() - start;
+
+            start = System.nanoTime();
+            for (int query : queries) {
+                String plate = new String(plateBytes[query], StandardCharsets.ISO_8859_1);
+                plateMap.remove(plate);
+                if (plateMap.get(plate) == null) {
+                    plateMap.put(plate, records[query]);
+                }
+            }
+            long plateMapChurn = System.nanoTime() - start;
+
+            if (report) {
+                System.out.printf("lookup:    two String maps %6.1f ns, PlateMap %6.1f ns%n",
+                        (double) stringMapsLookup / OPERATIONS, (double) plateMapLookup / OPERATIONS);
+                System.out.printf("removePut: two String maps %6.1f ns, PlateMap %6.1f ns%n",
+                        (double) stringMapsChurn / OPERATIONS, (double) plateMapChurn / OPERATIONS);
+            }
+        }
+    }
+
+    // Retained heap, after asking for full collections until the figure settles
+    private static long usedHeap() {
+        Runtime runtime = Runtime.getRuntime();
+        long used = Long.MAX_VALUE;
+        for (int i = 0; i < 10; i++) {
+            System.gc();
+            long now = runtime.totalMemory() - runtime.freeMemory();
+            if (now >= used) {
+                return now;
+            }
+            used = now;
+        }
+        return used;
+    }
+}
@@ -0,0 +1,142 @@
+package parking.benchmark;
+
+import parking.domain.*;
+
+import java.util.List;
+
+/**
+ * Heap footprint and scan speed of the two slot layouts: one ParkingSlot object per slot
+ * (ParkingFloor's default) versus the struct-of-arrays slot table ({@link ParkingFloor#withSlotTable}).
+ *
+ * Both lots have the same floors and slot mix (10% bus, 90% car) and slot IDs of the form
+ * "F3-1207". The footprint is the retained heap of the empty lot, measured after a full GC;
+ * the vehicles parked afterwards are the same objects in both layouts and are not counted.
+ * With the lot filled to the given occupancy it then times:
+ * <ul>
+ *   <li>occupiedScan: getOccupiedSlots() on every floor, a full walk over all slots</li>
+ *   <li>availableScan: getAvailableSlots(CAR) on every floor, a walk over the free-slot index</li>
+ *   <li>findSlotById: random slot lookups by ID through the lot</li>
+ *   <li>parkUnpark: a park and an unpark of one vehicle</li>
+ * </ul>
+ *
+ * Run with a heap large enough for both lots, e.g. -Xmx2g for the default million slots.
+ *
+ * Usage: SlotStorageBenchmark [slots] [occupancyPercent] [rounds]
+ */
+public class SlotStorageBenchmark {
+    private static final int SLOTS_PER_FLOOR = 10_000;
+    private static final int LOOKUPS = 100_000;
+
+    private static volatile long sink;  // keeps results alive so the JIT cannot drop the calls
+
+    public static void main(String[] args) {
+        int slots = args.length > 0 ? Integer.parseInt(args[0]) : 1_000_000;
+        int occupancyPercent = args.length > 1 ? Integer.parseInt(args[1]) : 50;
+        int rounds = args.length > 2 ? Integer.parseInt(args[2]) : 10;
+
+        System.out.printf("slots=%,d occupancy=%d%%%n", slots, occupancyPercent);
+        for (boolean slotTable : new boolean[] {false, true}) {
+            String layout = slotTable ? "slot table" : "objects";
+            long before = usedHeap();
+            ParkingLot parkingLot = createParkingLot(slots, slotTable);
+            long footprint = usedHeap() - before;
+            System.out.printf("%-10s footprint: %,d bytes (%.1f bytes/slot)%n",
+                    layout, footprint, (double) footprint / slots);
+
+            int parked = (int) ((long) slots * occupancyPercent / 100);
+            for (int i = 0; i < parked; i++) {
+                parkingLot.parkVehicle(new Vehicle("KA-" + i, VehicleType.CAR));
+            }
+            String[] slotIds = new String[LOOKUPS];
+            long random = 0x9E3779B97F4A7C15L;
+            for (int i = 0; i < LOOKUPS; i++) {
+                random = next(random);
+                int slot = (int) Long.remainderUnsigned(random, slots);
+                slotIds[i] = "F" + (slot / SLOTS_PER_FLOOR + 1) + "-" + slot % SLOTS_PER_FLOOR;
+            }
+
+            for (int round = 0; round <= rounds; round++) {
+                boolean report = round == rounds; // earlier rounds are warmup
+                long nanos = time(() -> {
+                    for (ParkingFloor floor : parkingLot.getFloors()) {
+                        sink += floor.getOccupiedSlots().size();
+                    }
+                });
+                print(report, layout, "occupiedScan", nanos, slots, "slot");
+                nanos = time(() -> {
+                    for (ParkingFloor floor : parkingLot.getFloors()) {
+                        sink += floor.getAvailableSlots(VehicleType.CAR).size();
+                    }
+                });
+                print(report, layout, "availableScan", nanos, slots, "slot");
+                nanos = time(() -> {
+                    for (String slotId : slotIds) {
+                        sink += parkingLot.findSlotById(slotId).get().getFloorNumber();
+                    }
+                });
+                print(report, layout, "findSlotById", nanos, LOOKUPS, "lookup");
+                nanos = time(() -> {
+                    for (int i = 0; i < LOOKUPS; i++) {
+                        parkingLot.parkVehicle(new Vehicle("GATE", VehicleType.CAR));
+                        sink += parkingLot.unparkVehicle("GATE").getNumericTransactionId();
+                    }
+                });
+                print(report, layout, "parkUnpark", nanos, LOOKUPS, "pair");
+            }
+        }
+    }
+
+    private static ParkingLot createParkingLot(int slots, boolean slotTable) {
+        ParkingLot parkingLot = slotTable ? new ParkingLot("BENCH") : new ParkingLot("BENCH", slots);
+        for (int floorNumber = 1; (floorNumber - 1) * SLOTS_PER_FLOOR < slots; floorNumber++) {
+            int floorSlots = Math.min(SLOTS_PER_FLOOR, slots - (floorNumber - 1) * SLOTS_PER_FLOOR);
+            ParkingFloor floor = slotTable
+                    ? ParkingFloor.withSlotTable(floorNumber, "F" + floorNumber + "-", floorSlots)
+                    : new ParkingFloor(floorNumber, floorSlots);
+            for (int i = 0; i < floorSlots; i++) {
+                VehicleType slotType = i % 10 == 0 ? VehicleType.BUS : VehicleType.CAR;
+                if (slotTable) {
+                    floor.addParkingSlot(slotType);
+                } else {
+                    floor.addParkingSlot(new ParkingSlot("F" + floorNumber + "-" + i, slotType, floorNumber));
+                }
+            }
+            parkingLot.addFloor(floor);
+        }
+        return parkingLot;
+    }
+
+    private static long time(Runnable body) {
+        long start = System.nanoTime();
+        body.run();
+        return System.nanoTime() - start;
+    }
+
+    private static void print(boolean report, String layout, String benchmark, long nanos, int count, String unit) {
+        if (report) {
+            System.out.printf("%-10s %-14s %8.1f ns/%s%n", layout, benchmark, (double) nanos / count, unit);
+        }
+    }
+
+    // Retained heap, after asking for full collections until the figure settles
+    private static long usedHeap() {
+        Runtime runtime = Runtime.getRuntime();
+        long used = Long.MAX_VALUE;
+        for (int i = 0; i < 10; i++) {
+            System.gc();
+            long now = runtime.totalMemory() - runtime.freeMemory();
+            if (now >= used) {
+                return now;
+            }
+            used = now;
+        }
+        return used;
+    }
+
+    private static long next(long random) {
+        random ^= random << 13;
+        random ^= random >>> 7;
+        random ^= random << 17;
+        return random;
+    }
+}
@@ -0,0 +1,71 @@
+package parking.benchmark;
+
+import parking.domain.*;
+import parking.persistence.ParkingLotSnapshot;
+
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.util.concurrent.CompletableFuture;
+
+/**
+ * Times building a lot slot by slot versus loading it from a snapshot, and records the worst
+ * park latency a gate sees while a snapshot is being written in the background.
+ *
+ * Usage: SnapshotBenchmark [slots] [occupancyPercent]
+ */
+public class SnapshotBenchmark {
+    public static void main(String[] args) throws Exception {
+        int slots = args.length > 0 ? Integer.parseInt(args[0]) : 1_000_000;
+        int occupancyPercent = args.length > 1 ? Integer.parseInt(args[1]) : 50;
+        Path file = Files.createTempFile("parking-lot", ".snapshot");
+
+        long begin = System.nanoTime();
+        ParkingLot parkingLot = createParkingLot(slots);
+        long buildMillis = (System.nanoTime() - begin) / 1_000_000;
+        int parked = slots / 100 * occupancyPercent;
+        for (int i = 0; i < parked; i++) {
+            parkingLot.parkVehicle(new Vehicle("KA-" + i, VehicleType.CAR));
+        }
+
+        // Background write while one gate keeps cycling a vehicle through the lot
+        CompletableFuture<Long> snapshot = ParkingLotSnapshot.writeAsync(parkingLot, null, file);
+        begin = System.nanoTime();
+        long worstParkNanos = 0;
+        long gateOperations = 0;
+        while (!snapshot.isDone()) {
+            long start = System.nanoTime();
+            parkingLot.parkVehicle(new Vehicle("GATE", VehicleType.CAR));
+            parkingLot.unparkVehicle("GATE");
+            worstParkNanos = Math.max(worstParkNanos, System.nanoTime() - start);
+            gateOperations++;
+        }
+        long bytes = snapshot.get();
+        long writeMillis = (System.nanoTime() - begin) / 1_000_000;
+
+        begin = System.nanoTime();
+        ParkingLotSnapshot loaded = ParkingLotSnapshot.load(file);
+        long loadMillis = (System.nanoTime() - begin) / 1_000_000;
+
+        System.out.printf("slots=%,d parked=%,d%n", slots, parked);
+        System.out.printf("build from code: %,d ms%n", buildMillis);
+        System.out.printf("snapshot write:  %,d ms, %,d bytes (%.1f bytes/slot); gate ran %,d park/unpark pairs, worst %.2f ms%n",
+                writeMillis, bytes, (double) bytes / slots, gateOperations, worstParkNanos / 1e6);
+        System.out.printf("snapshot load:   %,d ms, %,d vehicles restored%n",
+                loadMillis, loaded.getParkingLot().getParkingLotStatus().getTotalParkedVehicles());
+        Files.deleteIfExists(file);
+    }
+
+    private static ParkingLot createParkingLot(int slots) {
+        ParkingLot parkingLot = new ParkingLot("BENCH");
+        int slotsPerFloor = 50_000;
+        for (int floorNumber = 1; (floorNumber - 1) * slotsPerFloor < slots; floorNumber++) {
+            ParkingFloor floor = new ParkingFloor(floorNumber);
+            int floorSlots = Math.min(slotsPerFloor, slots - (floorNumber - 1) * slotsPerFloor);
+            for (int i = 1; i <= floorSlots; i++) {
+                floor.addParkingSlot(new ParkingSlot("F" + floorNumber + "-C" + i, VehicleType.CAR, floorNumber));
+            }
+            parkingLot.addFloor(floor);
+        }
+        return parkingLot;
+    }
+}
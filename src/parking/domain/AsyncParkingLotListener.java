@@ -0,0 +1,171 @@
+package parking.domain;
+
+import java.util.concurrent.ArrayBlockingQueue;
+import java.util.concurrent.BlockingQueue;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.LongAdder;
+import java.util.concurrent.locks.LockSupport;
+
+/**
+ * Hands ParkingLot events to another listener on a dedicated thread.
+ *
+ * Gates only enqueue, so slow consumers such as history stores or analytics never hold up
+ * park/unpark. Events are delivered in the order they were enqueued, one at a time, so the
+ * wrapped listener does not need to be thread-safe.
+ *
+ * The queue is bounded. When a stalled listener lets it fill up, the {@link OverflowPolicy}
+ * decides between dropping the new event (counted in {@link #getDroppedEvents()}) and making
+ * the gate wait for room. Exceptions from the wrapped listener are counted and passed to a
+ * {@link ListenerErrorHandler}.
+ */
+public class AsyncParkingLotListener implements ParkingLotListener, AutoCloseable {
+    public static final int DEFAULT_CAPACITY = 64 * 1024;
+
+    private static final long IDLE_PARK_NANOS = TimeUnit.MILLISECONDS.toNanos(1);
+
+    public enum OverflowPolicy {
+        DROP_NEWEST,  // the gate never waits; events that do not fit are lost
+        BLOCK         // the gate waits for room while holding its plate's lock stripe; nothing is lost
+    }
+
+    private final ParkingLotListener delegate;
+    private final BlockingQueue<Runnable> events;
+    private final OverflowPolicy overflowPolicy;
+    private final ListenerErrorHandler<ParkingLotListener> errorHandler;
+    private final LongAdder droppedEvents = new LongAdder();
+    private final LongAdder failedEvents = new LongAdder();
+    private final Thread worker;
+    private volatile boolean closed;
+
+    public AsyncParkingLotListener(ParkingLotListener delegate, String threadName) {
+        this(delegate, threadName, DEFAULT_CAPACITY, OverflowPolicy.DROP_NEWEST, ListenerErrorHandler.ignore());
+    }
+
+    /**
+     * For listeners that must see every event, such as history stores and analytics: when the
+     * queue is full, gates wait for room (back-pressure) instead of dropping events.
+     */
+    public static AsyncParkingLotListener lossless(ParkingLotListener delegate, String threadName) {
+        return new AsyncParkingLotListener(delegate, threadName, DEFAULT_CAPACITY, OverflowPolicy.BLOCK,
+                ListenerErrorHandler.ignore());
+    }
+
+    public AsyncParkingLotListener(ParkingLotListener delegate, String threadName, int capacity,
+                                   OverflowPolicy overflowPolicy, ListenerErrorHandler<ParkingLotListener> errorHandler) {
+        if (capacity <= 0) {
+            throw new IllegalArgumentException("Capacity must be positive");
+        }
+        if (overflowPolicy == null || errorHandler == null) {
+            throw new IllegalArgumentException("Overflow policy and error handler cannot be null");
+        }
+        this.delegate = delegate;
+        this.events = new ArrayBlockingQueue<>(capacity);
+        this.overflowPolicy = overflowPolicy;
+        this.errorHandler = errorHandler;
+        this.worker = new Thread(this::deliverLoop, threadName);
+        this.worker.setDaemon(true);
+        this.worker.start();
+    }
+
+    @Override
+    public void onVehicleParked(ParkingTransaction transaction) {
+        enqueue(() -> delegate.onVehicleParked(transaction));
+    }
+
+    @Override
+    public void onVehicleUnparked(ParkingTransaction transaction) {
+        enqueue(() -> delegate.onVehicleUnparked(transaction));
+    }
+
+    @Override
+    public void onVehicleTransferred(ParkingTransaction transaction, ParkingSlot fromSlot) {
+        enqueue(() -> delegate.onVehicleTransferred(transaction, fromSlot));
+    }
+
+    /**
+     * Blocks until every event enqueued before this call has been delivered.
+     */
+    public void drain() {
+        while (!events.isEmpty() && worker.isAlive()) {
+            LockSupport.unpark(worker);
+            LockSupport.parkNanos(IDLE_PARK_NANOS / 10);
+        }
+    }
+
+    /**
+     * Delivers what is still queued, then stops the worker thread.
+     */
+    @Override
+    public void close() {
+        closed = true;
+        LockSupport.unpark(worker);
+        try {
+            worker.join();
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+        }
+    }
+
+    // Events lost because the queue was full (DROP_NEWEST only)
+    public long getDroppedEvents() {
+        return droppedEvents.sum();
+    }
+
+    // Events the wrapped listener threw on
+    public long getFailedEvents() {
+        return failedEvents.sum();
+    }
+
+    public int getQueuedEvents() {
+        return events.size();
+    }
+
+    public OverflowPolicy getOverflowPolicy() {
+        return overflowPolicy;
+    }
+
+    private void enqueue(Runnable event) {
+        if (overflowPolicy == OverflowPolicy.BLOCK) {
+            // The change has already happened, so an interrupt only ends the wait once the event is in
+            boolean interrupted = false;
+            while (true) {
+                try {
+                    events.put(event);
+                    break;
+                } catch (InterruptedException e) {
+                    interrupted = true;
+                }
+            }
+            if (interrupted) {
+                Thread.currentThread().interrupt();
+            }
+        } else if (!events.offer(event)) {
+            droppedEvents.increment();
+        }
+        LockSupport.unpark(worker);
+    }
+
+    private void deliverLoop() {
+        while (true) {
+            Runnable event = events.peek();
+            if (event == null) {
+                if (closed) {
+                    return;
+                }
+                LockSupport.parkNanos(this, IDLE_PARK_NANOS);
+                continue;
+            }
+            try {
+                event.run();
+            } catch (RuntimeException e) {
+                failedEvents.increment();
+                try {
+                    errorHandler.onListenerError(delegate, e);
+                } catch (RuntimeException ignored) {
+                    // the worker keeps delivering whatever the handler does
+                }
+            }
+            events.poll(); // removed only after delivery, so drain() sees it as pending until done
+        }
+    }
+}
@@ -0,0 +1,53 @@
+package parking.domain;
+
+import java.util.ArrayList;
+import java.util.List;
+
+/**
+ * Gives each vehicle the smallest slot type that fits it, so that larger slots stay free for
+ * the vehicles that need them: a motorcycle only takes a car slot once no motorcycle slot is
+ * free anywhere in the lot, and a bus slot only once no car slot is free either.
+ *
+ * The cascade for a vehicle is every slot type that can accommodate it, smallest first (in
+ * VehicleType order). At each step every floor's pool of free slots of that one type is
+ * consulted: the floor's free counter for the type says in O(1) whether the pool is empty,
+ * and a non-empty pool hands out its first slot (in the floor's allocation order) from the
+ * floor's per-type free-slot index.
+ */
+public class BestFitAllocationStrategy implements SlotAllocationStrategy {
+    private final VehicleType[][] cascadeByVehicleType;
+
+    public BestFitAllocationStrategy() {
+        VehicleType[] types = VehicleType.values();
+        this.cascadeByVehicleType = new VehicleType[types.length][];
+        for (VehicleType vehicleType : types) {
+            List<VehicleType> cascade = new ArrayList<>();
+            for (VehicleType slotType : types) {
+                if (slotType.canAccommodate(vehicleType)) {
+                    cascade.add(slotType);
+                }
+            }
+            cascadeByVehicleType[vehicleType.ordinal()] = cascade.toArray(new VehicleType[0]);
+        }
+    }
+
+    @Override
+    public ParkingSlot claimSlot(List<ParkingFloor> floors, Vehicle vehicle) {
+        for (VehicleType slotType : cascadeByVehicleType[vehicle.getType().ordinal()]) {
+            for (ParkingFloor floor : floors) {
+                ParkingSlot slot = floor.claimSlotOfType(vehicle, slotType);
+                if (slot != null) {
+                    return slot;
+                }
+            }
+        }
+        return null;
+    }
+
+    /**
+     * Slot types tried for the vehicle type, in order.
+     */
+    public List<VehicleType> getCascade(VehicleType vehicleType) {
+        return List.of(cascadeByVehicleType[vehicleType.ordinal()]);
+    }
+}
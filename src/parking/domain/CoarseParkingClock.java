@@ -0,0 +1,44 @@
+package parking.domain;
+
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.locks.LockSupport;
+
+/**
+ * Clock whose time is refreshed by a background thread every {@code resolutionMillis}, so
+ * reading it is a single volatile load instead of a system call. Timestamps may lag real time
+ * by up to the resolution, which is far below the billing granularity.
+ */
+public class CoarseParkingClock implements ParkingClock, AutoCloseable {
+    private final long resolutionNanos;
+    private final Thread ticker;
+    private volatile long currentTimeMillis = System.currentTimeMillis();
+    private volatile boolean closed;
+
+    public CoarseParkingClock(long resolutionMillis) {
+        if (resolutionMillis <= 0) {
+            throw new IllegalArgumentException("Resolution must be positive");
+        }
+        this.resolutionNanos = TimeUnit.MILLISECONDS.toNanos(resolutionMillis);
+        this.ticker = new Thread(this::tick, "parking-clock");
+        this.ticker.setDaemon(true);
+        this.ticker.start();
+    }
+
+    @Override
+    public long currentTimeMillis() {
+        return currentTimeMillis;
+    }
+
+    @Override
+    public void close() {
+        closed = true;
+        LockSupport.unpark(ticker);
+    }
+
+    private void tick() {
+        while (!closed) {
+            LockSupport.parkNanos(this, resolutionNanos);
+            currentTimeMillis = System.currentTimeMillis();
+        }
+    }
+}
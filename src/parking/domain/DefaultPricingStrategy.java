@@ -1,7 +1,8 @@
 package parking.domain;
 
 public class DefaultPricingStrategy implements PricingStrategy {
-    
+    private static final long HOUR_MILLIS = 3_600_000L;
+
     @Override
     public double calculateFee(Vehicle vehicle) {
         long hours = vehicle.getParkingDurationInHours();
@@ -9,6 +10,19 @@ public class DefaultPricingStrategy implements PricingStrategy {
         return hours * hourlyRate;
     }
 
+    @Override
+    public long calculateFeeInCents(Vehicle vehicle) {
+        return vehicle.getParkingDurationInHours() * Math.round(getHourlyRate(vehicle.getType()) * 100);
+    }
+
+    // Only completed hours are charged, so the fee steps at each full hour after entry
+    @Override
+    public long nextFeeChangeMillis(Vehicle vehicle, long nowMillis) {
+        long entryMillis = vehicle.getEntryMillis();
+        long elapsedHours = Math.max(0, nowMillis - entryMillis) / HOUR_MILLIS;
+        return entryMillis + (elapsedHours + 1) * HOUR_MILLIS;
+    }
+
     private double getHourlyRate(VehicleType vehicleType) {
         switch (vehicleType) {
             case MOTORCYCLE:
@@ -0,0 +1,26 @@
+package parking.domain;
+
+/**
+ * A fee computed for an active transaction, reusable until the fee can next change or the
+ * lot's pricing strategy is replaced. Immutable, so it can be published through a volatile
+ * field without locking.
+ */
+final class FeeQuote {
+    private final PricingStrategy pricingStrategy;
+    private final long feeCents;
+    private final long validUntilMillis;
+
+    FeeQuote(PricingStrategy pricingStrategy, long feeCents, long validUntilMillis) {
+        this.pricingStrategy = pricingStrategy;
+        this.feeCents = feeCents;
+        this.validUntilMillis = validUntilMillis;
+    }
+
+    boolean isValid(PricingStrategy currentStrategy, long nowMillis) {
+        return pricingStrategy == currentStrategy && nowMillis < validUntilMillis;
+    }
+
+    long getFeeCents() {
+        return feeCents;
+    }
+}
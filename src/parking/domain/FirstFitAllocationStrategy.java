@@ -0,0 +1,21 @@
+package parking.domain;
+
+import java.util.List;
+
+/**
+ * The first floor with a free slot that fits the vehicle, and on that floor the slot the floor
+ * allocates first: the first in floor order, or the nearest to its anchor on floors with
+ * proximity allocation. Any slot type that can hold the vehicle is taken.
+ */
+public class FirstFitAllocationStrategy implements SlotAllocationStrategy {
+    @Override
+    public ParkingSlot claimSlot(List<ParkingFloor> floors, Vehicle vehicle) {
+        for (ParkingFloor floor : floors) {
+            ParkingSlot slot = floor.claimAvailableSlot(vehicle, 0);
+            if (slot != null) {
+                return slot;
+            }
+        }
+        return null;
+    }
+}
@@ -0,0 +1,131 @@
+package parking.domain;
+
+import java.lang.invoke.MethodHandles;
+import java.lang.invoke.VarHandle;
+import java.util.concurrent.atomic.AtomicInteger;
+
+/**
+ * Per-VehicleType index of the free slots on a floor.
+ *
+ * Each slot type owns a bitset over the floor's slot positions; a set bit means "free".
+ * Bits are flipped with atomic word updates so gates can claim and release slots
+ * concurrently without a floor lock.
+ *
+ * A per-type hint is kept at or below the lowest free position so that the common case
+ * (first free slot of a type) starts scanning where the free slots begin instead of
+ * walking the occupied prefix.
+ *
+ * Slots are only added while the floor is being set up; growing the bitsets is not
+ * safe against concurrent claims.
+ */
+class FreeSlotIndex {
+    private static final VarHandle WORDS = MethodHandles.arrayElementVarHandle(long[].class);
+    private static final int ADDRESS_BITS = 6; // 64 positions per word
+
+    private final long[][] freeWordsByType = new long[VehicleType.values().length][];
+    private final AtomicInteger[] lowestFree = new AtomicInteger[VehicleType.values().length];
+
+    FreeSlotIndex() {
+        for (VehicleType type : VehicleType.values()) {
+            freeWordsByType[type.ordinal()] = new long[1];
+            lowestFree[type.ordinal()] = new AtomicInteger(Integer.MAX_VALUE);
+        }
+    }
+
+    // Setup only: make room for a slot position before it is first marked
+    synchronized void ensureCapacity(int position) {
+        int wordsNeeded = (position >> ADDRESS_BITS) + 1;
+        for (int t = 0; t < freeWordsByType.length; t++) {
+            if (freeWordsByType[t].length < wordsNeeded) {
+                long[] grown = new long[Math.max(wordsNeeded, freeWordsByType[t].length * 2)];
+                System.arraycopy(freeWordsByType[t], 0, grown, 0, freeWordsByType[t].length);
+                freeWordsByType[t] = grown;
+            }
+        }
+    }
+
+    void markFree(VehicleType slotType, int position) {
+        long[] words = freeWordsByType[slotType.ordinal()];
+        WORDS.getAndBitwiseOr(words, position >> ADDRESS_BITS, 1L << position);
+        lowerHint(slotType, position);
+    }
+
+    void markOccupied(VehicleType slotType, int position) {
+        long[] words = freeWordsByType[slotType.ordinal()];
+        WORDS.getAndBitwiseAnd(words, position >> ADDRESS_BITS, ~(1L << position));
+        // Nothing below the hint is free, so once the hint's own slot is taken it can move up one
+        lowestFree[slotType.ordinal()].compareAndSet(position, position + 1);
+    }
+
+    /**
+     * Lowest free position at or after {@code fromPosition} among all slot types that can take
+     * the given vehicle type. With {@code fromPosition == 0} this is exactly the slot a first-fit
+     * scan over the floor would have picked.
+     *
+     * @return the position, or -1 if no compatible slot is free
+     */
+    int firstFree(VehicleType vehicleType, int fromPosition) {
+        int best = -1;
+        for (VehicleType slotType : VehicleType.values()) {
+            if (!slotType.canAccommodate(vehicleType)) {
+                continue;
+            }
+            int candidate = firstFreeOfType(slotType, fromPosition);
+            if (candidate >= 0 && (best < 0 || candidate < best)) {
+                best = candidate;
+            }
+        }
+        return best;
+    }
+
+    /**
+     * Same as {@link #firstFree} for slots of exactly the given type.
+     */
+    int firstFreeOfType(VehicleType slotType, int fromPosition) {
+        AtomicInteger hint = lowestFree[slotType.ordinal()];
+        int lowest = hint.get();
+        if (fromPosition > lowest) {
+            return nextFree(slotType, fromPosition);
+        }
+        int found = nextFree(slotType, lowest);
+        if (found > lowest && hint.compareAndSet(lowest, found)) {
+            // A slot in [lowest, found) may have been freed while we scanned; pull the hint back to it
+            int missed = nextFree(slotType, lowest);
+            if (missed >= 0 && missed < found) {
+                lowerHint(slotType, missed);
+            }
+        }
+        return found;
+    }
+
+    /**
+     * @return the next free position of the given slot type at or after {@code fromPosition}, or -1
+     */
+    int nextFree(VehicleType slotType, int fromPosition) {
+        long[] words = freeWordsByType[slotType.ordinal()];
+        int wordIndex = fromPosition >> ADDRESS_BITS;
+        if (fromPosition < 0 || wordIndex >= words.length) {
+            return -1;
+        }
+        long word = (long) WORDS.getVolatile(words, wordIndex) & (-1L << fromPosition);
+        while (true) {
+            if (word != 0) {
+                return (wordIndex << ADDRESS_BITS) + Long.numberOfTrailingZeros(word);
+            }
+            if (++wordIndex == words.length) {
+                return -1;
+            }
+            word = (long) WORDS.getVolatile(words, wordIndex);
+        }
+    }
+
+    private void lowerHint(VehicleType slotType, int position) {
+        AtomicInteger hint = lowestFree[slotType.ordinal()];
+        int lowest;
+        while (position < (lowest = hint.get())) {
+            if (hint.compareAndSet(lowest, position)) {
+                return;
+            }
+        }
+    }
+}
@@ -0,0 +1,183 @@
+package parking.domain;
+
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.List;
+
+/**
+ * Expiry timer for items with a deadline, e.g. slot reservations.
+ *
+ * Time is cut into ticks of {@code tickMillis}. Level 0 has one bucket per tick for the next
+ * 64 ticks; each level above has 64 buckets that are 64 times as wide, so four levels cover
+ * 64^4 ticks (about 194 days at one-second ticks). Deadlines further out are parked in the
+ * top level and re-placed when it comes round. A bucket is an intrusive doubly-linked list,
+ * so scheduling and cancelling are O(1); when a level-0 round is complete the next bucket of
+ * the level above is cascaded down, which moves each item at most once per level.
+ *
+ * Items expire on the first {@link #advanceTo} once their deadline, rounded up to a whole
+ * tick, has been reached; never early. One lock guards the wheel; {@link #isDue} is a single
+ * volatile read, so callers can check on every operation whether there is anything to advance.
+ */
+class HierarchicalTimingWheel<T> {
+    private static final int WHEEL_BITS = 6;
+    private static final int WHEEL_SIZE = 1 << WHEEL_BITS;
+    private static final int WHEEL_MASK = WHEEL_SIZE - 1;
+    private static final int LEVELS = 4;
+
+    private final long tickMillis;
+    private final Timeout<T>[][] buckets;  // sentinel of each bucket's list, by level and index
+    private long currentTick;              // every deadline up to and including this tick has expired
+    private int size;
+    private volatile long nextTickMillis;  // start of tick currentTick + 1
+
+    @SuppressWarnings("unchecked")
+    HierarchicalTimingWheel(long tickMillis, long startMillis) {
+        if (tickMillis <= 0) {
+            throw new IllegalArgumentException("Tick must be positive");
+        }
+        this.tickMillis = tickMillis;
+        this.buckets = (Timeout<T>[][]) new Timeout<?>[LEVELS][WHEEL_SIZE];
+        for (Timeout<T>[] level : buckets) {
+            for (int i = 0; i < WHEEL_SIZE; i++) {
+                level[i] = new Timeout<>(null, 0);
+            }
+        }
+        this.currentTick = Math.floorDiv(startMillis, tickMillis);
+        this.nextTickMillis = (currentTick + 1) * tickMillis;
+    }
+
+    /**
+     * Schedules the item to expire at {@code deadlineMillis}, or on the next tick if that has
+     * already passed.
+     *
+     * @return a handle for {@link #cancel}
+     */
+    synchronized Timeout<T> schedule(T item, long deadlineMillis) {
+        // Rounded up, so an item never expires before its deadline
+        long deadlineTick = Math.max(-Math.floorDiv(-deadlineMillis, tickMillis), currentTick + 1);
+        Timeout<T> timeout = new Timeout<>(item, deadlineTick);
+        place(timeout);
+        size++;
+        return timeout;
+    }
+
+    /**
+     * @return false if the item had already expired or been cancelled
+     */
+    synchronized boolean cancel(Timeout<T> timeout) {
+        if (timeout.next == null) {
+            return false;
+        }
+        timeout.unlink();
+        size--;
+        return true;
+    }
+
+    boolean isDue(long nowMillis) {
+        return nowMillis >= nextTickMillis;
+    }
+
+    synchronized int size() {
+        return size;
+    }
+
+    /**
+     * Moves the wheel up to {@code nowMillis}.
+     *
+     * @return the items whose deadline has passed, in deadline order (by tick)
+     */
+    List<T> advanceTo(long nowMillis) {
+        if (!isDue(nowMillis)) {
+            return Collections.emptyList();
+        }
+        synchronized (this) {
+            long nowTick = Math.floorDiv(nowMillis, tickMillis);
+            List<T> expired = new ArrayList<>();
+            while (currentTick < nowTick) {
+                if (size == 0) {
+                    currentTick = nowTick; // nothing scheduled: no need to turn the wheel tick by tick
+                    break;
+                }
+                currentTick++;
+                cascade(expired);
+                Timeout<T> bucket = buckets[0][(int) (currentTick & WHEEL_MASK)];
+                while (bucket.next != bucket) {
+                    Timeout<T> timeout = bucket.next;
+                    timeout.unlink();
+                    size--;
+                    expired.add(timeout.item);
+                }
+            }
+            nextTickMillis = (currentTick + 1) * tickMillis;
+            return expired;
+        }
+    }
+
+    // When a round of a level is complete, the current bucket of each level above moves down
+    private void cascade(List<T> expired) {
+        for (int level = LEVELS - 1; level > 0; level--) {
+            if ((currentTick & ((1L << (WHEEL_BITS * level)) - 1)) != 0) {
+                continue;
+            }
+            Timeout<T> bucket = buckets[level][(int) ((currentTick >>> (WHEEL_BITS * level)) & WHEEL_MASK)];
+            while (bucket.next != bucket) {
+                Timeout<T> timeout = bucket.next;
+                timeout.unlink();
+                if (timeout.deadlineTick <= currentTick) {
+                    size--;
+                    expired.add(timeout.item);
+                } else {
+                    place(timeout);
+                }
+            }
+        }
+    }
+
+    // Lowest level whose bucket for the deadline is still ahead of the current one
+    private void place(Timeout<T> timeout) {
+        for (int level = 0; level < LEVELS; level++) {
+            int shift = WHEEL_BITS * level;
+            long bucketsAhead = (timeout.deadlineTick >>> shift) - (currentTick >>> shift);
+            if (bucketsAhead < WHEEL_SIZE) {
+                buckets[level][(int) ((timeout.deadlineTick >>> shift) & WHEEL_MASK)].append(timeout);
+                return;
+            }
+        }
+        // Beyond the top level: the last bucket of its round, re-placed when cascaded
+        int shift = WHEEL_BITS * (LEVELS - 1);
+        buckets[LEVELS - 1][(int) (((currentTick >>> shift) + WHEEL_MASK) & WHEEL_MASK)].append(timeout);
+    }
+
+    /**
+     * A scheduled item, linked into the bucket of its deadline.
+     */
+    static final class Timeout<T> {
+        private final T item;
+        private final long deadlineTick;
+        private Timeout<T> prev;
+        private Timeout<T> next; // null once expired or cancelled
+
+        private Timeout(T item, long deadlineTick) {
+            this.item = item;
+            this.deadlineTick = deadlineTick;
+            if (item == null) {   // bucket sentinel
+                this.prev = this;
+                this.next = this;
+            }
+        }
+
+        private void append(Timeout<T> timeout) {
+            timeout.prev = prev;
+            timeout.next = this;
+            prev.next = timeout;
+            prev = timeout;
+        }
+
+        private void unlink() {
+            prev.next = next;
+            next.prev = prev;
+            prev = null;
+            next = null;
+        }
+    }
+}
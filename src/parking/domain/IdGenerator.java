@@ -0,0 +1,67 @@
+package parking.domain;
+
+import java.util.concurrent.atomic.AtomicLong;
+
+/**
+ * Snowflake-style 64-bit ID source shared by transactions, tickets and receipts.
+ *
+ * Layout (high to low): 41 bits of milliseconds since {@link #EPOCH_MILLIS}, 10 bits of node ID,
+ * 12 bits of per-millisecond sequence. IDs from one generator are strictly increasing; when
+ * more than 4096 IDs are needed in one millisecond (or the wall clock steps back) the generator
+ * simply runs its own millisecond ahead of the wall clock until real time catches up.
+ *
+ * {@link #nextId()} is a CAS loop on a single long and allocates nothing.
+ */
+public class IdGenerator {
+    public static final long EPOCH_MILLIS = 1704067200000L; // 2024-01-01T00:00:00Z
+
+    private static final int SEQUENCE_BITS = 12;
+    private static final int NODE_BITS = 10;
+    private static final long SEQUENCE_MASK = (1L << SEQUENCE_BITS) - 1;
+    private static final long MAX_NODE_ID = (1L << NODE_BITS) - 1;
+
+    private static final IdGenerator SHARED = new IdGenerator(Long.getLong("parking.nodeId", 0L));
+
+    private final long nodeBits;
+    private final AtomicLong lastTimeAndSequence = new AtomicLong(); // (millis << SEQUENCE_BITS) | sequence
+
+    public IdGenerator(long nodeId) {
+        if (nodeId < 0 || nodeId > MAX_NODE_ID) {
+            throw new IllegalArgumentException("Node ID must be between 0 and " + MAX_NODE_ID);
+        }
+        this.nodeBits = nodeId << SEQUENCE_BITS;
+    }
+
+    /**
+     * The generator used by the domain model. Its node ID comes from the
+     * {@code parking.nodeId} system property (default 0).
+     */
+    public static IdGenerator shared() {
+        return SHARED;
+    }
+
+    public long nextId() {
+        while (true) {
+            long last = lastTimeAndSequence.get();
+            long nowTimeAndSequence = System.currentTimeMillis() << SEQUENCE_BITS;
+            // Same or earlier millisecond: bump the sequence, carrying into the next millisecond on overflow
+            long next = nowTimeAndSequence > last ? nowTimeAndSequence : last + 1;
+            if (lastTimeAndSequence.compareAndSet(last, next)) {
+                long millis = next >>> SEQUENCE_BITS;
+                return ((millis - EPOCH_MILLIS) << (NODE_BITS + SEQUENCE_BITS)) | nodeBits | (next & SEQUENCE_MASK);
+            }
+        }
+    }
+
+    public static long timestampMillis(long id) {
+        return (id >>> (NODE_BITS + SEQUENCE_BITS)) + EPOCH_MILLIS;
+    }
+
+    public static long nodeId(long id) {
+        return (id >>> SEQUENCE_BITS) & MAX_NODE_ID;
+    }
+
+    public static long sequence(long id) {
+        return id & SEQUENCE_MASK;
+    }
+}
@@ -0,0 +1,19 @@
+package parking.domain;
+
+/**
+ * Receives exceptions thrown by a listener or handler that runs on behalf of some other
+ * component (a gate, a consumer thread), so that component can carry on and the failure still
+ * reaches someone. Called on the thread that ran the listener; it must not throw.
+ *
+ * @param <L> the kind of listener that failed
+ */
+@FunctionalInterface
+public interface ListenerErrorHandler<L> {
+
+    void onListenerError(L listener, RuntimeException error);
+
+    static <L> ListenerErrorHandler<L> ignore() {
+        return (listener, error) -> {
+        };
+    }
+}
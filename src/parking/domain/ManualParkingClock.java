@@ -0,0 +1,32 @@
+package parking.domain;
+
+import java.time.Duration;
+import java.util.concurrent.atomic.AtomicLong;
+
+/**
+ * Clock that only moves when told to, for tests and simulations.
+ */
+public class ManualParkingClock implements ParkingClock {
+    private final AtomicLong currentTimeMillis;
+
+    public ManualParkingClock(long startMillis) {
+        this.currentTimeMillis = new AtomicLong(startMillis);
+    }
+
+    @Override
+    public long currentTimeMillis() {
+        return currentTimeMillis.get();
+    }
+
+    public void setTimeMillis(long epochMillis) {
+        currentTimeMillis.set(epochMillis);
+    }
+
+    public long advance(Duration duration) {
+        return currentTimeMillis.addAndGet(duration.toMillis());
+    }
+
+    public long advanceMillis(long millis) {
+        return currentTimeMillis.addAndGet(millis);
+    }
+}
@@ -0,0 +1,71 @@
+package parking.domain;
+
+/**
+ * Per-item outcome of a batch park/unpark, kept in parallel arrays in request order.
+ * Each item either has a transaction or a failure reason, with its {@link ParkingFailure}
+ * when the failure is a known refusal.
+ */
+public class ParkingBatchResult {
+    private ParkingTransaction[] transactions;
+    private String[] failureReasons;
+    private ParkingFailure[] failures;
+    private int successCount;
+
+    public ParkingBatchResult(int size) {
+        this.transactions = new ParkingTransaction[size];
+        this.failureReasons = new String[size];
+        this.failures = new ParkingFailure[size];
+    }
+
+    public void recordSuccess(int index, ParkingTransaction transaction) {
+        transactions[index] = transaction;
+        successCount++;
+    }
+
+    public void recordFailure(int index, ParkingFailure failure, String reason) {
+        failures[index] = failure;
+        failureReasons[index] = reason;
+    }
+
+    public void recordFailure(int index, RuntimeException exception) {
+        recordFailure(index, ParkingStateException.failureOf(exception), exception.getMessage());
+    }
+
+    public int size() {
+        return transactions.length;
+    }
+
+    public boolean isSuccess(int index) {
+        return transactions[index] != null;
+    }
+
+    public ParkingTransaction getTransaction(int index) {
+        return transactions[index];
+    }
+
+    public String getFailureReason(int index) {
+        return failureReasons[index];
+    }
+
+    // Null for a success, or for a failure that is not a known refusal
+    public ParkingFailure getFailure(int index) {
+        return failures[index];
+    }
+
+    public int getSuccessCount() {
+        return successCount;
+    }
+
+    public int getFailureCount() {
+        return size() - successCount;
+    }
+
+    @Override
+    public String toString() {
+        return "ParkingBatchResult{" +
+                "size=" + size() +
+                ", successCount=" + successCount +
+                ", failureCount=" + getFailureCount() +
+                '}';
+    }
+}
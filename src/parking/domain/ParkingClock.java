@@ -0,0 +1,44 @@
+package parking.domain;
+
+import java.time.Instant;
+import java.time.LocalDateTime;
+
+/**
+ * Source of "now" for the domain model, in epoch milliseconds.
+ *
+ * Vehicles, transactions, tickets and receipts are stamped from {@link #getDefault()}, which
+ * is the system clock unless replaced: a {@link CoarseParkingClock} in production (one volatile
+ * read per timestamp) or a {@link ManualParkingClock} in tests and simulations. Timestamps are
+ * kept as longs; {@link #toLocalDateTime(long)} builds a LocalDateTime (in the system zone, as
+ * before) only when a caller asks for one.
+ */
+public interface ParkingClock {
+    long currentTimeMillis();
+
+    static ParkingClock system() {
+        return ParkingClockDefaults.SYSTEM;
+    }
+
+    static ParkingClock getDefault() {
+        return ParkingClockDefaults.current;
+    }
+
+    /**
+     * Replaces the clock used by the domain model. Meant to be set once at startup (or around
+     * a test); objects already created keep their timestamps.
+     */
+    static void setDefault(ParkingClock clock) {
+        if (clock == null) {
+            throw new IllegalArgumentException("Clock cannot be null");
+        }
+        ParkingClockDefaults.current = clock;
+    }
+
+    static LocalDateTime toLocalDateTime(long epochMillis) {
+        return LocalDateTime.ofInstant(Instant.ofEpochMilli(epochMillis), ParkingClockDefaults.ZONE);
+    }
+
+    static long toEpochMillis(LocalDateTime time) {
+        return time.atZone(ParkingClockDefaults.ZONE).toInstant().toEpochMilli();
+    }
+}
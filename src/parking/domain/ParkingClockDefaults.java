@@ -0,0 +1,13 @@
+package parking.domain;
+
+import java.time.ZoneId;
+
+// Mutable state behind the static methods of ParkingClock
+final class ParkingClockDefaults {
+    static final ParkingClock SYSTEM = System::currentTimeMillis;
+    static final ZoneId ZONE = ZoneId.systemDefault();
+    static volatile ParkingClock current = SYSTEM;
+
+    private ParkingClockDefaults() {
+    }
+}
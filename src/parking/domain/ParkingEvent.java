@@ -0,0 +1,87 @@
+package parking.domain;
+
+/**
+ * One entry of a {@link ParkingEventBus} ring.
+ *
+ * Entries are allocated once with the ring and overwritten in place by every event that
+ * passes through their position, so a handler must copy out what it needs before returning
+ * and must not keep the ParkingEvent itself. The fields are plain values and references to
+ * objects the lot already holds (the plate String, the slots); publishing builds nothing.
+ */
+public class ParkingEvent {
+    public enum Type {
+        PARKED,
+        UNPARKED,
+        TRANSFERRED
+    }
+
+    private Type type;
+    private long transactionId;
+    private String licensePlate;
+    private VehicleType vehicleType;
+    private ParkingSlot slot;       // the slot after the event
+    private ParkingSlot fromSlot;   // transfers only
+    private long timestampMillis;   // entry, exit or transfer time
+    private long feeCents;          // unparks only
+
+    // Called by the publishing gate while it owns the entry
+    void set(Type type, ParkingTransaction transaction, ParkingSlot fromSlot, long timestampMillis) {
+        Vehicle vehicle = transaction.getVehicle();
+        this.type = type;
+        this.transactionId = transaction.getNumericTransactionId();
+        this.licensePlate = vehicle.getLicensePlate();
+        this.vehicleType = vehicle.getType();
+        this.slot = transaction.getSlot();
+        this.fromSlot = fromSlot;
+        this.timestampMillis = timestampMillis;
+        this.feeCents = type == Type.UNPARKED ? transaction.getFeeInCents() : 0;
+    }
+
+    // Getters
+    public Type getType() {
+        return type;
+    }
+
+    public long getTransactionId() {
+        return transactionId;
+    }
+
+    public String getLicensePlate() {
+        return licensePlate;
+    }
+
+    public VehicleType getVehicleType() {
+        return vehicleType;
+    }
+
+    public ParkingSlot getSlot() {
+        return slot;
+    }
+
+    public ParkingSlot getFromSlot() {
+        return fromSlot;
+    }
+
+    public int getFloorNumber() {
+        return slot.getFloorNumber();
+    }
+
+    public long getTimestampMillis() {
+        return timestampMillis;
+    }
+
+    public long getFeeCents() {
+        return feeCents;
+    }
+
+    @Override
+    public String toString() {
+        return "ParkingEvent{" +
+                "type=" + type +
+                ", transactionId=" + transactionId +
+                ", licensePlate='" + licensePlate + '\'' +
+                ", slotId='" + (slot != null ? slot.getSlotId() : null) + '\'' +
+                ", timestampMillis=" + timestampMillis +
+                '}';
+    }
+}
@@ -0,0 +1,363 @@
+package parking.domain;
+
+import java.lang.invoke.MethodHandles;
+import java.lang.invoke.VarHandle;
+import java.util.Arrays;
+import java.util.function.BooleanSupplier;
+import java.util.function.LongSupplier;
+import java.util.concurrent.atomic.LongAdder;
+import java.util.concurrent.locks.LockSupport;
+
+/**
+ * Park, unpark and transfer events for any number of consumers, through a preallocated ring
+ * in the style of the LMAX Disruptor. Attach it with {@code parkingLot.addListener(bus)}.
+ *
+ * Gates publish from the listener callbacks: claim the next sequence with one CAS, overwrite
+ * the {@link ParkingEvent} entry at that position and mark it published. Nothing is allocated
+ * and no lock is taken. Each consumer runs on its own thread, follows the stream at its own
+ * pace with its own {@link WaitStrategy}, and is handed every event currently available as a
+ * batch. Consumers never copy or remove events; each one only advances its own sequence.
+ *
+ * The ring holds {@code bufferSize} events; size it for the longest burst a consumer may lag.
+ * Gates publish while holding their plate's lock stripe, so by default they never wait for a
+ * consumer: when the slowest consumer is a whole ring behind, the event is dropped, counted in
+ * {@link #getDroppedEvents()} and charged to the lagging consumers' {@link EventConsumer#getOverruns()}.
+ * {@link OverflowPolicy#BLOCK} instead makes the gate wait for room, for consumers that must not
+ * miss an event. Handler exceptions are counted and passed to a {@link ListenerErrorHandler}.
+ */
+public class ParkingEventBus implements ParkingLotListener, AutoCloseable {
+    private static final VarHandle FLAGS = MethodHandles.arrayElementVarHandle(int[].class);
+
+    public enum OverflowPolicy {
+        DROP_NEWEST,  // the gate never waits; the event is lost to every consumer
+        BLOCK         // the gate waits, holding its plate's lock stripe, until the slowest consumer catches up
+    }
+
+    private final int bufferSize;
+    private final int mask;
+    private final int indexShift;
+    private final ParkingEvent[] entries;
+    private final int[] publishedRounds;   // round (sequence / bufferSize) last published at each index
+    private final Sequence cursor = new Sequence(-1);       // highest claimed sequence
+    private final Sequence gatingCache = new Sequence(-1);  // slowest consumer, as last computed by a gate
+    private volatile EventConsumer[] consumers = new EventConsumer[0];
+    private final OverflowPolicy overflowPolicy;
+    private final ListenerErrorHandler<EventConsumer> errorHandler;
+    private final LongAdder droppedEvents = new LongAdder();
+
+    /**
+     * @param bufferSize number of ring entries, a power of two
+     */
+    public ParkingEventBus(int bufferSize) {
+        this(bufferSize, OverflowPolicy.DROP_NEWEST, ListenerErrorHandler.ignore());
+    }
+
+    public ParkingEventBus(int bufferSize, OverflowPolicy overflowPolicy, ListenerErrorHandler<EventConsumer> errorHandler) {
+        if (bufferSize <= 0 || Integer.bitCount(bufferSize) != 1) {
+            throw new IllegalArgumentException("Buffer size must be a power of two");
+        }
+        if (overflowPolicy == null || errorHandler == null) {
+            throw new IllegalArgumentException("Overflow policy and error handler cannot be null");
+        }
+        this.overflowPolicy = overflowPolicy;
+        this.errorHandler = errorHandler;
+        this.bufferSize = bufferSize;
+        this.mask = bufferSize - 1;
+        this.indexShift = Integer.numberOfTrailingZeros(bufferSize);
+        this.entries = new ParkingEvent[bufferSize];
+        for (int i = 0; i < bufferSize; i++) {
+            entries[i] = new ParkingEvent();
+        }
+        this.publishedRounds = new int[bufferSize];
+        Arrays.fill(publishedRounds, -1);
+    }
+
+    @Override
+    public void onVehicleParked(ParkingTransaction transaction) {
+        publish(ParkingEvent.Type.PARKED, transaction, null, transaction.getEntryMillis());
+    }
+
+    @Override
+    public void onVehicleUnparked(ParkingTransaction transaction) {
+        publish(ParkingEvent.Type.UNPARKED, transaction, null, transaction.getExitMillis());
+    }
+
+    @Override
+    public void onVehicleTransferred(ParkingTransaction transaction, ParkingSlot fromSlot) {
+        publish(ParkingEvent.Type.TRANSFERRED, transaction, fromSlot, ParkingClock.getDefault().currentTimeMillis());
+    }
+
+    /**
+     * Starts a consumer thread that receives every event published from now on.
+     */
+    public synchronized EventConsumer addConsumer(String name, ParkingEventHandler handler, WaitStrategy waitStrategy) {
+        EventConsumer consumer = new EventConsumer(name, handler, waitStrategy, cursor.get());
+        EventConsumer[] updated = Arrays.copyOf(consumers, consumers.length + 1);
+        updated[updated.length - 1] = consumer;
+        consumers = updated;
+        consumer.thread.start();
+        return consumer;
+    }
+
+    /**
+     * Stops every consumer once it has handled what was published before this call.
+     */
+    @Override
+    public void close() {
+        for (EventConsumer consumer : consumers) {
+            consumer.close();
+        }
+    }
+
+    /**
+     * Sequence of the last event published, or -1 before the first.
+     */
+    public long getCursor() {
+        return cursor.get();
+    }
+
+    public int getBufferSize() {
+        return bufferSize;
+    }
+
+    public OverflowPolicy getOverflowPolicy() {
+        return overflowPolicy;
+    }
+
+    // Events not published because a consumer was a whole ring behind (DROP_NEWEST only)
+    public long getDroppedEvents() {
+        return droppedEvents.sum();
+    }
+
+    private void publish(ParkingEvent.Type type, ParkingTransaction transaction, ParkingSlot fromSlot, long timestampMillis) {
+        long sequence = next();
+        if (sequence < 0) {
+            return; // dropped
+        }
+        int index = (int) sequence & mask;
+        entries[index].set(type, transaction, fromSlot, timestampMillis);
+        // Release store: the entry's fields are visible to a consumer that sees this round
+        FLAGS.setRelease(publishedRounds, index, (int) (sequence >>> indexShift));
+        for (EventConsumer consumer : consumers) {
+            consumer.waitStrategy.signalAllWhenBlocking();
+        }
+    }
+
+    // Claims the next sequence. If the ring position is still unread by a consumer, waits under
+    // BLOCK and gives up with -1 under DROP_NEWEST
+    private long next() {
+        while (true) {
+            long current = cursor.get();
+            long next = current + 1;
+            long wrapPoint = next - bufferSize;
+            long cachedGating = gatingCache.get();
+            if (wrapPoint > cachedGating || cachedGating > current) {
+                long gating = minimumSequence(current);
+                if (wrapPoint > gating) { // a consumer is a full ring behind
+                    if (overflowPolicy == OverflowPolicy.DROP_NEWEST) {
+                        chargeOverrun(wrapPoint);
+                        return -1;
+                    }
+                    LockSupport.parkNanos(1);
+                    continue;
+                }
+                gatingCache.set(gating);
+            } else if (cursor.compareAndSet(current, next)) {
+                return next;
+            }
+        }
+    }
+
+    private long minimumSequence(long minimum) {
+        for (EventConsumer consumer : consumers) {
+            minimum = Math.min(minimum, consumer.sequence.get());
+        }
+        return minimum;
+    }
+
+    private void chargeOverrun(long wrapPoint) {
+        droppedEvents.increment();
+        for (EventConsumer consumer : consumers) {
+            if (consumer.sequence.get() < wrapPoint) {
+                consumer.overruns.increment();
+            }
+        }
+    }
+
+    // Highest sequence in [low, available] up to which every event has been published
+    private long highestPublished(long low, long available) {
+        for (long sequence = low; sequence <= available; sequence++) {
+            if ((int) FLAGS.getAcquire(publishedRounds, (int) sequence & mask) != (int) (sequence >>> indexShift)) {
+                return sequence - 1;
+            }
+        }
+        return available;
+    }
+
+    private synchronized void removeConsumer(EventConsumer consumer) {
+        EventConsumer[] current = consumers;
+        EventConsumer[] updated = new EventConsumer[current.length];
+        int size = 0;
+        for (EventConsumer c : current) {
+            if (c != consumer) {
+                updated[size++] = c;
+            }
+        }
+        consumers = Arrays.copyOf(updated, size);
+    }
+
+    /**
+     * One consumer thread of the bus.
+     */
+    public final class EventConsumer implements AutoCloseable {
+        private final String name;
+        private final ParkingEventHandler handler;
+        private final WaitStrategy waitStrategy;
+        private final Sequence sequence;   // last event handled; gates must not overwrite beyond it
+        private final Thread thread;
+        private final LongSupplier cursorSupplier = cursor::get;
+        private final BooleanSupplier haltedSupplier = this::isHalted;
+        private final LongAdder overruns = new LongAdder();
+        private final LongAdder failedEvents = new LongAdder();
+        private volatile boolean halted;
+
+        private EventConsumer(String name, ParkingEventHandler handler, WaitStrategy waitStrategy, long startAfter) {
+            this.name = name;
+            this.handler = handler;
+            this.waitStrategy = waitStrategy;
+            this.sequence = new Sequence(startAfter);
+            this.thread = new Thread(this::consumeLoop, name);
+            this.thread.setDaemon(true);
+        }
+
+        public String getName() {
+            return name;
+        }
+
+        /**
+         * Sequence of the last event this consumer has handled.
+         */
+        public long getSequence() {
+            return sequence.get();
+        }
+
+        // Events published but not yet handled by this consumer
+        public long getLag() {
+            return Math.max(0, cursor.get() - sequence.get());
+        }
+
+        // Events dropped because this consumer was a whole ring behind
+        public long getOverruns() {
+            return overruns.sum();
+        }
+
+        // Events the handler threw on
+        public long getFailedEvents() {
+            return failedEvents.sum();
+        }
+
+        /**
+         * Blocks until every event published before this call has been handled.
+         */
+        public void drain() {
+            long target = cursor.get();
+            while (sequence.get() < target && thread.isAlive()) {
+                waitStrategy.signalAllWhenBlocking();
+                LockSupport.parkNanos(100_000);
+            }
+        }
+
+        /**
+         * Handles what has been published, then stops the thread and detaches from the bus.
+         */
+        @Override
+        public void close() {
+            halted = true;
+            waitStrategy.signalAllWhenBlocking();
+            try {
+                thread.join();
+            } catch (InterruptedException e) {
+                Thread.currentThread().interrupt();
+            }
+            removeConsumer(this);
+        }
+
+        private boolean isHalted() {
+            return halted;
+        }
+
+        private void reportFailure(RuntimeException error) {
+            failedEvents.increment();
+            try {
+                errorHandler.onListenerError(this, error);
+            } catch (RuntimeException ignored) {
+                // the consumer keeps going whatever the handler does
+            }
+        }
+
+        private void consumeLoop() {
+            long next = sequence.get() + 1;
+            while (true) {
+                long available = waitStrategy.waitFor(next, cursorSupplier, haltedSupplier);
+                long published = highestPublished(next, available);
+                if (published >= next) {
+                    for (; next <= published; next++) {
+                        try {
+                            handler.onEvent(entries[(int) next & mask], next, next == published);
+                        } catch (RuntimeException e) {
+                            reportFailure(e);
+                        }
+                    }
+                    sequence.setRelease(published); // frees the entries for the gates
+                } else if (halted && cursor.get() < next) {
+                    return;
+                } else {
+                    Thread.onSpinWait(); // a gate has claimed the next entry and is still writing it
+                }
+            }
+        }
+    }
+
+    // A sequence counter padded onto its own cache line, so gates and consumers do not false-share
+    private static class LhsPadding {
+        protected long p1, p2, p3, p4, p5, p6, p7;
+    }
+
+    private static class SequenceValue extends LhsPadding {
+        protected volatile long value;
+    }
+
+    private static final class Sequence extends SequenceValue {
+        private static final VarHandle VALUE;
+
+        static {
+            try {
+                VALUE = MethodHandles.lookup().findVarHandle(SequenceValue.class, "value", long.class);
+            } catch (ReflectiveOperationException e) {
+                throw new ExceptionInInitializerError(e);
+            }
+        }
+
+        protected long p9, p10, p11, p12, p13, p14, p15;
+
+        Sequence(long initialValue) {
+            this.value = initialValue;
+        }
+
+        long get() {
+            return value;
+        }
+
+        void set(long newValue) {
+            value = newValue;
+        }
+
+        void setRelease(long newValue) {
+            VALUE.setRelease(this, newValue);
+        }
+
+        boolean compareAndSet(long expected, long newValue) {
+            return VALUE.compareAndSet(this, expected, newValue);
+        }
+    }
+}
@@ -0,0 +1,16 @@
+package parking.domain;
+
+/**
+ * Consumer side of a {@link ParkingEventBus}. Each handler is called on its own consumer
+ * thread, one event at a time in publication order, so it does not need to be thread-safe.
+ */
+@FunctionalInterface
+public interface ParkingEventHandler {
+
+    /**
+     * @param event the ring entry; only valid until this call returns
+     * @param sequence the event's position in the stream, counting from 0
+     * @param endOfBatch true for the last event currently available, e.g. to flush a batch
+     */
+    void onEvent(ParkingEvent event, long sequence, boolean endOfBatch);
+}
@@ -0,0 +1,15 @@
+package parking.domain;
+
+/**
+ * Why a parking operation was refused, carried by {@link ParkingStateException} and by failed
+ * batch items so callers and metrics can tell failures apart without reading messages.
+ */
+public enum ParkingFailure {
+    LOT_FULL,
+    ALREADY_PARKED,
+    NOT_PARKED,
+    ALREADY_RESERVED,
+    NOT_RESERVED,
+    SLOT_UNAVAILABLE,   // the requested or reserved slot cannot take the vehicle
+    INVALID_REQUEST
+}
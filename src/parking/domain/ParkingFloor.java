@@ -2,49 +2,359 @@ package parking.domain;
 
 import java.util.ArrayList;
 import java.util.List;
+import java.util.Map;
 import java.util.Optional;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.atomic.LongAdder;
+import java.util.function.ToDoubleFunction;
 
 public class ParkingFloor {
     private int floorNumber;
     private List<ParkingSlot> parkingSlots;
+    private Map<String, ParkingSlot> slotsById;
+    private SlotTable slotTable;          // replaces parkingSlots and slotsById on slot-table floors
+    private ParkingLot parkingLot;        // set when the floor is added to a lot
+    private FreeSlotIndex freeSlotIndex; // slotType -> free slot positions
+    private volatile ProximitySlotIndex proximityIndex; // set when allocating nearest-first
+    private int[] totalSlotsByType;       // indexed by VehicleType ordinal
+    private LongAdder[] occupiedSlotsByType;
+    private LongAdder[] reservedSlotsByType;
 
     public ParkingFloor(int floorNumber) {
+        this(floorNumber, 16);
+    }
+
+    // expectedSlots pre-sizes the slot list and indexes when the layout size is known up front
+    public ParkingFloor(int floorNumber, int expectedSlots) {
+        this(floorNumber, expectedSlots, null);
+        this.parkingSlots = new ArrayList<>(expectedSlots);
+        this.slotsById = new ConcurrentHashMap<>(expectedSlots);
+    }
+
+    private ParkingFloor(int floorNumber, int expectedSlots, SlotTable slotTable) {
         this.floorNumber = floorNumber;
-        this.parkingSlots = new ArrayList<>();
+        this.slotTable = slotTable;
+        this.freeSlotIndex = new FreeSlotIndex();
+        this.freeSlotIndex.ensureCapacity(expectedSlots - 1);
+        this.totalSlotsByType = new int[VehicleType.values().length];
+        this.occupiedSlotsByType = new LongAdder[VehicleType.values().length];
+        this.reservedSlotsByType = new LongAdder[VehicleType.values().length];
+        for (int i = 0; i < occupiedSlotsByType.length; i++) {
+            occupiedSlotsByType[i] = new LongAdder();
+            reservedSlotsByType[i] = new LongAdder();
+        }
     }
 
-    public void addParkingSlot(ParkingSlot slot) {
+    /**
+     * A floor for very large lots that keeps its slots in a struct-of-arrays {@link SlotTable}
+     * instead of one ParkingSlot object each. Slot IDs are {@code slotIdPrefix} (which must not
+     * end in a digit, e.g. "F3-") followed by the slot's position on the floor, and at most
+     * {@code capacity} slots can be added.
+     *
+     * The floor behaves like any other; the differences are that free slots are handed out as
+     * short-lived views (an occupied slot always returns the same ParkingSlot object), and
+     * that slots are added by type with {@link #addParkingSlot(VehicleType)}.
+     */
+    public static ParkingFloor withSlotTable(int floorNumber, String slotIdPrefix, int capacity) {
+        return new ParkingFloor(floorNumber, capacity, new SlotTable(slotIdPrefix, capacity));
+    }
+
+    // Slots are added while the lot is being set up, before gates start calling in
+    public synchronized void addParkingSlot(ParkingSlot slot) {
+        requireFirstFit();
+        if (slotTable != null) {
+            // Only free slots whose ID the table would derive anyway can be taken over
+            if (slot.isOccupied() || !slot.getSlotId().equals(slotTable.slotId(slotTable.size()))) {
+                throw new IllegalArgumentException("Slot " + slot.getSlotId()
+                        + " does not fit the slot table of floor " + floorNumber);
+            }
+            addParkingSlot(slot.getSlotType());
+            return;
+        }
+        int position = parkingSlots.size();
+        freeSlotIndex.ensureCapacity(position);
         parkingSlots.add(slot);
+        slotsById.putIfAbsent(slot.getSlotId(), slot);
+        slot.attachToFloor(this, position);
+        totalSlotsByType[slot.getSlotType().ordinal()]++;
+        if (slot.isOccupied()) {
+            occupiedSlotsByType[slot.getSlotType().ordinal()].increment();
+        } else {
+            freeSlotIndex.markFree(slot.getSlotType(), position);
+        }
+        if (parkingLot != null) {
+            parkingLot.indexSlot(slot);
+        }
+    }
+
+    /**
+     * Appends a free slot of the given type to a slot-table floor.
+     *
+     * @return the new slot's ID
+     */
+    public synchronized String addParkingSlot(VehicleType slotType) {
+        requireFirstFit();
+        if (slotTable == null) {
+            throw new IllegalStateException("Floor " + floorNumber + " keeps slot objects; add a ParkingSlot instead");
+        }
+        int position = slotTable.add(slotType);
+        totalSlotsByType[slotType.ordinal()]++;
+        freeSlotIndex.markFree(slotType, position);
+        return slotTable.slotId(position);
+    }
+
+    public Optional<ParkingSlot> findSlotById(String slotId) {
+        if (slotTable != null) {
+            int position = slotTable.positionOf(slotId);
+            return position < 0 ? Optional.empty() : Optional.of(slotTable.slotAt(this, position));
+        }
+        return Optional.ofNullable(slotsById.get(slotId));
+    }
+
+    /**
+     * Allocates slots nearest-first from now on: free slots are handed out in order of
+     * {@code distanceToAnchor} (e.g. distance to the entrance or the lifts), lowest first, ties
+     * in floor order. Finding the nearest free slot and returning a freed one each cost
+     * O(log n). Call once the floor's slots have been added; the distances are taken once.
+     */
+    public synchronized void useProximityAllocation(ToDoubleFunction<ParkingSlot> distanceToAnchor) {
+        int slots = getTotalSlots();
+        double[] distances = new double[slots];
+        for (int position = 0; position < slots; position++) {
+            distances[position] = distanceToAnchor.applyAsDouble(slotAt(position));
+        }
+        ProximitySlotIndex index = new ProximitySlotIndex(distances);
+        // Published before it is filled, so slots freed meanwhile are queued by onSlotFreed too
+        this.proximityIndex = index;
+        for (VehicleType slotType : VehicleType.values()) {
+            for (int position = freeSlotIndex.nextFree(slotType, 0);
+                 position >= 0;
+                 position = freeSlotIndex.nextFree(slotType, position + 1)) {
+                index.add(slotType, position);
+            }
+        }
+    }
+
+    /**
+     * Nearest-first allocation with the anchor at a slot of this floor, measuring distance
+     * as the number of slots between the two in floor order (slots laid out along one aisle).
+     */
+    public void useProximityAllocation(String anchorSlotId) {
+        ParkingSlot anchor = findSlotById(anchorSlotId)
+                .orElseThrow(() -> new IllegalArgumentException("Slot " + anchorSlotId + " not found on floor " + floorNumber));
+        int anchorPosition = anchor.getPosition();
+        useProximityAllocation(slot -> Math.abs(slot.getPosition() - anchorPosition));
+    }
+
+    /**
+     * Back to the default: the first free slot in floor order.
+     */
+    public synchronized void useFirstFitAllocation() {
+        this.proximityIndex = null;
     }
 
+    public boolean isProximityAllocation() {
+        return proximityIndex != null;
+    }
+
+    /**
+     * Returns the slot the floor would allocate to the vehicle: the first in floor order, or
+     * the nearest to the anchor with proximity allocation. Answered from the free-slot index,
+     * so the cost does not grow with occupancy.
+     */
     public Optional<ParkingSlot> findAvailableSlot(Vehicle vehicle) {
-        return parkingSlots.stream()
-                .filter(slot -> slot.canAccommodate(vehicle))
-                .findFirst();
+        ProximitySlotIndex proximity = proximityIndex;
+        int position = proximity != null
+                ? proximity.peekNearest(vehicle.getType(), this::isTakenAt)
+                : freeSlotIndex.firstFree(vehicle.getType(), 0);
+        return position < 0 ? Optional.empty() : Optional.of(slotAt(position));
+    }
+
+    /**
+     * Finds the free slot the floor would allocate to the vehicle and claims it in one step.
+     * If another gate wins the race for a slot, the search carries on past it.
+     */
+    public Optional<ParkingSlot> claimAvailableSlot(Vehicle vehicle) {
+        return Optional.ofNullable(claimAvailableSlot(vehicle, 0));
+    }
+
+    // Same as above, ignoring slots before fromPosition under first-fit; returns null if nothing could be claimed
+    ParkingSlot claimAvailableSlot(Vehicle vehicle, int fromPosition) {
+        ProximitySlotIndex proximity = proximityIndex;
+        if (proximity != null) {
+            int position;
+            while ((position = proximity.pollNearest(vehicle.getType())) >= 0) {
+                ParkingSlot slot = slotAt(position);
+                if (slot.tryParkVehicle(vehicle)) {
+                    return slot;
+                }
+            }
+            return null;
+        }
+        int position = freeSlotIndex.firstFree(vehicle.getType(), fromPosition);
+        while (position >= 0) {
+            ParkingSlot slot = slotAt(position);
+            if (slot.tryParkVehicle(vehicle)) {
+                return slot;
+            }
+            position = freeSlotIndex.firstFree(vehicle.getType(), position + 1);
+        }
+        return null;
+    }
+
+    /**
+     * Claims a free slot of exactly the given slot type for the vehicle, in the floor's
+     * allocation order (first in floor order, or nearest with proximity allocation).
+     * Empty if the type does not fit the vehicle or no slot of it is free.
+     */
+    public Optional<ParkingSlot> claimAvailableSlot(Vehicle vehicle, VehicleType slotType) {
+        return Optional.ofNullable(claimSlotOfType(vehicle, slotType));
+    }
+
+    // Same as above; returns null if nothing could be claimed
+    ParkingSlot claimSlotOfType(Vehicle vehicle, VehicleType slotType) {
+        if (!slotType.canAccommodate(vehicle.getType()) || getAvailableSlotsCount(slotType) == 0) {
+            return null;
+        }
+        ProximitySlotIndex proximity = proximityIndex;
+        if (proximity != null) {
+            int position;
+            while ((position = proximity.pollNearestOfType(slotType)) >= 0) {
+                ParkingSlot slot = slotAt(position);
+                if (slot.tryParkVehicle(vehicle)) {
+                    return slot;
+                }
+            }
+            return null;
+        }
+        int position = freeSlotIndex.firstFreeOfType(slotType, 0);
+        while (position >= 0) {
+            ParkingSlot slot = slotAt(position);
+            if (slot.tryParkVehicle(vehicle)) {
+                return slot;
+            }
+            position = freeSlotIndex.firstFreeOfType(slotType, position + 1);
+        }
+        return null;
     }
 
     public List<ParkingSlot> getAvailableSlots(VehicleType vehicleType) {
-        return parkingSlots.stream()
-                .filter(slot -> slot.getSlotType() == vehicleType && !slot.isOccupied())
-                .collect(java.util.stream.Collectors.toList());
+        List<ParkingSlot> availableSlots = new ArrayList<>();
+        for (int position = freeSlotIndex.nextFree(vehicleType, 0);
+             position >= 0;
+             position = freeSlotIndex.nextFree(vehicleType, position + 1)) {
+            availableSlots.add(slotAt(position));
+        }
+        return availableSlots;
     }
 
     public List<ParkingSlot> getOccupiedSlots() {
+        if (slotTable != null) {
+            List<ParkingSlot> occupiedSlots = new ArrayList<>();
+            for (int position = 0, size = slotTable.size(); position < size; position++) {
+                if (slotTable.isOccupied(position)) {
+                    occupiedSlots.add(slotTable.slotAt(this, position));
+                }
+            }
+            return occupiedSlots;
+        }
         return parkingSlots.stream()
                 .filter(ParkingSlot::isOccupied)
                 .collect(java.util.stream.Collectors.toList());
     }
 
     public int getTotalSlots() {
-        return parkingSlots.size();
+        return slotTable != null ? slotTable.size() : parkingSlots.size();
+    }
+
+    public int getTotalSlots(VehicleType slotType) {
+        return totalSlotsByType[slotType.ordinal()];
     }
 
+    // Counts below come from counters maintained on every park/unpark; no slot scan
     public int getAvailableSlotsCount() {
-        return (int) parkingSlots.stream().filter(slot -> !slot.isOccupied()).count();
+        return getTotalSlots() - getOccupiedSlotsCount() - getReservedSlotsCount();
     }
 
     public int getOccupiedSlotsCount() {
-        return (int) parkingSlots.stream().filter(ParkingSlot::isOccupied).count();
+        int occupied = 0;
+        for (LongAdder counter : occupiedSlotsByType) {
+            occupied += counter.intValue();
+        }
+        return occupied;
+    }
+
+    public int getReservedSlotsCount() {
+        int reserved = 0;
+        for (LongAdder counter : reservedSlotsByType) {
+            reserved += counter.intValue();
+        }
+        return reserved;
+    }
+
+    public int getAvailableSlotsCount(VehicleType slotType) {
+        return getTotalSlots(slotType) - getOccupiedSlotsCount(slotType) - getReservedSlotsCount(slotType);
+    }
+
+    public int getOccupiedSlotsCount(VehicleType slotType) {
+        return occupiedSlotsByType[slotType.ordinal()].intValue();
+    }
+
+    public int getReservedSlotsCount(VehicleType slotType) {
+        return reservedSlotsByType[slotType.ordinal()].intValue();
+    }
+
+    // Called by ParkingSlot to keep the free-slot index and counters in step with occupancy;
+    // a reservation hold takes the slot out of the free-slot index like a vehicle does
+    void onSlotOccupied(ParkingSlot slot, int position, boolean held) {
+        freeSlotIndex.markOccupied(slot.getSlotType(), position);
+        (held ? reservedSlotsByType : occupiedSlotsByType)[slot.getSlotType().ordinal()].increment();
+        ProximitySlotIndex proximity = proximityIndex;
+        if (proximity != null) {
+            proximity.remove(slot.getSlotType(), position);
+        }
+    }
+
+    void onSlotFreed(ParkingSlot slot, int position, boolean held) {
+        (held ? reservedSlotsByType : occupiedSlotsByType)[slot.getSlotType().ordinal()].decrement();
+        freeSlotIndex.markFree(slot.getSlotType(), position);
+        ProximitySlotIndex proximity = proximityIndex;
+        if (proximity != null) {
+            proximity.add(slot.getSlotType(), position);
+        }
+    }
+
+    // The slot stays out of the free-slot index; only the counters move
+    void onHoldClaimed(ParkingSlot slot) {
+        occupiedSlotsByType[slot.getSlotType().ordinal()].increment();
+        reservedSlotsByType[slot.getSlotType().ordinal()].decrement();
+    }
+
+    // Slot-table floors resolve their own slot IDs, so the lot does not index their slots
+    synchronized void attachToParkingLot(ParkingLot parkingLot) {
+        this.parkingLot = parkingLot;
+        if (slotTable != null) {
+            parkingLot.indexSlotTable(slotTable.getSlotIdPrefix(), this);
+            return;
+        }
+        for (ParkingSlot slot : parkingSlots) {
+            parkingLot.indexSlot(slot);
+        }
+    }
+
+    private void requireFirstFit() {
+        if (proximityIndex != null) {
+            throw new IllegalStateException("Add slots to floor " + floorNumber + " before enabling proximity allocation");
+        }
+    }
+
+    // Occupied or reserved
+    private boolean isTakenAt(int position) {
+        return slotTable != null ? !slotTable.isFree(position) : parkingSlots.get(position).occupant() != null;
+    }
+
+    private ParkingSlot slotAt(int position) {
+        return slotTable != null ? slotTable.slotAt(this, position) : parkingSlots.get(position);
     }
 
     // Getters
@@ -52,7 +362,40 @@ public class ParkingFloor {
         return floorNumber;
     }
 
+    // True for floors created with withSlotTable
+    public boolean usesSlotTable() {
+        return slotTable != null;
+    }
+
+    // Slot-table floors only: the slot ID prefix, and how many slots the table can hold
+    public String getSlotIdPrefix() {
+        return slotTable != null ? slotTable.getSlotIdPrefix() : null;
+    }
+
+    public int getSlotTableCapacity() {
+        return slotTable != null ? slotTable.capacity() : 0;
+    }
+
+    // Slot type and ID by position (0 to getTotalSlots() - 1); no slot view is built on slot-table floors
+    public VehicleType getSlotType(int position) {
+        return slotTable != null ? slotTable.slotType(position) : parkingSlots.get(position).getSlotType();
+    }
+
+    public String getSlotId(int position) {
+        return slotTable != null ? slotTable.slotId(position) : parkingSlots.get(position).getSlotId();
+    }
+
+    /**
+     * On slot-table floors this builds a view per slot; prefer the count and search methods.
+     */
     public List<ParkingSlot> getParkingSlots() {
+        if (slotTable != null) {
+            List<ParkingSlot> slots = new ArrayList<>(slotTable.size());
+            for (int position = 0, size = slotTable.size(); position < size; position++) {
+                slots.add(slotTable.slotAt(this, position));
+            }
+            return slots;
+        }
         return new ArrayList<>(parkingSlots);
     }
 
@@ -65,4 +408,4 @@ public class ParkingFloor {
                 ", occupiedSlots=" + getOccupiedSlotsCount() +
                 '}';
     }
-} 
\ No newline at end of file
+}
@@ -1,118 +1,649 @@
 package parking.domain;
 
 import java.util.ArrayList;
+import java.util.Collections;
 import java.util.HashMap;
 import java.util.List;
 import java.util.Map;
 import java.util.Optional;
+import java.util.function.IntFunction;
+import java.util.function.Supplier;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.CopyOnWriteArrayList;
+import java.util.concurrent.atomic.LongAdder;
 
+/**
+ * Safe to share between gates: slots are claimed with CAS, and park/unpark for a plate are
+ * serialized only against other operations on plates that hash to the same lock stripe.
+ */
 public class ParkingLot {
+    private static final int PLATE_LOCK_STRIPES = 64; // power of two
+    private static final long RESERVATION_TICK_MILLIS = 1_000;
+
     private String parkingLotId;
     private List<ParkingFloor> floors;
-    private Map<String, Vehicle> parkedVehicles; // licensePlate -> Vehicle
-    private Map<String, ParkingTransaction> activeTransactions; // licensePlate -> Transaction
-    private PricingStrategy pricingStrategy;
+    private List<ParkingFloor> floorsView; // read-only, for allocation strategies
+    private PlateMap<ParkingTransaction> activeTransactions; // licensePlate -> Transaction, which holds the Vehicle
+    private Map<String, ParkingSlot> slotsById; // slotId -> ParkingSlot, across all floors
+    private Map<String, ParkingFloor> slotTableFloors; // slot ID prefix -> slot-table floor
+    private Map<String, SlotReservation> reservations; // licensePlate -> active reservation, written under the plate's lock
+    private volatile HierarchicalTimingWheel<SlotReservation> reservationExpiry; // created with the first reservation
+    private volatile PricingStrategy pricingStrategy;
+    private volatile SlotAllocationStrategy slotAllocationStrategy;
+    private final Object[] plateLocks;
+    private final List<ParkingLotListener> listeners;
+    private final LongAdder listenerFailures = new LongAdder();
+    private volatile ListenerErrorHandler<ParkingLotListener> listenerErrorHandler = ListenerErrorHandler.ignore();
+    private volatile ParkingLotJournal journal; // null when changes are not journaled
 
     public ParkingLot(String parkingLotId) {
+        this(parkingLotId, 16);
+    }
+
+    // expectedSlots pre-sizes the lot-wide slot and plate indexes when the layout size is known up front
+    public ParkingLot(String parkingLotId, int expectedSlots) {
         this.parkingLotId = parkingLotId;
-        this.floors = new ArrayList<>();
-        this.parkedVehicles = new HashMap<>();
-        this.activeTransactions = new HashMap<>();
+        this.floors = new CopyOnWriteArrayList<>();
+        this.floorsView = Collections.unmodifiableList(floors);
+        this.activeTransactions = new PlateMap<>(PLATE_LOCK_STRIPES, expectedSlots);
+        this.slotsById = new ConcurrentHashMap<>(expectedSlots);
+        this.slotTableFloors = new ConcurrentHashMap<>();
+        this.reservations = new ConcurrentHashMap<>();
         this.pricingStrategy = new DefaultPricingStrategy();
+        this.slotAllocationStrategy = new FirstFitAllocationStrategy();
+        this.plateLocks = new Object[PLATE_LOCK_STRIPES];
+        for (int i = 0; i < plateLocks.length; i++) {
+            plateLocks[i] = new Object();
+        }
+        this.listeners = new CopyOnWriteArrayList<>();
     }
 
     public void addFloor(ParkingFloor floor) {
         floors.add(floor);
+        floor.attachToParkingLot(this);
+    }
+
+    public void addListener(ParkingLotListener listener) {
+        listeners.add(listener);
+    }
+
+    public void removeListener(ParkingLotListener listener) {
+        listeners.remove(listener);
+    }
+
+    /**
+     * Receives exceptions thrown by listeners. A failing listener neither undoes the change it
+     * was told about nor keeps the listeners after it from hearing of it; the failure is counted
+     * and handed to this handler (by default it is only counted).
+     */
+    public void setListenerErrorHandler(ListenerErrorHandler<ParkingLotListener> listenerErrorHandler) {
+        if (listenerErrorHandler == null) {
+            throw new IllegalArgumentException("Listener error handler cannot be null");
+        }
+        this.listenerErrorHandler = listenerErrorHandler;
+    }
+
+    // Listener calls that threw, since the lot was created
+    public long getListenerFailures() {
+        return listenerFailures.sum();
+    }
+
+    /**
+     * Journals every park, unpark and transfer before it takes effect. While the journal refuses
+     * records, those operations fail instead of going unrecorded. If the journal waits for its
+     * records to be durable, the wait happens after the plate's lock stripe is released; if that
+     * write then fails, the call throws even though the change was applied, and the journal keeps
+     * the record for a retry. Pass null to stop journaling.
+     */
+    public void setJournal(ParkingLotJournal journal) {
+        this.journal = journal;
+    }
+
+    /**
+     * Runs the action with every plate lock stripe held, i.e. at a point where no park, unpark or
+     * transfer is between journaling its record and applying its change. A snapshot takes its
+     * journal position here, so every record before that position is reflected in the state it reads.
+     */
+    public <T> T withChangesPaused(Supplier<T> action) {
+        return withStripesHeld(0, action);
+    }
+
+    // Takes the stripes in index order, the only order in which more than one is ever held
+    private <T> T withStripesHeld(int stripe, Supplier<T> action) {
+        if (stripe == plateLocks.length) {
+            return action.get();
+        }
+        synchronized (plateLocks[stripe]) {
+            return withStripesHeld(stripe + 1, action);
+        }
+    }
+
+    public Optional<ParkingSlot> findSlotById(String slotId) {
+        return Optional.ofNullable(lookupSlot(slotId));
+    }
+
+    // Slots of slot-table floors are not in slotsById; their IDs are the floor's prefix plus a position
+    private ParkingSlot lookupSlot(String slotId) {
+        ParkingSlot slot = slotsById.get(slotId);
+        if (slot != null || slotTableFloors.isEmpty() || slotId == null) {
+            return slot;
+        }
+        int prefixEnd = slotId.length();
+        while (prefixEnd > 0 && Character.isDigit(slotId.charAt(prefixEnd - 1))) {
+            prefixEnd--;
+        }
+        ParkingFloor floor = slotTableFloors.get(slotId.substring(0, prefixEnd));
+        return floor == null ? null : floor.findSlotById(slotId).orElse(null);
+    }
+
+    // Called by ParkingFloor for every slot it holds, including slots added after the floor
+    void indexSlot(ParkingSlot slot) {
+        slotsById.putIfAbsent(slot.getSlotId(), slot);
+    }
+
+    // Called instead of indexSlot by floors that keep their slots in a slot table
+    void indexSlotTable(String slotIdPrefix, ParkingFloor floor) {
+        slotTableFloors.putIfAbsent(slotIdPrefix, floor);
     }
 
     public ParkingTransaction parkVehicle(Vehicle vehicle) {
-        // Check if vehicle is already parked
-        if (parkedVehicles.containsKey(vehicle.getLicensePlate())) {
-            throw new IllegalStateException("Vehicle " + vehicle.getLicensePlate() + " is already parked");
+        expireReservations(ParkingClock.getDefault().currentTimeMillis());
+        ParkingLotJournal journal = this.journal;
+        ParkingTransaction transaction;
+        synchronized (lockFor(vehicle.getLicensePlate())) {
+            transaction = parkLocked(vehicle, null, journal);
+        }
+        awaitJournal(journal);
+        return transaction;
+    }
+
+    public ParkingTransaction unparkVehicle(String licensePlate) {
+        ParkingLotJournal journal = this.journal;
+        ParkingTransaction transaction;
+        synchronized (lockFor(licensePlate)) {
+            transaction = unparkLocked(licensePlate, journal);
+        }
+        awaitJournal(journal);
+        return transaction;
+    }
+
+    /**
+     * Parks a burst of vehicles in one pass. Items are grouped by plate lock stripe so each
+     * stripe is locked once, and the slot search for each vehicle type resumes where the
+     * previous vehicle of that type was placed instead of starting over from the first floor.
+     * Results are reported per item, in request order.
+     */
+    public ParkingBatchResult parkVehicles(List<Vehicle> vehicles) {
+        expireReservations(ParkingClock.getDefault().currentTimeMillis());
+        ParkingLotJournal journal = this.journal;
+        ParkingBatchResult result = new ParkingBatchResult(vehicles.size());
+        SlotSearchCursor cursor = new SlotSearchCursor();
+        int[] order = orderByStripe(vehicles.size(), i -> vehicles.get(i).getLicensePlate());
+        int next = 0;
+        while (next < order.length) {
+            int stripe = stripeOf(vehicles.get(order[next]).getLicensePlate());
+            synchronized (plateLocks[stripe]) {
+                for (; next < order.length && stripeOf(vehicles.get(order[next]).getLicensePlate()) == stripe; next++) {
+                    int index = order[next];
+                    try {
+                        result.recordSuccess(index, parkLocked(vehicles.get(index), cursor, journal));
+                    } catch (IllegalStateException e) {
+                        result.recordFailure(index, e);
+                    }
+                }
+            }
+        }
+        if (result.getSuccessCount() > 0) {
+            awaitJournal(journal); // one wait for the whole batch, after every stripe is released
+        }
+        return result;
+    }
+
+    /**
+     * Unparks a burst of vehicles, locking each plate stripe once. Results are reported per item,
+     * in request order.
+     */
+    public ParkingBatchResult unparkVehicles(List<String> licensePlates) {
+        ParkingLotJournal journal = this.journal;
+        ParkingBatchResult result = new ParkingBatchResult(licensePlates.size());
+        int[] order = orderByStripe(licensePlates.size(), licensePlates::get);
+        int next = 0;
+        while (next < order.length) {
+            int stripe = stripeOf(licensePlates.get(order[next]));
+            synchronized (plateLocks[stripe]) {
+                for (; next < order.length && stripeOf(licensePlates.get(order[next])) == stripe; next++) {
+                    int index = order[next];
+                    try {
+                        result.recordSuccess(index, unparkLocked(licensePlates.get(index), journal));
+                    } catch (IllegalStateException e) {
+                        result.recordFailure(index, e);
+                    }
+                }
+            }
+        }
+        if (result.getSuccessCount() > 0) {
+            awaitJournal(journal); // one wait for the whole batch, after every stripe is released
         }
+        return result;
+    }
 
-        // Find available slot
-        Optional<ParkingSlot> availableSlot = findAvailableSlot(vehicle);
-        if (availableSlot.isEmpty()) {
-            throw new IllegalStateException("No available parking slot for " + vehicle.getType().getDisplayName());
+    // Caller holds the plate's stripe lock
+    private ParkingTransaction parkLocked(Vehicle vehicle, SlotSearchCursor cursor, ParkingLotJournal journal) {
+        // Check if vehicle is already parked
+        if (activeTransactions.get(vehicle.getLicensePlate()) != null) {
+            throw new ParkingStateException(ParkingFailure.ALREADY_PARKED, "Vehicle " + vehicle.getLicensePlate() + " is already parked");
+        }
+        if (journal != null) {
+            journal.checkWritable();
         }
 
-        ParkingSlot slot = availableSlot.get();
-        slot.parkVehicle(vehicle);
-        parkedVehicles.put(vehicle.getLicensePlate(), vehicle);
+        // Take over the slot held for the plate, or find and claim an available slot
+        SlotReservation reservation = reservations.isEmpty() ? null : reservations.get(vehicle.getLicensePlate());
+        ParkingSlot slot = reservation != null
+                ? claimReservedSlot(reservation, vehicle)
+                : claimAvailableSlot(vehicle, cursor);
+        if (slot == null) {
+            throw new ParkingStateException(ParkingFailure.LOT_FULL, "No available parking slot for " + vehicle.getType().getDisplayName());
+        }
 
         // Create transaction
         ParkingTransaction transaction = new ParkingTransaction(vehicle, slot);
+        if (journal != null) {
+            try {
+                journal.appendParked(transaction);
+            } catch (RuntimeException e) {
+                slot.unparkVehicle(); // a reservation it took over stays given up
+                throw e;
+            }
+        }
         activeTransactions.put(vehicle.getLicensePlate(), transaction);
 
+        for (ParkingLotListener listener : listeners) {
+            try {
+                listener.onVehicleParked(transaction);
+            } catch (RuntimeException e) {
+                reportListenerFailure(listener, e);
+            }
+        }
         return transaction;
     }
 
-    public ParkingTransaction unparkVehicle(String licensePlate) {
-        Vehicle vehicle = parkedVehicles.get(licensePlate);
-        if (vehicle == null) {
-            throw new IllegalStateException("Vehicle " + licensePlate + " is not parked");
+    // The change stands whatever a listener does; its failure is only reported
+    private void reportListenerFailure(ParkingLotListener listener, RuntimeException error) {
+        listenerFailures.increment();
+        try {
+            listenerErrorHandler.onListenerError(listener, error);
+        } catch (RuntimeException ignored) {
+            // a failing error handler must not fail the gate either
+        }
+    }
+
+    // Called with no stripe lock held, so one gate's fsync wait never blocks another plate's gate
+    private static void awaitJournal(ParkingLotJournal journal) {
+        if (journal != null) {
+            journal.awaitDurable();
+        }
+    }
+
+    // Caller holds the plate's stripe lock
+    private ParkingSlot claimReservedSlot(SlotReservation reservation, Vehicle vehicle) {
+        ParkingSlot slot = reservation.getSlot();
+        if (!slot.claimHold(reservation.getHold(), vehicle)) {
+            throw new ParkingStateException(ParkingFailure.SLOT_UNAVAILABLE, "Reserved slot " + slot.getSlotId() + " cannot accommodate vehicle "
+                    + vehicle.getLicensePlate());
         }
+        reservations.remove(vehicle.getLicensePlate());
+        reservationExpiry.cancel(reservation.getExpiry());
+        reservation.setStatus(SlotReservation.Status.CLAIMED);
+        return slot;
+    }
 
+    // Caller holds the plate's stripe lock
+    private ParkingTransaction unparkLocked(String licensePlate, ParkingLotJournal journal) {
         ParkingTransaction transaction = activeTransactions.get(licensePlate);
-        if (transaction == null || !transaction.isActive()) {
-            throw new IllegalStateException("No active transaction found for vehicle " + licensePlate);
+        if (transaction == null) {
+            throw new ParkingStateException(ParkingFailure.NOT_PARKED, "Vehicle " + licensePlate + " is not parked");
+        }
+        if (!transaction.isActive()) {
+            throw new ParkingStateException(ParkingFailure.NOT_PARKED, "No active transaction found for vehicle " + licensePlate);
         }
 
+        if (journal != null) {
+            journal.checkWritable();
+        }
+
+        Vehicle vehicle = transaction.getVehicle();
+        long exitMillis = ParkingClock.getDefault().currentTimeMillis();
+        vehicle.setExitMillis(exitMillis);
+
+        // Calculate the fee, and journal the exit before anything is released
+        long feeCents = pricingStrategy.calculateFeeInCents(vehicle);
+        if (journal != null) {
+            try {
+                journal.appendUnparked(transaction, exitMillis, feeCents);
+            } catch (RuntimeException e) {
+                vehicle.setExitMillis(0);
+                throw e;
+            }
+        }
         ParkingSlot slot = vehicle.getAssignedSlot();
         slot.unparkVehicle();
-        parkedVehicles.remove(licensePlate);
-        vehicle.setExitTime(java.time.LocalDateTime.now());
-
-        // Complete transaction with fee calculation
-        double fee = pricingStrategy.calculateFee(vehicle);
-        transaction.completeTransaction(fee);
         activeTransactions.remove(licensePlate);
+        transaction.completeAt(exitMillis, feeCents);
 
+        for (ParkingLotListener listener : listeners) {
+            try {
+                listener.onVehicleUnparked(transaction);
+            } catch (RuntimeException e) {
+                reportListenerFailure(listener, e);
+            }
+        }
         return transaction;
     }
 
-    public VehicleInfo getVehicleInfo(String licensePlate) {
-        Vehicle vehicle = parkedVehicles.get(licensePlate);
-        if (vehicle == null) {
-            throw new IllegalStateException("Vehicle " + licensePlate + " is not parked");
+    /**
+     * Moves a parked vehicle to the given slot without closing its transaction.
+     * The new slot is claimed before the old one is released, so the vehicle is never
+     * without a slot and no other gate can take the target in between.
+     */
+    public ParkingTransaction transferVehicle(String licensePlate, String newSlotId) {
+        ParkingLotJournal journal = this.journal;
+        ParkingTransaction transaction;
+        synchronized (lockFor(licensePlate)) {
+            transaction = transferLocked(licensePlate, newSlotId, journal);
         }
+        awaitJournal(journal);
+        return transaction;
+    }
 
-        double currentFee = pricingStrategy.calculateFee(vehicle);
-        return new VehicleInfo(vehicle, currentFee);
+    // Caller holds the plate's stripe lock
+    private ParkingTransaction transferLocked(String licensePlate, String newSlotId, ParkingLotJournal journal) {
+        ParkingTransaction transaction = activeTransactions.get(licensePlate);
+        if (transaction == null) {
+            throw new ParkingStateException(ParkingFailure.NOT_PARKED, "Vehicle " + licensePlate + " is not parked");
+        }
+        if (!transaction.isActive()) {
+            throw new ParkingStateException(ParkingFailure.NOT_PARKED, "No active transaction found for vehicle " + licensePlate);
+        }
+        Vehicle vehicle = transaction.getVehicle();
+
+        ParkingSlot newSlot = lookupSlot(newSlotId);
+        if (newSlot == null) {
+            throw new IllegalArgumentException("Slot " + newSlotId + " not found");
+        }
+
+        ParkingSlot currentSlot = vehicle.getAssignedSlot();
+        if (newSlot == currentSlot) {
+            throw new ParkingStateException(ParkingFailure.SLOT_UNAVAILABLE, "Vehicle " + licensePlate + " is already in slot " + newSlotId);
+        }
+        if (journal != null) {
+            journal.checkWritable();
+        }
+        if (!newSlot.tryParkVehicle(vehicle)) {
+            throw new ParkingStateException(ParkingFailure.SLOT_UNAVAILABLE, "Slot " + newSlotId + " cannot accommodate vehicle " + licensePlate);
+        }
+        if (journal != null) {
+            try {
+                journal.appendTransferred(transaction, newSlot);
+            } catch (RuntimeException e) {
+                newSlot.unparkVehicle();
+                throw e;
+            }
+        }
+        currentSlot.unparkVehicle();
+        transaction.moveToSlot(newSlot);
+
+        for (ParkingLotListener listener : listeners) {
+            try {
+                listener.onVehicleTransferred(transaction, currentSlot);
+            } catch (RuntimeException e) {
+                reportListenerFailure(listener, e);
+            }
+        }
+        return transaction;
     }
 
-    public ParkingLotStatus getParkingLotStatus() {
-        Map<VehicleType, Integer> availableSlotsByType = new HashMap<>();
-        Map<VehicleType, Integer> occupiedSlotsByType = new HashMap<>();
+    /**
+     * Puts a vehicle back into a specific slot with its original transaction, e.g. when
+     * replaying a journal or loading a snapshot at startup. Listeners are not notified,
+     * since the change is already on record.
+     */
+    public ParkingTransaction restoreParkedVehicle(String licensePlate, VehicleType vehicleType, String slotId,
+                                                   long transactionId, long entryMillis) {
+        synchronized (lockFor(licensePlate)) {
+            if (activeTransactions.get(licensePlate) != null) {
+                throw new ParkingStateException(ParkingFailure.ALREADY_PARKED, "Vehicle " + licensePlate + " is already parked");
+            }
+            ParkingSlot slot = lookupSlot(slotId);
+            if (slot == null) {
+                throw new IllegalArgumentException("Slot " + slotId + " not found");
+            }
 
-        for (VehicleType type : VehicleType.values()) {
-            availableSlotsByType.put(type, 0);
-            occupiedSlotsByType.put(type, 0);
+            Vehicle vehicle = new Vehicle(licensePlate, vehicleType);
+            vehicle.setEntryMillis(entryMillis);
+            if (!slot.tryParkVehicle(vehicle)) {
+                throw new ParkingStateException(ParkingFailure.SLOT_UNAVAILABLE, "Slot " + slotId + " cannot accommodate vehicle " + licensePlate);
+            }
+            ParkingTransaction transaction = new ParkingTransaction(transactionId, vehicle, slot, entryMillis);
+            activeTransactions.put(licensePlate, transaction);
+            return transaction;
         }
+    }
 
-        for (ParkingFloor floor : floors) {
-            for (ParkingSlot slot : floor.getParkingSlots()) {
-                VehicleType slotType = slot.getSlotType();
-                if (slot.isOccupied()) {
-                    occupiedSlotsByType.put(slotType, occupiedSlotsByType.get(slotType) + 1);
-                } else {
-                    availableSlotsByType.put(slotType, availableSlotsByType.get(slotType) + 1);
+    /**
+     * Holds a free slot for a plate that has not arrived yet. The slot is chosen by the
+     * allocation strategy like any other and taken out of allocation until the plate parks
+     * (then it gets exactly this slot), the reservation is cancelled, or {@code holdMillis}
+     * pass. Expiry runs on a timing wheel that a background ticker advances every wheel tick
+     * (one second), as do the lot's park and reservation calls, so a hold is released within
+     * about two ticks of its deadline even while the lot is idle.
+     */
+    public SlotReservation reserveSlot(String licensePlate, VehicleType vehicleType, long holdMillis) {
+        if (holdMillis <= 0) {
+            throw new IllegalArgumentException("Hold time must be positive");
+        }
+        long nowMillis = ParkingClock.getDefault().currentTimeMillis();
+        expireReservations(nowMillis);
+        synchronized (lockFor(licensePlate)) {
+            if (activeTransactions.get(licensePlate) != null) {
+                throw new ParkingStateException(ParkingFailure.ALREADY_PARKED, "Vehicle " + licensePlate + " is already parked");
+            }
+            if (reservations.containsKey(licensePlate)) {
+                throw new ParkingStateException(ParkingFailure.ALREADY_RESERVED, "Vehicle " + licensePlate + " already has a reservation");
+            }
+            SlotReservation.Hold hold = new SlotReservation.Hold(licensePlate, vehicleType);
+            ParkingSlot slot = slotAllocationStrategy.claimSlot(floorsView, hold);
+            if (slot == null) {
+                throw new ParkingStateException(ParkingFailure.LOT_FULL, "No available parking slot for " + vehicleType.getDisplayName());
+            }
+            SlotReservation reservation = new SlotReservation(hold, slot, nowMillis, nowMillis + holdMillis);
+            reservation.setExpiry(expiryWheel(nowMillis).schedule(reservation, reservation.getExpiresAtMillis()));
+            reservations.put(licensePlate, reservation);
+            return reservation;
+        }
+    }
+
+    /**
+     * Releases the plate's reservation; its slot is free for anyone again.
+     */
+    public SlotReservation cancelReservation(String licensePlate) {
+        synchronized (lockFor(licensePlate)) {
+            SlotReservation reservation = reservations.remove(licensePlate);
+            if (reservation == null) {
+                throw new ParkingStateException(ParkingFailure.NOT_RESERVED, "Vehicle " + licensePlate + " has no reservation");
+            }
+            reservationExpiry.cancel(reservation.getExpiry());
+            reservation.getSlot().unparkVehicle();
+            reservation.setStatus(SlotReservation.Status.CANCELLED);
+            return reservation;
+        }
+    }
+
+    public Optional<SlotReservation> findReservation(String licensePlate) {
+        return Optional.ofNullable(reservations.get(licensePlate));
+    }
+
+    /**
+     * Releases the holds whose time is up. The lot calls this itself, from its park and
+     * reservation calls and once per wheel tick from its expiry ticker.
+     *
+     * @return the number of reservations that expired
+     */
+    public int expireReservations() {
+        return expireReservations(ParkingClock.getDefault().currentTimeMillis());
+    }
+
+    // Takes each plate's lock in turn, so it must not be called while holding one
+    private int expireReservations(long nowMillis) {
+        HierarchicalTimingWheel<SlotReservation> wheel = reservationExpiry;
+        if (wheel == null || !wheel.isDue(nowMillis)) {
+            return 0;
+        }
+        int expired = 0;
+        for (SlotReservation reservation : wheel.advanceTo(nowMillis)) {
+            synchronized (lockFor(reservation.getLicensePlate())) {
+                // Skipped if the plate claimed or cancelled it after the wheel handed it out
+                if (reservations.remove(reservation.getLicensePlate(), reservation)) {
+                    reservation.getSlot().unparkVehicle();
+                    reservation.setStatus(SlotReservation.Status.EXPIRED);
+                    expired++;
                 }
             }
         }
+        return expired;
+    }
 
-        return new ParkingLotStatus(availableSlotsByType, occupiedSlotsByType, parkedVehicles.size());
+    private HierarchicalTimingWheel<SlotReservation> expiryWheel(long nowMillis) {
+        HierarchicalTimingWheel<SlotReservation> wheel = reservationExpiry;
+        if (wheel == null) {
+            synchronized (reservations) {
+                wheel = reservationExpiry;
+                if (wheel == null) {
+                    wheel = new HierarchicalTimingWheel<>(RESERVATION_TICK_MILLIS, nowMillis);
+                    reservationExpiry = wheel;
+                    ReservationExpiryTicker.start(this, RESERVATION_TICK_MILLIS);
+                }
+            }
+        }
+        return wheel;
     }
 
-    private Optional<ParkingSlot> findAvailableSlot(Vehicle vehicle) {
+    /**
+     * The fee is quoted once per billing step: the quote is kept on the active transaction
+     * until the pricing strategy says the fee can next change, so repeated lookups skip the
+     * fee calculation. Quotes go away with their transaction on unpark (cache size is bounded
+     * by parked vehicles) and are ignored once a different pricing strategy is set.
+     */
+    public VehicleInfo getVehicleInfo(String licensePlate) {
+        ParkingTransaction transaction = activeTransactions.get(licensePlate);
+        if (transaction == null) {
+            throw new ParkingStateException(ParkingFailure.NOT_PARKED, "Vehicle " + licensePlate + " is not parked");
+        }
+        Vehicle vehicle = transaction.getVehicle();
+
+        PricingStrategy strategy = pricingStrategy;
+        long nowMillis = ParkingClock.getDefault().currentTimeMillis();
+        FeeQuote quote = transaction.getFeeQuote();
+        if (quote == null || !quote.isValid(strategy, nowMillis)) {
+            long feeCents = strategy.calculateFeeInCents(vehicle);
+            quote = new FeeQuote(strategy, feeCents, strategy.nextFeeChangeMillis(vehicle, nowMillis));
+            if (transaction.isActive()) {
+                transaction.setFeeQuote(quote);
+            }
+        }
+        return VehicleInfo.ofCents(vehicle, quote.getFeeCents());
+    }
+
+    /**
+     * Built from the per-floor occupancy counters, so the cost is O(floors x vehicle types)
+     * regardless of how many slots the lot has.
+     */
+    public ParkingLotStatus getParkingLotStatus() {
+        expireReservations(ParkingClock.getDefault().currentTimeMillis());
+        int[] availableSlotsByType = new int[VehicleType.values().length];
+        int[] occupiedSlotsByType = new int[VehicleType.values().length];
+
         for (ParkingFloor floor : floors) {
-            Optional<ParkingSlot> slot = floor.findAvailableSlot(vehicle);
-            if (slot.isPresent()) {
+            for (VehicleType slotType : VehicleType.values()) {
+                availableSlotsByType[slotType.ordinal()] += floor.getAvailableSlotsCount(slotType);
+                occupiedSlotsByType[slotType.ordinal()] += floor.getOccupiedSlotsCount(slotType);
+            }
+        }
+
+        return new ParkingLotStatus(availableSlotsByType, occupiedSlotsByType, activeTransactions.size());
+    }
+
+    /**
+     * Claims a slot chosen by the allocation strategy. Under first-fit, a batch cursor lets
+     * the search resume after the last slot handed to that vehicle type in the same batch, and
+     * only go back to the start once (to pick up slots freed meanwhile) before giving up on the type.
+     */
+    private ParkingSlot claimAvailableSlot(Vehicle vehicle, SlotSearchCursor cursor) {
+        SlotAllocationStrategy strategy = slotAllocationStrategy;
+        if (cursor == null || strategy.getClass() != FirstFitAllocationStrategy.class) {
+            return strategy.claimSlot(floorsView, vehicle);
+        }
+        int type = vehicle.getType().ordinal();
+        if (cursor.exhausted[type]) {
+            return null;
+        }
+        ParkingSlot slot = claimAvailableSlot(vehicle, cursor.floorIndex[type], cursor.position[type], cursor);
+        if (slot == null && (cursor.floorIndex[type] > 0 || cursor.position[type] > 0)) {
+            slot = claimAvailableSlot(vehicle, 0, 0, cursor);
+        }
+        if (slot == null) {
+            cursor.exhausted[type] = true;
+        }
+        return slot;
+    }
+
+    private ParkingSlot claimAvailableSlot(Vehicle vehicle, int fromFloor, int fromPosition, SlotSearchCursor cursor) {
+        for (int floorIndex = fromFloor; floorIndex < floors.size(); floorIndex++) {
+            ParkingSlot slot = floors.get(floorIndex)
+                    .claimAvailableSlot(vehicle, floorIndex == fromFloor ? fromPosition : 0);
+            if (slot != null) {
+                if (cursor != null) {
+                    cursor.floorIndex[vehicle.getType().ordinal()] = floorIndex;
+                    cursor.position[vehicle.getType().ordinal()] = slot.getPosition() + 1;
+                }
                 return slot;
             }
         }
-        return Optional.empty();
+        return null;
+    }
+
+    private Object lockFor(String licensePlate) {
+        return plateLocks[stripeOf(licensePlate)];
+    }
+
+    // The lock stripes follow the plate map's stripes, so each map stripe has a single writer at a time
+    private int stripeOf(String licensePlate) {
+        return activeTransactions.stripeOf(licensePlate);
+    }
+
+    // Counting sort of item indexes by lock stripe; keeps request order within a stripe
+    private int[] orderByStripe(int size, IntFunction<String> plateAt) {
+        int[] stripeStart = new int[PLATE_LOCK_STRIPES + 1];
+        int[] stripes = new int[size];
+        for (int i = 0; i < size; i++) {
+            stripes[i] = stripeOf(plateAt.apply(i));
+            stripeStart[stripes[i] + 1]++;
+        }
+        for (int s = 0; s < PLATE_LOCK_STRIPES; s++) {
+            stripeStart[s + 1] += stripeStart[s];
+        }
+        int[] order = new int[size];
+        for (int i = 0; i < size; i++) {
+            order[stripeStart[stripes[i]]++] = i;
+        }
+        return order;
+    }
+
+    // Where the batch slot search for each vehicle type picks up again, indexed by VehicleType ordinal
+    private static class SlotSearchCursor {
+        final int[] floorIndex = new int[VehicleType.values().length];
+        final int[] position = new int[VehicleType.values().length];
+        final boolean[] exhausted = new boolean[VehicleType.values().length];
     }
 
     // Getters
@@ -125,14 +656,34 @@ public class ParkingLot {
     }
 
     public Map<String, Vehicle> getParkedVehicles() {
-        return new HashMap<>(parkedVehicles);
+        Map<String, Vehicle> parkedVehicles = new HashMap<>();
+        for (ParkingTransaction transaction : activeTransactions.values()) {
+            parkedVehicles.put(transaction.getVehicle().getLicensePlate(), transaction.getVehicle());
+        }
+        return parkedVehicles;
     }
 
     public Map<String, ParkingTransaction> getActiveTransactions() {
-        return new HashMap<>(activeTransactions);
+        Map<String, ParkingTransaction> transactions = new HashMap<>();
+        for (ParkingTransaction transaction : activeTransactions.values()) {
+            transactions.put(transaction.getVehicle().getLicensePlate(), transaction);
+        }
+        return transactions;
     }
 
     public void setPricingStrategy(PricingStrategy pricingStrategy) {
         this.pricingStrategy = pricingStrategy;
     }
+
+    public SlotAllocationStrategy getSlotAllocationStrategy() {
+        return slotAllocationStrategy;
+    }
+
+    // Applies to vehicles parked from now on; vehicles already parked keep their slots
+    public void setSlotAllocationStrategy(SlotAllocationStrategy slotAllocationStrategy) {
+        if (slotAllocationStrategy == null) {
+            throw new IllegalArgumentException("Slot allocation strategy cannot be null");
+        }
+        this.slotAllocationStrategy = slotAllocationStrategy;
+    }
 } 
\ No newline at end of file
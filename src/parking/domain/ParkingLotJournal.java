@@ -0,0 +1,34 @@
+package parking.domain;
+
+/**
+ * Write-ahead log of a ParkingLot's park, unpark and transfer operations (see
+ * {@link ParkingLot#setJournal}).
+ *
+ * Unlike a {@link ParkingLotListener}, a journal takes part in the operation: the lot asks it
+ * first whether records can be written, appends the record under the plate's lock stripe before
+ * the change is published, and only returns to the caller once {@link #awaitDurable()} does.
+ * An exception from any of these fails the operation; one thrown by an append also undoes it.
+ */
+public interface ParkingLotJournal {
+
+    /**
+     * Called before an operation changes anything. Throws to refuse it, e.g. while the journal
+     * cannot write.
+     */
+    void checkWritable();
+
+    // Called with the slot claimed, before the vehicle is registered as parked
+    void appendParked(ParkingTransaction transaction);
+
+    // Called before the slot is released; the transaction is still active
+    void appendUnparked(ParkingTransaction transaction, long exitMillis, long feeCents);
+
+    // Called with the new slot claimed, before the old one is released
+    void appendTransferred(ParkingTransaction transaction, ParkingSlot toSlot);
+
+    /**
+     * Called after the lock stripe is released. Returns once every record appended so far is
+     * durable, or right away if the journal does not wait for that.
+     */
+    void awaitDurable();
+}
@@ -0,0 +1,24 @@
+package parking.domain;
+
+/**
+ * Callback for state changes in a ParkingLot.
+ *
+ * Listeners run on the calling gate's thread while the plate's lock stripe is held, after the
+ * change has been applied, so events for one plate arrive in order. Keep them short; hand
+ * anything slow off to another thread. An exception from a listener does not fail or undo the
+ * operation and does not stop the other listeners; the lot counts it and passes it to its
+ * {@link ListenerErrorHandler} (see {@link ParkingLot#setListenerErrorHandler}). Anything that
+ * must be able to fail the operation, such as a write-ahead log, belongs in a
+ * {@link ParkingLotJournal} instead.
+ */
+public interface ParkingLotListener {
+
+    default void onVehicleParked(ParkingTransaction transaction) {
+    }
+
+    default void onVehicleUnparked(ParkingTransaction transaction) {
+    }
+
+    default void onVehicleTransferred(ParkingTransaction transaction, ParkingSlot fromSlot) {
+    }
+}
@@ -1,47 +1,90 @@
 package parking.domain;
 
+import java.util.EnumMap;
 import java.util.Map;
 
 public class ParkingLotStatus {
-    private Map<VehicleType, Integer> availableSlotsByType;
-    private Map<VehicleType, Integer> occupiedSlotsByType;
+    // Indexed by VehicleType ordinal
+    private int[] availableSlotsByType;
+    private int[] occupiedSlotsByType;
     private int totalParkedVehicles;
 
-    public ParkingLotStatus(Map<VehicleType, Integer> availableSlotsByType, 
-                           Map<VehicleType, Integer> occupiedSlotsByType, 
-                           int totalParkedVehicles) {
+    public ParkingLotStatus(int[] availableSlotsByType, int[] occupiedSlotsByType, int totalParkedVehicles) {
         this.availableSlotsByType = availableSlotsByType;
         this.occupiedSlotsByType = occupiedSlotsByType;
         this.totalParkedVehicles = totalParkedVehicles;
     }
 
+    public ParkingLotStatus(Map<VehicleType, Integer> availableSlotsByType,
+                           Map<VehicleType, Integer> occupiedSlotsByType,
+                           int totalParkedVehicles) {
+        this(toArray(availableSlotsByType), toArray(occupiedSlotsByType), totalParkedVehicles);
+    }
+
+    public int getAvailableSlots(VehicleType type) {
+        return availableSlotsByType[type.ordinal()];
+    }
+
+    public int getOccupiedSlots(VehicleType type) {
+        return occupiedSlotsByType[type.ordinal()];
+    }
+
+    /**
+     * Combined status of two independent lots (e.g. for a city-wide view); neither is modified.
+     */
+    public ParkingLotStatus merge(ParkingLotStatus other) {
+        int[] available = new int[availableSlotsByType.length];
+        int[] occupied = new int[occupiedSlotsByType.length];
+        for (int i = 0; i < available.length; i++) {
+            available[i] = availableSlotsByType[i] + other.availableSlotsByType[i];
+            occupied[i] = occupiedSlotsByType[i] + other.occupiedSlotsByType[i];
+        }
+        return new ParkingLotStatus(available, occupied, totalParkedVehicles + other.totalParkedVehicles);
+    }
+
     // Getters
     public Map<VehicleType, Integer> getAvailableSlotsByType() {
-        return availableSlotsByType;
+        return toMap(availableSlotsByType);
     }
 
     public Map<VehicleType, Integer> getOccupiedSlotsByType() {
-        return occupiedSlotsByType;
+        return toMap(occupiedSlotsByType);
     }
 
     public int getTotalParkedVehicles() {
         return totalParkedVehicles;
     }
 
+    private static int[] toArray(Map<VehicleType, Integer> countsByType) {
+        int[] counts = new int[VehicleType.values().length];
+        for (VehicleType type : VehicleType.values()) {
+            counts[type.ordinal()] = countsByType.getOrDefault(type, 0);
+        }
+        return counts;
+    }
+
+    private static Map<VehicleType, Integer> toMap(int[] counts) {
+        Map<VehicleType, Integer> countsByType = new EnumMap<>(VehicleType.class);
+        for (VehicleType type : VehicleType.values()) {
+            countsByType.put(type, counts[type.ordinal()]);
+        }
+        return countsByType;
+    }
+
     @Override
     public String toString() {
         StringBuilder sb = new StringBuilder();
         sb.append("Parking Lot Status:\n");
         sb.append("Total Parked Vehicles: ").append(totalParkedVehicles).append("\n");
-        
+
         for (VehicleType type : VehicleType.values()) {
-            int available = availableSlotsByType.getOrDefault(type, 0);
-            int occupied = occupiedSlotsByType.getOrDefault(type, 0);
+            int available = getAvailableSlots(type);
+            int occupied = getOccupiedSlots(type);
             sb.append(type.getDisplayName()).append(": ")
               .append(available).append(" available, ")
               .append(occupied).append(" occupied\n");
         }
-        
+
         return sb.toString();
     }
-} 
\ No newline at end of file
+}
@@ -3,24 +3,30 @@ package parking.domain;
 import java.time.LocalDateTime;
 
 public class ParkingReceipt {
-    private String receiptId;
+    private long receiptId;
+    private String receiptIdText; // rendered on first use
     private Vehicle vehicle;
     private double fee;
-    private LocalDateTime exitTime;
+    private long exitMillis;
 
     public ParkingReceipt(Vehicle vehicle, double fee) {
-        this.receiptId = generateReceiptId();
+        this.receiptId = IdGenerator.shared().nextId();
         this.vehicle = vehicle;
         this.fee = fee;
-        this.exitTime = LocalDateTime.now();
-    }
-
-    private String generateReceiptId() {
-        return "RCP-" + System.currentTimeMillis();
+        this.exitMillis = ParkingClock.getDefault().currentTimeMillis();
     }
 
     // Getters
     public String getReceiptId() {
+        String text = receiptIdText;
+        if (text == null) {
+            text = "RCP-" + receiptId;
+            receiptIdText = text;
+        }
+        return text;
+    }
+
+    public long getNumericReceiptId() {
         return receiptId;
     }
 
@@ -33,16 +39,20 @@ public class ParkingReceipt {
     }
 
     public LocalDateTime getExitTime() {
-        return exitTime;
+        return ParkingClock.toLocalDateTime(exitMillis);
+    }
+
+    public long getExitMillis() {
+        return exitMillis;
     }
 
     @Override
     public String toString() {
         return "ParkingReceipt{" +
-                "receiptId='" + receiptId + '\'' +
+                "receiptId='" + getReceiptId() + '\'' +
                 ", vehicle=" + vehicle.getLicensePlate() +
                 ", fee=" + fee +
-                ", exitTime=" + exitTime +
+                ", exitTime=" + getExitTime() +
                 '}';
     }
 } 
\ No newline at end of file
@@ -1,43 +1,113 @@
 package parking.domain;
 
+import java.lang.invoke.MethodHandles;
+import java.lang.invoke.VarHandle;
+
 public class ParkingSlot {
+    private static final VarHandle PARKED_VEHICLE;
+
+    static {
+        try {
+            PARKED_VEHICLE = MethodHandles.lookup()
+                    .findVarHandle(ParkingSlot.class, "parkedVehicle", Vehicle.class);
+        } catch (ReflectiveOperationException e) {
+            throw new ExceptionInInitializerError(e);
+        }
+    }
+
     private String slotId;
     private VehicleType slotType;
-    private boolean isOccupied;
-    private Vehicle parkedVehicle;
+    private volatile Vehicle parkedVehicle; // null when free, a SlotReservation.Hold while reserved; claimed and released with CAS
     private int floorNumber;
+    private ParkingFloor floor; // set when the slot is added to a floor
+    private int position;       // index of this slot within its floor
 
     public ParkingSlot(String slotId, VehicleType slotType, int floorNumber) {
         this.slotId = slotId;
         this.slotType = slotType;
         this.floorNumber = floorNumber;
-        this.isOccupied = false;
     }
 
     public boolean canAccommodate(Vehicle vehicle) {
-        return !isOccupied && slotType.canAccommodate(vehicle.getType());
+        return occupant() == null && slotType.canAccommodate(vehicle.getType());
     }
 
     public void parkVehicle(Vehicle vehicle) {
-        if (!canAccommodate(vehicle)) {
-            throw new IllegalStateException("Slot cannot accommodate this vehicle type");
+        if (!tryParkVehicle(vehicle)) {
+            throw new ParkingStateException(ParkingFailure.SLOT_UNAVAILABLE, "Slot cannot accommodate this vehicle type");
+        }
+    }
+
+    /**
+     * Atomically claims the slot for the vehicle.
+     *
+     * @return false if the slot type does not fit the vehicle or another gate claimed it first
+     */
+    public boolean tryParkVehicle(Vehicle vehicle) {
+        if (!slotType.canAccommodate(vehicle.getType())
+                || !PARKED_VEHICLE.compareAndSet(this, null, vehicle)) {
+            return false;
         }
-        this.parkedVehicle = vehicle;
-        this.isOccupied = true;
         vehicle.setAssignedSlot(this);
+        if (floor != null) {
+            floor.onSlotOccupied(this, position, vehicle instanceof SlotReservation.Hold);
+        }
+        return true;
+    }
+
+    /**
+     * Hands a reserved slot to the vehicle it is held for: the hold is replaced by the vehicle
+     * in one CAS, so the slot is never free in between.
+     *
+     * @return false if the slot type does not fit the vehicle or the slot no longer has this hold
+     */
+    boolean claimHold(SlotReservation.Hold hold, Vehicle vehicle) {
+        if (!slotType.canAccommodate(vehicle.getType()) || !replaceOccupant(hold, vehicle)) {
+            return false;
+        }
+        vehicle.setAssignedSlot(this);
+        if (floor != null) {
+            floor.onHoldClaimed(this);
+        }
+        return true;
     }
 
     public Vehicle unparkVehicle() {
-        if (!isOccupied) {
+        Vehicle vehicle = this.parkedVehicle;
+        if (vehicle == null || !PARKED_VEHICLE.compareAndSet(this, vehicle, null)) {
             throw new IllegalStateException("Slot is already empty");
         }
-        Vehicle vehicle = this.parkedVehicle;
-        this.parkedVehicle = null;
-        this.isOccupied = false;
-        vehicle.setAssignedSlot(null);
+        if (vehicle.getAssignedSlot() == this) {
+            vehicle.setAssignedSlot(null); // a transferred vehicle already points at its new slot
+        }
+        if (floor != null) {
+            floor.onSlotFreed(this, position, vehicle instanceof SlotReservation.Hold);
+        }
         return vehicle;
     }
 
+    // The vehicle or hold in the slot, or null; views of slot tables read it from the table
+    Vehicle occupant() {
+        return parkedVehicle;
+    }
+
+    boolean replaceOccupant(Vehicle expected, Vehicle replacement) {
+        return PARKED_VEHICLE.compareAndSet(this, expected, replacement);
+    }
+
+    void attachToFloor(ParkingFloor floor, int position) {
+        this.floor = floor;
+        this.position = position;
+    }
+
+    int getPosition() {
+        return position;
+    }
+
+    ParkingFloor getFloor() {
+        return floor;
+    }
+
     // Getters and Setters
     public String getSlotId() {
         return slotId;
@@ -48,11 +118,23 @@ public class ParkingSlot {
     }
 
     public boolean isOccupied() {
-        return isOccupied;
+        Vehicle occupant = occupant();
+        return occupant != null && !(occupant instanceof SlotReservation.Hold);
+    }
+
+    public boolean isReserved() {
+        return occupant() instanceof SlotReservation.Hold;
+    }
+
+    // Plate the slot is held for, or null if it is not reserved
+    public String getReservedFor() {
+        Vehicle occupant = occupant();
+        return occupant instanceof SlotReservation.Hold ? occupant.getLicensePlate() : null;
     }
 
     public Vehicle getParkedVehicle() {
-        return parkedVehicle;
+        Vehicle occupant = occupant();
+        return occupant instanceof SlotReservation.Hold ? null : occupant;
     }
 
     public int getFloorNumber() {
@@ -64,7 +146,8 @@ public class ParkingSlot {
         return "ParkingSlot{" +
                 "slotId='" + slotId + '\'' +
                 ", slotType=" + slotType.getDisplayName() +
-                ", isOccupied=" + isOccupied +
+                ", isOccupied=" + isOccupied() +
+                ", isReserved=" + isReserved() +
                 ", floorNumber=" + floorNumber +
                 '}';
     }
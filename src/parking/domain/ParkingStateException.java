@@ -0,0 +1,33 @@
+package parking.domain;
+
+/**
+ * An IllegalStateException that says which {@link ParkingFailure} refused the operation.
+ */
+public class ParkingStateException extends IllegalStateException {
+    private static final long serialVersionUID = 1L;
+
+    private final ParkingFailure failure;
+
+    public ParkingStateException(ParkingFailure failure, String message) {
+        super(message);
+        this.failure = failure;
+    }
+
+    public ParkingFailure getFailure() {
+        return failure;
+    }
+
+    /**
+     * The failure behind an exception from a parking operation, or null if it is not one of
+     * the known refusals (e.g. an internal error).
+     */
+    public static ParkingFailure failureOf(Throwable exception) {
+        if (exception instanceof ParkingStateException) {
+            return ((ParkingStateException) exception).getFailure();
+        }
+        if (exception instanceof IllegalArgumentException) {
+            return ParkingFailure.INVALID_REQUEST;
+        }
+        return null;
+    }
+}
@@ -3,24 +3,30 @@ package parking.domain;
 import java.time.LocalDateTime;
 
 public class ParkingTicket {
-    private String ticketId;
+    private long ticketId;
+    private String ticketIdText; // rendered on first use
     private Vehicle vehicle;
     private ParkingSlot slot;
-    private LocalDateTime issueTime;
+    private long issueMillis;
 
     public ParkingTicket(Vehicle vehicle, ParkingSlot slot) {
-        this.ticketId = generateTicketId();
+        this.ticketId = IdGenerator.shared().nextId();
         this.vehicle = vehicle;
         this.slot = slot;
-        this.issueTime = LocalDateTime.now();
-    }
-
-    private String generateTicketId() {
-        return "TKT-" + System.currentTimeMillis();
+        this.issueMillis = ParkingClock.getDefault().currentTimeMillis();
     }
 
     // Getters
     public String getTicketId() {
+        String text = ticketIdText;
+        if (text == null) {
+            text = "TKT-" + ticketId;
+            ticketIdText = text;
+        }
+        return text;
+    }
+
+    public long getNumericTicketId() {
         return ticketId;
     }
 
@@ -33,16 +39,20 @@ public class ParkingTicket {
     }
 
     public LocalDateTime getIssueTime() {
-        return issueTime;
+        return ParkingClock.toLocalDateTime(issueMillis);
+    }
+
+    public long getIssueMillis() {
+        return issueMillis;
     }
 
     @Override
     public String toString() {
         return "ParkingTicket{" +
-                "ticketId='" + ticketId + '\'' +
+                "ticketId='" + getTicketId() + '\'' +
                 ", vehicle=" + vehicle.getLicensePlate() +
                 ", slot=" + slot.getSlotId() +
-                ", issueTime=" + issueTime +
+                ", issueTime=" + getIssueTime() +
                 '}';
     }
 } 
\ No newline at end of file
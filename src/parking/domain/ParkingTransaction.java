@@ -3,13 +3,15 @@ package parking.domain;
 import java.time.LocalDateTime;
 
 public class ParkingTransaction {
-    private String transactionId;
+    private long transactionId;
+    private String transactionIdText; // rendered on first use
     private Vehicle vehicle;
-    private ParkingSlot slot;
-    private LocalDateTime entryTime;
-    private LocalDateTime exitTime;
-    private double fee;
-    private TransactionStatus status;
+    private volatile ParkingSlot slot;
+    private long entryMillis;
+    private long exitMillis;  // 0 while active
+    private long feeCents;
+    private volatile TransactionStatus status;
+    private volatile FeeQuote feeQuote; // last quoted fee while active, see ParkingLot.getVehicleInfo
 
     public enum TransactionStatus {
         ACTIVE,    // Vehicle is parked
@@ -17,23 +19,56 @@ public class ParkingTransaction {
     }
 
     public ParkingTransaction(Vehicle vehicle, ParkingSlot slot) {
-        this.transactionId = generateTransactionId();
+        this.transactionId = IdGenerator.shared().nextId();
         this.vehicle = vehicle;
         this.slot = slot;
-        this.entryTime = LocalDateTime.now();
+        this.entryMillis = vehicle.getEntryMillis();
         this.status = TransactionStatus.ACTIVE;
-        this.fee = 0.0;
+        this.feeCents = 0;
+    }
+
+    // Recreates a transaction that was opened before a restart
+    ParkingTransaction(long transactionId, Vehicle vehicle, ParkingSlot slot, long entryMillis) {
+        this.transactionId = transactionId;
+        this.vehicle = vehicle;
+        this.slot = slot;
+        this.entryMillis = entryMillis;
+        this.status = TransactionStatus.ACTIVE;
+        this.feeCents = 0;
     }
 
     public void completeTransaction(double fee) {
-        this.exitTime = LocalDateTime.now();
-        this.fee = fee;
+        completeTransactionInCents(Math.round(fee * 100));
+    }
+
+    public void completeTransactionInCents(long feeCents) {
+        completeAt(ParkingClock.getDefault().currentTimeMillis(), feeCents);
+    }
+
+    // Completes with the exit timestamp the lot already took for the vehicle
+    void completeAt(long exitMillis, long feeCents) {
+        this.exitMillis = exitMillis;
+        this.feeCents = feeCents;
+        this.feeQuote = null;
         this.status = TransactionStatus.COMPLETED;
     }
 
+    FeeQuote getFeeQuote() {
+        return feeQuote;
+    }
+
+    void setFeeQuote(FeeQuote feeQuote) {
+        this.feeQuote = feeQuote;
+    }
+
+    // The transaction stays open when a vehicle is moved to another slot
+    void moveToSlot(ParkingSlot newSlot) {
+        this.slot = newSlot;
+    }
+
     public long getParkingDurationInHours() {
-        LocalDateTime endTime = exitTime != null ? exitTime : LocalDateTime.now();
-        return java.time.Duration.between(entryTime, endTime).toHours();
+        long endMillis = exitMillis != 0 ? exitMillis : ParkingClock.getDefault().currentTimeMillis();
+        return (endMillis - entryMillis) / 3_600_000L;
     }
 
     public boolean isActive() {
@@ -44,12 +79,17 @@ public class ParkingTransaction {
         return status == TransactionStatus.COMPLETED;
     }
 
-    private String generateTransactionId() {
-        return "TXN-" + System.currentTimeMillis();
-    }
-
     // Getters
     public String getTransactionId() {
+        String text = transactionIdText;
+        if (text == null) {
+            text = "TXN-" + transactionId;
+            transactionIdText = text;
+        }
+        return text;
+    }
+
+    public long getNumericTransactionId() {
         return transactionId;
     }
 
@@ -62,15 +102,27 @@ public class ParkingTransaction {
     }
 
     public LocalDateTime getEntryTime() {
-        return entryTime;
+        return ParkingClock.toLocalDateTime(entryMillis);
     }
 
     public LocalDateTime getExitTime() {
-        return exitTime;
+        return exitMillis != 0 ? ParkingClock.toLocalDateTime(exitMillis) : null;
+    }
+
+    public long getEntryMillis() {
+        return entryMillis;
+    }
+
+    public long getExitMillis() {
+        return exitMillis;
     }
 
     public double getFee() {
-        return fee;
+        return feeCents / 100.0;
+    }
+
+    public long getFeeInCents() {
+        return feeCents;
     }
 
     public TransactionStatus getStatus() {
@@ -80,12 +132,12 @@ public class ParkingTransaction {
     @Override
     public String toString() {
         return "ParkingTransaction{" +
-                "transactionId='" + transactionId + '\'' +
+                "transactionId='" + getTransactionId() + '\'' +
                 ", vehicle=" + vehicle.getLicensePlate() +
                 ", slot=" + slot.getSlotId() +
-                ", entryTime=" + entryTime +
-                ", exitTime=" + exitTime +
-                ", fee=" + fee +
+                ", entryTime=" + getEntryTime() +
+                ", exitTime=" + getExitTime() +
+                ", fee=" + getFee() +
                 ", status=" + status +
                 '}';
     }
@@ -0,0 +1,65 @@
+package parking.domain;
+
+/**
+ * Packs a license plate into a single long, so plate-keyed lookups can hash and compare a
+ * number instead of a String.
+ *
+ * Plates of up to {@link #MAX_LENGTH} characters from the alphabet 0-9, A-Z and '-' are written
+ * in bijective base 37 (digits 1..37, no zero digit), which gives every such plate its own
+ * positive code and maps no code to two plates. Anything else (lower case, spaces, longer
+ * plates) is not encodable and has to be handled by the caller's fallback path.
+ */
+public class PlateCodec {
+    public static final int MAX_LENGTH = 12;
+    public static final long NOT_ENCODABLE = 0;
+
+    private static final int RADIX = 37;
+    private static final String ALPHABET = "0123456789ABCDEFGHIJKLMNOPQRSTUVWXYZ-";
+
+    private PlateCodec() {
+    }
+
+    /**
+     * @return the plate's code (always positive), or {@link #NOT_ENCODABLE}
+     */
+    public static long encode(CharSequence licensePlate) {
+        int length = licensePlate.length();
+        if (length == 0 || length > MAX_LENGTH) {
+            return NOT_ENCODABLE;
+        }
+        long code = 0;
+        for (int i = 0; i < length; i++) {
+            int digit = digitOf(licensePlate.charAt(i));
+            if (digit == 0) {
+                return NOT_ENCODABLE;
+            }
+            code = code * RADIX + digit;
+        }
+        return code;
+    }
+
+    public static String decode(long code) {
+        if (code <= 0) {
+            throw new IllegalArgumentException("Not a plate code: " + code);
+        }
+        char[] chars = new char[MAX_LENGTH];
+        int start = MAX_LENGTH;
+        while (code > 0) {
+            int digit = (int) ((code - 1) % RADIX) + 1;
+            chars[--start] = ALPHABET.charAt(digit - 1);
+            code = (code - digit) / RADIX;
+        }
+        return new String(chars, start, MAX_LENGTH - start);
+    }
+
+    // 1..37, or 0 if the character is outside the alphabet
+    private static int digitOf(char c) {
+        if (c >= '0' && c <= '9') {
+            return c - '0' + 1;
+        }
+        if (c >= 'A' && c <= 'Z') {
+            return c - 'A' + 11;
+        }
+        return c == '-' ? RADIX : 0;
+    }
+}
@@ -0,0 +1,301 @@
+package parking.domain;
+
+import java.lang.invoke.VarHandle;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.ConcurrentHashMap;
+
+/**
+ * License plate -> value map for the lot's parked vehicles.
+ *
+ * Plates are packed with {@link PlateCodec} and kept in open-addressing tables of primitive
+ * long keys (linear probing, backward-shift deletion, no tombstones), one table per stripe.
+ * A lookup hashes one long and compares longs; there is no per-entry node object. Plates the
+ * codec cannot pack go to a ConcurrentHashMap fallback.
+ *
+ * Writes to a stripe must be serialized by the caller: all writers for plates with the same
+ * {@link #stripeOf(String)} must hold the same lock (ParkingLot's plate lock stripes).
+ * Reads take no lock: each stripe carries a sequence number that is odd while it is being
+ * written, and a reader retries if the number changed under it.
+ */
+public class PlateMap<V> {
+    private static final int INITIAL_STRIPE_CAPACITY = 16; // power of two
+    private static final int SPINS_BEFORE_YIELD = 64;
+
+    private final Stripe<V>[] stripes;
+    private final int stripeMask;
+    private final Map<String, V> unencodablePlates = new ConcurrentHashMap<>();
+
+    /**
+     * @param stripeCount number of independently locked stripes, a power of two
+     * @param expectedSize pre-sizes the stripes for this many plates in total
+     */
+    @SuppressWarnings("unchecked")
+    public PlateMap(int stripeCount, int expectedSize) {
+        if (stripeCount <= 0 || Integer.bitCount(stripeCount) != 1) {
+            throw new IllegalArgumentException("Stripe count must be a power of two");
+        }
+        this.stripes = (Stripe<V>[]) new Stripe<?>[stripeCount];
+        this.stripeMask = stripeCount - 1;
+        int perStripe = expectedSize / stripeCount + 1;
+        int capacity = INITIAL_STRIPE_CAPACITY;
+        while (capacity * 3 / 4 < perStripe) {
+            capacity <<= 1;
+        }
+        for (int i = 0; i < stripeCount; i++) {
+            stripes[i] = new Stripe<>(capacity);
+        }
+    }
+
+    /**
+     * Stripe of the plate; writes for plates of the same stripe must not run concurrently.
+     */
+    public int stripeOf(String licensePlate) {
+        long code = PlateCodec.encode(licensePlate);
+        if (code == PlateCodec.NOT_ENCODABLE) {
+            int hash = licensePlate.hashCode();
+            return (hash ^ (hash >>> 16)) & stripeMask;
+        }
+        return (int) mix(code) & stripeMask;
+    }
+
+    public V get(String licensePlate) {
+        long code = PlateCodec.encode(licensePlate);
+        if (code == PlateCodec.NOT_ENCODABLE) {
+            return unencodablePlates.get(licensePlate);
+        }
+        long hash = mix(code);
+        return stripes[(int) hash & stripeMask].get(code, hash);
+    }
+
+    /**
+     * @return the previous value for the plate, or null
+     */
+    public V put(String licensePlate, V value) {
+        if (value == null) {
+            throw new IllegalArgumentException("Value cannot be null");
+        }
+        long code = PlateCodec.encode(licensePlate);
+        if (code == PlateCodec.NOT_ENCODABLE) {
+            return unencodablePlates.put(licensePlate, value);
+        }
+        long hash = mix(code);
+        return stripes[(int) hash & stripeMask].put(code, hash, value);
+    }
+
+    /**
+     * @return the removed value, or null if the plate was not present
+     */
+    public V remove(String licensePlate) {
+        long code = PlateCodec.encode(licensePlate);
+        if (code == PlateCodec.NOT_ENCODABLE) {
+            return unencodablePlates.remove(licensePlate);
+        }
+        long hash = mix(code);
+        return stripes[(int) hash & stripeMask].remove(code, hash);
+    }
+
+    public int size() {
+        int size = unencodablePlates.size();
+        for (Stripe<V> stripe : stripes) {
+            size += stripe.size;
+        }
+        return size;
+    }
+
+    /**
+     * Copy of the values. Each stripe is copied consistently; stripes are not copied at the
+     * same instant, as with the weakly consistent iterators of the concurrent collections.
+     */
+    public List<V> values() {
+        List<V> values = new ArrayList<>(size());
+        for (Stripe<V> stripe : stripes) {
+            stripe.copyValuesTo(values);
+        }
+        values.addAll(unencodablePlates.values());
+        return values;
+    }
+
+    // murmur3 finalizer: low bits pick the stripe, high bits the slot within it
+    private static long mix(long code) {
+        code ^= code >>> 33;
+        code *= 0xff51afd7ed558ccdL;
+        code ^= code >>> 33;
+        code *= 0xc4ceb9fe1a85ec53L;
+        code ^= code >>> 33;
+        return code;
+    }
+
+    private static int slotOf(long hash, int mask) {
+        return (int) (hash >>> 32) & mask;
+    }
+
+    private static void backOff(int attempt) {
+        if (attempt < SPINS_BEFORE_YIELD) {
+            Thread.onSpinWait();
+        } else {
+            Thread.yield(); // the writer may have been descheduled mid-update
+        }
+    }
+
+    // One open-addressing table; key 0 marks an empty slot (plate codes are positive)
+    private static class Stripe<V> {
+        private volatile int sequence;  // odd while a write is in progress
+        private volatile int size;
+        private long[] keys;
+        private Object[] values;
+
+        Stripe(int capacity) {
+            this.keys = new long[capacity];
+            this.values = new Object[capacity];
+        }
+
+        @SuppressWarnings("unchecked")
+        V get(long code, long hash) {
+            for (int attempt = 0; ; attempt++) {
+                int before = sequence;
+                if ((before & 1) == 0) {
+                    long[] currentKeys = keys;
+                    Object[] currentValues = values;
+                    Object found = null;
+                    if (currentKeys.length == currentValues.length) {
+                        int mask = currentKeys.length - 1;
+                        int slot = slotOf(hash, mask);
+                        for (int probes = 0; probes < currentKeys.length; probes++) {
+                            long key = currentKeys[slot];
+                            if (key == code) {
+                                found = currentValues[slot];
+                                break;
+                            }
+                            if (key == 0) {
+                                break;
+                            }
+                            slot = (slot + 1) & mask;
+                        }
+                    }
+                    VarHandle.loadLoadFence();
+                    if (sequence == before) {
+                        return (V) found;
+                    }
+                }
+                backOff(attempt);
+            }
+        }
+
+        @SuppressWarnings("unchecked")
+        V put(long code, long hash, V value) {
+            beginWrite();
+            try {
+                int mask = keys.length - 1;
+                int slot = slotOf(hash, mask);
+                while (keys[slot] != 0) {
+                    if (keys[slot] == code) {
+                        Object previous = values[slot];
+                        values[slot] = value;
+                        return (V) previous;
+                    }
+                    slot = (slot + 1) & mask;
+                }
+                if ((size + 1) * 4 > keys.length * 3) {
+                    grow();
+                    mask = keys.length - 1;
+                    slot = slotOf(hash, mask);
+                    while (keys[slot] != 0) {
+                        slot = (slot + 1) & mask;
+                    }
+                }
+                keys[slot] = code;
+                values[slot] = value;
+                size++;
+                return null;
+            } finally {
+                endWrite();
+            }
+        }
+
+        @SuppressWarnings("unchecked")
+        V remove(long code, long hash) {
+            int mask = keys.length - 1;
+            int slot = slotOf(hash, mask);
+            while (keys[slot] != code) {
+                if (keys[slot] == 0) {
+                    return null;
+                }
+                slot = (slot + 1) & mask;
+            }
+            beginWrite();
+            try {
+                Object removed = values[slot];
+                // Shift later entries of the probe run back so no tombstone is needed
+                int hole = slot;
+                for (int next = (hole + 1) & mask; keys[next] != 0; next = (next + 1) & mask) {
+                    int home = slotOf(mix(keys[next]), mask);
+                    if (((next - home) & mask) >= ((next - hole) & mask)) {
+                        keys[hole] = keys[next];
+                        values[hole] = values[next];
+                        hole = next;
+                    }
+                }
+                keys[hole] = 0;
+                values[hole] = null;
+                size--;
+                return (V) removed;
+            } finally {
+                endWrite();
+            }
+        }
+
+        @SuppressWarnings("unchecked")
+        void copyValuesTo(List<V> target) {
+            int start = target.size();
+            for (int attempt = 0; ; attempt++) {
+                int before = sequence;
+                if ((before & 1) == 0) {
+                    Object[] currentValues = values;
+                    for (Object value : currentValues) {
+                        if (value != null) {
+                            target.add((V) value);
+                        }
+                    }
+                    VarHandle.loadLoadFence();
+                    if (sequence == before) {
+                        return;
+                    }
+                    target.subList(start, target.size()).clear();
+                }
+                backOff(attempt);
+            }
+        }
+
+        // Called with the stripe's write lock held by the caller, inside a write
+        private void grow() {
+            long[] oldKeys = keys;
+            Object[] oldValues = values;
+            long[] newKeys = new long[oldKeys.length * 2];
+            Object[] newValues = new Object[oldKeys.length * 2];
+            int mask = newKeys.length - 1;
+            for (int i = 0; i < oldKeys.length; i++) {
+                if (oldKeys[i] != 0) {
+                    int slot = slotOf(mix(oldKeys[i]), mask);
+                    while (newKeys[slot] != 0) {
+                        slot = (slot + 1) & mask;
+                    }
+                    newKeys[slot] = oldKeys[i];
+                    newValues[slot] = oldValues[i];
+                }
+            }
+            keys = newKeys;
+            values = newValues;
+        }
+
+        private void beginWrite() {
+            sequence = sequence + 1;
+            VarHandle.storeStoreFence(); // table updates must not become visible before the odd sequence
+        }
+
+        private void endWrite() {
+            sequence = sequence + 1;
+        }
+    }
+}
@@ -2,4 +2,21 @@ package parking.domain;
 
 public interface PricingStrategy {
     double calculateFee(Vehicle vehicle);
-} 
\ No newline at end of file
+
+    /**
+     * Fee in integer cents. Strategies that price in cents natively should override this;
+     * the default rounds the double fee.
+     */
+    default long calculateFeeInCents(Vehicle vehicle) {
+        return Math.round(calculateFee(vehicle) * 100);
+    }
+
+    /**
+     * Epoch milliseconds at which this vehicle's fee can next change, given a fee computed at
+     * {@code nowMillis}. Callers may reuse that fee until then. The default returns
+     * {@code nowMillis}, which disables reuse.
+     */
+    default long nextFeeChangeMillis(Vehicle vehicle, long nowMillis) {
+        return nowMillis;
+    }
+}
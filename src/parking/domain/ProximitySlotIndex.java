@@ -0,0 +1,199 @@
+package parking.domain;
+
+import java.util.Arrays;
+import java.util.function.IntPredicate;
+
+/**
+ * Per-VehicleType priority queues of a floor's free slots, nearest to the floor's anchor first.
+ *
+ * Slots are ranked once by their distance to the anchor (ties broken by floor position), and
+ * each slot type keeps an indexed binary min-heap of the ranks of its free slots. Because the
+ * heap also records where each slot sits in it, a slot can be added or taken out by position
+ * in O(log n), and the nearest free slot for a vehicle is found by comparing the tops of the
+ * heaps of the slot types that fit it.
+ *
+ * The heaps may briefly hold a slot that has just been occupied by another path (e.g. a
+ * transfer into a specific slot); callers claim slots with CAS and simply move on when a claim
+ * fails. One lock guards all heaps of the floor; every operation under it is O(log n).
+ */
+class ProximitySlotIndex {
+    private final int[] rankOfPosition;
+    private final int[] positionOfRank;
+    private final int[][] heapsByType;          // ranks, heap-ordered; by VehicleType ordinal
+    private final int[] heapSizes;
+    private final int[][] heapIndexByType;      // position -> index in that type's heap, or -1
+
+    /**
+     * @param distances distance to the anchor of each floor position
+     */
+    ProximitySlotIndex(double[] distances) {
+        int slots = distances.length;
+        Integer[] byDistance = new Integer[slots];
+        for (int position = 0; position < slots; position++) {
+            byDistance[position] = position;
+        }
+        Arrays.sort(byDistance, (a, b) -> {
+            int byAnchor = Double.compare(distances[a], distances[b]);
+            return byAnchor != 0 ? byAnchor : Integer.compare(a, b);
+        });
+        this.rankOfPosition = new int[slots];
+        this.positionOfRank = new int[slots];
+        for (int rank = 0; rank < slots; rank++) {
+            positionOfRank[rank] = byDistance[rank];
+            rankOfPosition[byDistance[rank]] = rank;
+        }
+
+        int types = VehicleType.values().length;
+        this.heapsByType = new int[types][slots];
+        this.heapSizes = new int[types];
+        this.heapIndexByType = new int[types][slots];
+        for (int[] heapIndex : heapIndexByType) {
+            Arrays.fill(heapIndex, -1);
+        }
+    }
+
+    int size() {
+        return rankOfPosition.length;
+    }
+
+    synchronized void add(VehicleType slotType, int position) {
+        int type = slotType.ordinal();
+        if (heapIndexByType[type][position] >= 0) {
+            return;
+        }
+        int index = heapSizes[type]++;
+        heapsByType[type][index] = rankOfPosition[position];
+        heapIndexByType[type][position] = index;
+        siftUp(type, index);
+    }
+
+    synchronized void remove(VehicleType slotType, int position) {
+        int type = slotType.ordinal();
+        int index = heapIndexByType[type][position];
+        if (index >= 0) {
+            removeAt(type, index);
+        }
+    }
+
+    /**
+     * Takes the nearest queued slot that can hold the vehicle type out of its queue.
+     *
+     * @return its position, or -1 if no compatible slot is queued
+     */
+    synchronized int pollNearest(VehicleType vehicleType) {
+        int type = nearestType(vehicleType);
+        if (type < 0) {
+            return -1;
+        }
+        int position = positionOfRank[heapsByType[type][0]];
+        removeAt(type, 0);
+        return position;
+    }
+
+    /**
+     * Same as {@link #pollNearest} for slots of exactly the given type.
+     */
+    synchronized int pollNearestOfType(VehicleType slotType) {
+        int type = slotType.ordinal();
+        if (heapSizes[type] == 0) {
+            return -1;
+        }
+        int position = positionOfRank[heapsByType[type][0]];
+        removeAt(type, 0);
+        return position;
+    }
+
+    /**
+     * Nearest queued slot that can hold the vehicle type, without taking it. Queued slots that
+     * turn out to be occupied are dropped on the way; they are queued again when freed.
+     *
+     * @return its position, or -1
+     */
+    synchronized int peekNearest(VehicleType vehicleType, IntPredicate isOccupied) {
+        while (true) {
+            int type = nearestType(vehicleType);
+            if (type < 0) {
+                return -1;
+            }
+            int position = positionOfRank[heapsByType[type][0]];
+            if (!isOccupied.test(position)) {
+                return position;
+            }
+            removeAt(type, 0);
+        }
+    }
+
+    // Slot type whose nearest queued slot is nearest overall, or -1
+    private int nearestType(VehicleType vehicleType) {
+        int bestType = -1;
+        int bestRank = Integer.MAX_VALUE;
+        for (VehicleType slotType : VehicleType.values()) {
+            int type = slotType.ordinal();
+            if (heapSizes[type] > 0 && slotType.canAccommodate(vehicleType) && heapsByType[type][0] < bestRank) {
+                bestRank = heapsByType[type][0];
+                bestType = type;
+            }
+        }
+        return bestType;
+    }
+
+    private void removeAt(int type, int index) {
+        int[] heap = heapsByType[type];
+        int[] heapIndex = heapIndexByType[type];
+        heapIndex[positionOfRank[heap[index]]] = -1;
+        int last = --heapSizes[type];
+        if (index == last) {
+            return;
+        }
+        heap[index] = heap[last];
+        heapIndex[positionOfRank[heap[index]]] = index;
+        if (index > 0 && heap[index] < heap[(index - 1) >>> 1]) {
+            siftUp(type, index);
+        } else {
+            siftDown(type, index);
+        }
+    }
+
+    private void siftUp(int type, int index) {
+        int[] heap = heapsByType[type];
+        int rank = heap[index];
+        while (index > 0) {
+            int parent = (index - 1) >>> 1;
+            if (heap[parent] <= rank) {
+                break;
+            }
+            move(type, parent, index);
+            index = parent;
+        }
+        heap[index] = rank;
+        heapIndexByType[type][positionOfRank[rank]] = index;
+    }
+
+    private void siftDown(int type, int index) {
+        int[] heap = heapsByType[type];
+        int size = heapSizes[type];
+        int rank = heap[index];
+        while (true) {
+            int child = 2 * index + 1;
+            if (child >= size) {
+                break;
+            }
+            if (child + 1 < size && heap[child + 1] < heap[child]) {
+                child++;
+            }
+            if (heap[child] >= rank) {
+                break;
+            }
+            move(type, child, index);
+            index = child;
+        }
+        heap[index] = rank;
+        heapIndexByType[type][positionOfRank[rank]] = index;
+    }
+
+    private void move(int type, int from, int to) {
+        int rank = heapsByType[type][from];
+        heapsByType[type][to] = rank;
+        heapIndexByType[type][positionOfRank[rank]] = to;
+    }
+}
@@ -0,0 +1,39 @@
+package parking.domain;
+
+import java.lang.ref.WeakReference;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.locks.LockSupport;
+
+/**
+ * Advances a lot's reservation expiry once per wheel tick, so holds expire on an idle lot too.
+ * One daemon thread per lot, started with the lot's first reservation. It only holds the lot
+ * weakly and stops once the lot is no longer used.
+ */
+class ReservationExpiryTicker implements Runnable {
+    private final WeakReference<ParkingLot> parkingLot;
+    private final long tickNanos;
+
+    private ReservationExpiryTicker(ParkingLot parkingLot, long tickMillis) {
+        this.parkingLot = new WeakReference<>(parkingLot);
+        this.tickNanos = TimeUnit.MILLISECONDS.toNanos(tickMillis);
+    }
+
+    static void start(ParkingLot parkingLot, long tickMillis) {
+        Thread thread = new Thread(new ReservationExpiryTicker(parkingLot, tickMillis),
+                "reservation-expiry-" + parkingLot.getParkingLotId());
+        thread.setDaemon(true);
+        thread.start();
+    }
+
+    @Override
+    public void run() {
+        while (true) {
+            LockSupport.parkNanos(this, tickNanos);
+            ParkingLot lot = parkingLot.get();
+            if (lot == null) {
+                return;
+            }
+            lot.expireReservations();
+        }
+    }
+}
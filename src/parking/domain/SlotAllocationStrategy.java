@@ -0,0 +1,20 @@
+package parking.domain;
+
+import java.util.List;
+
+/**
+ * Decides which free slot of a lot a vehicle gets. Set on a lot with
+ * {@link ParkingLot#setSlotAllocationStrategy}; the default is {@link FirstFitAllocationStrategy}.
+ *
+ * Implementations claim the slot themselves, through the floors' claim methods, so that
+ * choosing a slot and taking it is one atomic step even with several gates allocating at once.
+ */
+public interface SlotAllocationStrategy {
+    /**
+     * Claims a slot for the vehicle on one of the lot's floors.
+     *
+     * @param floors the lot's floors in order; read-only
+     * @return the claimed slot, or null if the lot has no slot this strategy would give the vehicle
+     */
+    ParkingSlot claimSlot(List<ParkingFloor> floors, Vehicle vehicle);
+}
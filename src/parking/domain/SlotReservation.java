@@ -0,0 +1,108 @@
+package parking.domain;
+
+import java.time.LocalDateTime;
+
+/**
+ * A slot held for a pre-booked plate until it arrives or the hold expires.
+ *
+ * While the reservation is active the slot's occupant is a {@link Hold} for the plate, so
+ * every allocation path (which claims slots by CAS from free) skips it without checking any
+ * reservation table. When the plate parks, the hold is swapped for the vehicle in one CAS.
+ */
+public class SlotReservation {
+    public enum Status {
+        ACTIVE,
+        CLAIMED,
+        EXPIRED,
+        CANCELLED
+    }
+
+    private final Hold hold;
+    private final ParkingSlot slot;
+    private final long reservedMillis;
+    private final long expiresAtMillis;
+    private volatile Status status;
+    private HierarchicalTimingWheel.Timeout<SlotReservation> expiry; // set and cancelled under the plate's lock
+
+    SlotReservation(Hold hold, ParkingSlot slot, long reservedMillis, long expiresAtMillis) {
+        this.hold = hold;
+        this.slot = slot;
+        this.reservedMillis = reservedMillis;
+        this.expiresAtMillis = expiresAtMillis;
+        this.status = Status.ACTIVE;
+    }
+
+    Hold getHold() {
+        return hold;
+    }
+
+    HierarchicalTimingWheel.Timeout<SlotReservation> getExpiry() {
+        return expiry;
+    }
+
+    void setExpiry(HierarchicalTimingWheel.Timeout<SlotReservation> expiry) {
+        this.expiry = expiry;
+    }
+
+    void setStatus(Status status) {
+        this.status = status;
+    }
+
+    // Getters
+    public String getLicensePlate() {
+        return hold.getLicensePlate();
+    }
+
+    public VehicleType getVehicleType() {
+        return hold.getType();
+    }
+
+    public ParkingSlot getSlot() {
+        return slot;
+    }
+
+    public String getSlotId() {
+        return slot.getSlotId();
+    }
+
+    public long getReservedMillis() {
+        return reservedMillis;
+    }
+
+    public long getExpiresAtMillis() {
+        return expiresAtMillis;
+    }
+
+    public LocalDateTime getExpiresAt() {
+        return ParkingClock.toLocalDateTime(expiresAtMillis);
+    }
+
+    public Status getStatus() {
+        return status;
+    }
+
+    public boolean isActive() {
+        return status == Status.ACTIVE;
+    }
+
+    @Override
+    public String toString() {
+        return "SlotReservation{" +
+                "licensePlate='" + getLicensePlate() + '\'' +
+                ", vehicleType=" + getVehicleType().getDisplayName() +
+                ", slotId='" + getSlotId() + '\'' +
+                ", expiresAt=" + getExpiresAt() +
+                ", status=" + status +
+                '}';
+    }
+
+    /**
+     * Placeholder occupant of a reserved slot. It is never parked as a vehicle: ParkingSlot
+     * reports a held slot as reserved, not occupied, and the floor counts it separately.
+     */
+    static final class Hold extends Vehicle {
+        Hold(String licensePlate, VehicleType vehicleType) {
+            super(licensePlate, vehicleType);
+        }
+    }
+}
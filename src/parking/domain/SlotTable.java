@@ -0,0 +1,180 @@
+package parking.domain;
+
+import java.lang.invoke.MethodHandles;
+import java.lang.invoke.VarHandle;
+
+/**
+ * Struct-of-arrays slot storage for one floor, used instead of one ParkingSlot object per slot
+ * when a floor is created with {@link ParkingFloor#withSlotTable}.
+ *
+ * A slot is a position in three parallel arrays: its type (a byte), its occupant (null when
+ * free, claimed and released with CAS like ParkingSlot.parkedVehicle) and its ParkingSlot view.
+ * Slot IDs are not stored at all; they are the floor's prefix followed by the position
+ * (e.g. "F3-1207"), built when asked for. Together with the floor's free-slot bitsets a free
+ * slot costs about 9.4 bytes, and the floor and lot keep no per-slot ID index.
+ *
+ * Views are only kept while their slot is occupied or reserved, so that the vehicle's assigned
+ * slot and its transaction's slot stay the same object until it leaves. A free slot handed out
+ * by a lookup gets a short-lived view that becomes the kept one if it is used to park.
+ */
+class SlotTable {
+    private static final VarHandle OCCUPANTS = MethodHandles.arrayElementVarHandle(Vehicle[].class);
+    private static final VarHandle VIEWS = MethodHandles.arrayElementVarHandle(ParkingSlot[].class);
+    private static final VehicleType[] TYPES = VehicleType.values();
+
+    private final String slotIdPrefix;
+    private final byte[] slotTypes;        // VehicleType ordinal by position
+    private final Vehicle[] occupants;     // null when free
+    private final ParkingSlot[] views;     // set only while occupied
+    private int size;                      // written under the floor's lock during setup
+
+    SlotTable(String slotIdPrefix, int capacity) {
+        if (slotIdPrefix == null || (!slotIdPrefix.isEmpty()
+                && Character.isDigit(slotIdPrefix.charAt(slotIdPrefix.length() - 1)))) {
+            throw new IllegalArgumentException("Slot ID prefix cannot be null or end in a digit");
+        }
+        if (capacity <= 0) {
+            throw new IllegalArgumentException("Slot table capacity must be positive");
+        }
+        this.slotIdPrefix = slotIdPrefix;
+        this.slotTypes = new byte[capacity];
+        this.occupants = new Vehicle[capacity];
+        this.views = new ParkingSlot[capacity];
+    }
+
+    // Setup only, under the floor's lock: appends a free slot and returns its position
+    int add(VehicleType slotType) {
+        if (size == slotTypes.length) {
+            throw new IllegalStateException("Slot table is full (capacity " + slotTypes.length + ")");
+        }
+        slotTypes[size] = (byte) slotType.ordinal();
+        return size++;
+    }
+
+    int size() {
+        return size;
+    }
+
+    int capacity() {
+        return slotTypes.length;
+    }
+
+    String getSlotIdPrefix() {
+        return slotIdPrefix;
+    }
+
+    VehicleType slotType(int position) {
+        return TYPES[slotTypes[position]];
+    }
+
+    String slotId(int position) {
+        return slotIdPrefix + position;
+    }
+
+    // A vehicle is parked in the slot; a reserved slot is neither occupied nor free
+    boolean isOccupied(int position) {
+        Object occupant = OCCUPANTS.getVolatile(occupants, position);
+        return occupant != null && !(occupant instanceof SlotReservation.Hold);
+    }
+
+    boolean isFree(int position) {
+        return OCCUPANTS.getVolatile(occupants, position) == null;
+    }
+
+    Vehicle occupant(int position) {
+        return (Vehicle) OCCUPANTS.getVolatile(occupants, position);
+    }
+
+    /**
+     * Position of the slot with the given ID, or -1 if the ID is not one of this table's:
+     * the prefix followed by a position in canonical decimal form.
+     */
+    int positionOf(String slotId) {
+        if (slotId == null || !slotId.startsWith(slotIdPrefix)) {
+            return -1;
+        }
+        int start = slotIdPrefix.length();
+        int length = slotId.length() - start;
+        if (length == 0 || length > 10 || (length > 1 && slotId.charAt(start) == '0')) {
+            return -1;
+        }
+        long position = 0;
+        for (int i = start; i < slotId.length(); i++) {
+            char c = slotId.charAt(i);
+            if (c < '0' || c > '9') {
+                return -1;
+            }
+            position = position * 10 + (c - '0');
+        }
+        return position < size ? (int) position : -1;
+    }
+
+    /**
+     * The kept view of an occupied slot, or a new one for a free slot.
+     */
+    ParkingSlot slotAt(ParkingFloor floor, int position) {
+        ParkingSlot view = (ParkingSlot) VIEWS.getVolatile(views, position);
+        return view != null ? view : new View(this, floor, position);
+    }
+
+    // Slot view backed by the table; occupancy lives in the table, not in the view
+    private static class View extends ParkingSlot {
+        private final SlotTable table;
+
+        View(SlotTable table, ParkingFloor floor, int position) {
+            super(null, table.slotType(position), floor.getFloorNumber());
+            this.table = table;
+            attachToFloor(floor, position);
+        }
+
+        @Override
+        public boolean tryParkVehicle(Vehicle vehicle) {
+            int position = getPosition();
+            if (!getSlotType().canAccommodate(vehicle.getType())
+                    || !OCCUPANTS.compareAndSet(table.occupants, position, null, vehicle)) {
+                return false;
+            }
+            // The occupant owns the view entry until it leaves, so a plain publish is enough
+            VIEWS.setVolatile(table.views, position, this);
+            vehicle.setAssignedSlot(this);
+            getFloor().onSlotOccupied(this, position, vehicle instanceof SlotReservation.Hold);
+            return true;
+        }
+
+        @Override
+        public Vehicle unparkVehicle() {
+            int position = getPosition();
+            Object kept = VIEWS.getVolatile(table.views, position);
+            Vehicle vehicle = table.occupant(position);
+            if (vehicle == null) {
+                throw new IllegalStateException("Slot is already empty");
+            }
+            // Drop the kept view before releasing the slot, so the next occupant's view is never cleared
+            VIEWS.compareAndSet(table.views, position, kept, null);
+            if (!OCCUPANTS.compareAndSet(table.occupants, position, vehicle, null)) {
+                throw new IllegalStateException("Slot is already empty");
+            }
+            if (vehicle.getAssignedSlot() == this) {
+                vehicle.setAssignedSlot(null);
+            }
+            getFloor().onSlotFreed(this, position, vehicle instanceof SlotReservation.Hold);
+            return vehicle;
+        }
+
+        @Override
+        public String getSlotId() {
+            return table.slotId(getPosition());
+        }
+
+        @Override
+        Vehicle occupant() {
+            return table.occupant(getPosition());
+        }
+
+        // The view stays the kept one: the hold owned it and the vehicle takes it over
+        @Override
+        boolean replaceOccupant(Vehicle expected, Vehicle replacement) {
+            return OCCUPANTS.compareAndSet(table.occupants, getPosition(), expected, replacement);
+        }
+    }
+}
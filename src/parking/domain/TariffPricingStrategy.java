@@ -0,0 +1,273 @@
+package parking.domain;
+
+import java.time.DayOfWeek;
+import java.time.ZoneOffset;
+import java.util.EnumMap;
+import java.util.Map;
+import java.util.TreeMap;
+
+/**
+ * Tariff-based pricing in integer cents, with time-of-day/weekday rates and duration tiers.
+ *
+ * Each billed hour is charged at the rate of the hour of the week in which it starts (so a stay
+ * from Friday 17:30 to 20:30 pays the Friday 17:00, 18:00 and 19:00 rates), scaled by the
+ * percentage of the duration tier it falls in (e.g. hours 4 and later at 50%).
+ *
+ * All tables are built once by the {@link Builder}: per vehicle type and tier, a prefix sum of
+ * the 168 hourly rates of the week, plus the total charge of every completed tier for each
+ * starting hour of the week. A fee is then one binary search over the tier boundaries and two
+ * table differences: O(log tiers), no allocation, no floating point.
+ *
+ * Hours of the week are taken in a fixed {@link ZoneOffset}, so prices do not depend on the
+ * server's zone or daylight-saving changes.
+ */
+public class TariffPricingStrategy implements PricingStrategy {
+    private static final int HOURS_PER_WEEK = 168;
+    private static final long HOUR_MILLIS = 3_600_000L;
+    private static final int EPOCH_HOUR_OF_WEEK = 3 * 24; // 1970-01-01 was a Thursday; Monday 00:00 is hour 0
+
+    private final long offsetMillis;
+    private final boolean billPartialHours;
+    private final RateTable[] rateTables; // by VehicleType ordinal
+
+    private TariffPricingStrategy(Builder builder) {
+        this.offsetMillis = builder.offset.getTotalSeconds() * 1000L;
+        this.billPartialHours = builder.billPartialHours;
+        this.rateTables = new RateTable[VehicleType.values().length];
+        for (VehicleType type : VehicleType.values()) {
+            rateTables[type.ordinal()] = new RateTable(builder.hourlyRates.get(type).clone(),
+                    new TreeMap<>(builder.tiers.get(type)));
+        }
+    }
+
+    public static Builder builder(ZoneOffset offset) {
+        return new Builder(offset);
+    }
+
+    @Override
+    public double calculateFee(Vehicle vehicle) {
+        return calculateFeeInCents(vehicle) / 100.0;
+    }
+
+    @Override
+    public long calculateFeeInCents(Vehicle vehicle) {
+        long exitMillis = vehicle.getExitMillis() != 0 ? vehicle.getExitMillis()
+                : ParkingClock.getDefault().currentTimeMillis();
+        return calculateFeeInCents(vehicle.getType(), vehicle.getEntryMillis(), exitMillis);
+    }
+
+    /**
+     * Fee for a stay given as epoch milliseconds.
+     */
+    public long calculateFeeInCents(VehicleType vehicleType, long entryMillis, long exitMillis) {
+        long durationMillis = exitMillis - entryMillis;
+        if (durationMillis <= 0) {
+            return 0;
+        }
+        long billedHours = billPartialHours
+                ? (durationMillis + HOUR_MILLIS - 1) / HOUR_MILLIS
+                : durationMillis / HOUR_MILLIS;
+        return rateTables[vehicleType.ordinal()].fee(hourOfWeek(entryMillis), billedHours);
+    }
+
+    /**
+     * Fees change only when another hour becomes billable: at each full hour after entry, or
+     * just after it when partial hours are billed.
+     */
+    @Override
+    public long nextFeeChangeMillis(Vehicle vehicle, long nowMillis) {
+        long entryMillis = vehicle.getEntryMillis();
+        long elapsed = Math.max(0, nowMillis - entryMillis);
+        if (billPartialHours) {
+            return entryMillis + (elapsed == 0 ? 1 : (elapsed + HOUR_MILLIS - 1) / HOUR_MILLIS * HOUR_MILLIS + 1);
+        }
+        return entryMillis + (elapsed / HOUR_MILLIS + 1) * HOUR_MILLIS;
+    }
+
+    /**
+     * Prices {@code count} stays in one pass, e.g. for a settlement run over the history store.
+     *
+     * @param feesInCents receives the fee of stay i at index i
+     * @return the total of all fees
+     */
+    public long calculateFeesInCents(VehicleType[] vehicleTypes, long[] entryMillis, long[] exitMillis,
+                                     long[] feesInCents, int count) {
+        long total = 0;
+        for (int i = 0; i < count; i++) {
+            long fee = calculateFeeInCents(vehicleTypes[i], entryMillis[i], exitMillis[i]);
+            feesInCents[i] = fee;
+            total += fee;
+        }
+        return total;
+    }
+
+    /**
+     * Undiscounted rate in cents of the given hour of the week for a vehicle type.
+     */
+    public long getHourlyRateInCents(VehicleType vehicleType, DayOfWeek day, int hour) {
+        return rateTables[vehicleType.ordinal()].rates[(day.getValue() - 1) * 24 + hour];
+    }
+
+    private int hourOfWeek(long epochMillis) {
+        return (int) Math.floorMod(Math.floorDiv(epochMillis + offsetMillis, HOUR_MILLIS) + EPOCH_HOUR_OF_WEEK,
+                (long) HOURS_PER_WEEK);
+    }
+
+    // Precomputed charges for one vehicle type
+    private static class RateTable {
+        final long[] rates;                // undiscounted cents per hour of the week
+        final long[] tierStarts;           // first billed hour of each tier, ascending, tierStarts[0] == 0
+        final long[][] prefixSums;         // [tier][h]: sum of tier-scaled rates of hours [0, h) of the week
+        final long[][] completedTiers;     // [tier][startHourOfWeek]: charge of all hours before tierStarts[tier]
+
+        RateTable(long[] rates, TreeMap<Long, Integer> tiers) {
+            this.rates = rates;
+            int tierCount = tiers.size();
+            this.tierStarts = new long[tierCount];
+            this.prefixSums = new long[tierCount][HOURS_PER_WEEK + 1];
+            int t = 0;
+            for (Map.Entry<Long, Integer> tier : tiers.entrySet()) {
+                tierStarts[t] = tier.getKey();
+                int percent = tier.getValue();
+                for (int h = 0; h < HOURS_PER_WEEK; h++) {
+                    prefixSums[t][h + 1] = prefixSums[t][h] + (rates[h] * percent + 50) / 100;
+                }
+                t++;
+            }
+
+            this.completedTiers = new long[tierCount][HOURS_PER_WEEK];
+            for (int start = 0; start < HOURS_PER_WEEK; start++) {
+                for (int tier = 1; tier < tierCount; tier++) {
+                    long previousStart = tierStarts[tier - 1];
+                    completedTiers[tier][start] = completedTiers[tier - 1][start]
+                            + rangeSum(tier - 1, (int) ((start + previousStart) % HOURS_PER_WEEK),
+                                       tierStarts[tier] - previousStart);
+                }
+            }
+        }
+
+        long fee(int startHourOfWeek, long billedHours) {
+            if (billedHours <= 0) {
+                return 0;
+            }
+            int tier = lastTierStartingBefore(billedHours);
+            long tierStart = tierStarts[tier];
+            return completedTiers[tier][startHourOfWeek]
+                    + rangeSum(tier, (int) ((startHourOfWeek + tierStart) % HOURS_PER_WEEK), billedHours - tierStart);
+        }
+
+        // Tier of the last billed hour (index billedHours - 1)
+        private int lastTierStartingBefore(long billedHours) {
+            int low = 0;
+            int high = tierStarts.length - 1;
+            while (low < high) {
+                int middle = (low + high + 1) >>> 1;
+                if (tierStarts[middle] < billedHours) {
+                    low = middle;
+                } else {
+                    high = middle - 1;
+                }
+            }
+            return low;
+        }
+
+        // Charge of `hours` consecutive hours at one tier's scale, starting at an hour of the week
+        private long rangeSum(int tier, int startHourOfWeek, long hours) {
+            long[] prefix = prefixSums[tier];
+            long weekTotal = prefix[HOURS_PER_WEEK];
+            long sum = (hours / HOURS_PER_WEEK) * weekTotal;
+            int end = startHourOfWeek + (int) (hours % HOURS_PER_WEEK);
+            if (end <= HOURS_PER_WEEK) {
+                sum += prefix[end] - prefix[startHourOfWeek];
+            } else {
+                sum += weekTotal - prefix[startHourOfWeek] + prefix[end - HOURS_PER_WEEK];
+            }
+            return sum;
+        }
+    }
+
+    public static class Builder {
+        private final ZoneOffset offset;
+        private final Map<VehicleType, long[]> hourlyRates = new EnumMap<>(VehicleType.class);
+        private final Map<VehicleType, TreeMap<Long, Integer>> tiers = new EnumMap<>(VehicleType.class);
+        private boolean billPartialHours;
+
+        private Builder(ZoneOffset offset) {
+            if (offset == null) {
+                throw new IllegalArgumentException("Zone offset cannot be null");
+            }
+            this.offset = offset;
+            for (VehicleType type : VehicleType.values()) {
+                hourlyRates.put(type, new long[HOURS_PER_WEEK]);
+                TreeMap<Long, Integer> typeTiers = new TreeMap<>();
+                typeTiers.put(0L, 100);
+                tiers.put(type, typeTiers);
+            }
+        }
+
+        /**
+         * Rate for every hour of the week. Later rate calls override earlier ones where they overlap.
+         */
+        public Builder hourlyRate(VehicleType vehicleType, long centsPerHour) {
+            return hourlyRate(vehicleType, DayOfWeek.MONDAY, DayOfWeek.SUNDAY, 0, 24, centsPerHour);
+        }
+
+        /**
+         * Rate for the hours [fromHour, toHour) of each day from {@code firstDay} to {@code lastDay}
+         * inclusive (wrapping past Sunday, e.g. SATURDAY to SUNDAY).
+         */
+        public Builder hourlyRate(VehicleType vehicleType, DayOfWeek firstDay, DayOfWeek lastDay,
+                                  int fromHour, int toHour, long centsPerHour) {
+            if (centsPerHour < 0) {
+                throw new IllegalArgumentException("Hourly rate cannot be negative");
+            }
+            if (fromHour < 0 || toHour > 24 || fromHour >= toHour) {
+                throw new IllegalArgumentException("Invalid hour range " + fromHour + "-" + toHour);
+            }
+            long[] rates = hourlyRates.get(vehicleType);
+            int days = Math.floorMod(lastDay.getValue() - firstDay.getValue(), 7) + 1;
+            for (int d = 0; d < days; d++) {
+                int dayStart = ((firstDay.getValue() - 1 + d) % 7) * 24;
+                for (int hour = fromHour; hour < toHour; hour++) {
+                    rates[dayStart + hour] = centsPerHour;
+                }
+            }
+            return this;
+        }
+
+        /**
+         * From the given billed hour on (0-based, so 3 means the fourth hour), charge
+         * {@code percentOfRate}% of the time-of-day rate until the next tier starts.
+         */
+        public Builder tier(VehicleType vehicleType, long fromBilledHour, int percentOfRate) {
+            if (fromBilledHour < 0 || percentOfRate < 0) {
+                throw new IllegalArgumentException("Tier start and percentage cannot be negative");
+            }
+            tiers.get(vehicleType).put(fromBilledHour, percentOfRate);
+            return this;
+        }
+
+        /**
+         * Whether a started hour is billed as a full hour. Off by default, which matches
+         * DefaultPricingStrategy (only completed hours are charged).
+         */
+        public Builder billPartialHours(boolean billPartialHours) {
+            this.billPartialHours = billPartialHours;
+            return this;
+        }
+
+        /**
+         * Same hourly rates as DefaultPricingStrategy ($1, $2 and $5), as a starting point.
+         */
+        public Builder defaultRates() {
+            hourlyRate(VehicleType.MOTORCYCLE, 100);
+            hourlyRate(VehicleType.CAR, 200);
+            hourlyRate(VehicleType.BUS, 500);
+            return this;
+        }
+
+        public TariffPricingStrategy build() {
+            return new TariffPricingStrategy(this);
+        }
+    }
+}
@@ -5,14 +5,14 @@ import java.time.LocalDateTime;
 public class Vehicle {
     private String licensePlate;
     private VehicleType type;
-    private LocalDateTime entryTime;
-    private LocalDateTime exitTime;
-    private ParkingSlot assignedSlot;
+    private long entryMillis;
+    private long exitMillis;  // 0 while parked
+    private volatile ParkingSlot assignedSlot;
 
     public Vehicle(String licensePlate, VehicleType type) {
         this.licensePlate = licensePlate;
         this.type = type;
-        this.entryTime = LocalDateTime.now();
+        this.entryMillis = ParkingClock.getDefault().currentTimeMillis();
     }
 
     // Getters and Setters
@@ -25,19 +25,35 @@ public class Vehicle {
     }
 
     public LocalDateTime getEntryTime() {
-        return entryTime;
+        return ParkingClock.toLocalDateTime(entryMillis);
     }
 
     public void setEntryTime(LocalDateTime entryTime) {
-        this.entryTime = entryTime;
+        this.entryMillis = ParkingClock.toEpochMillis(entryTime);
+    }
+
+    public long getEntryMillis() {
+        return entryMillis;
+    }
+
+    public void setEntryMillis(long entryMillis) {
+        this.entryMillis = entryMillis;
     }
 
     public LocalDateTime getExitTime() {
-        return exitTime;
+        return exitMillis != 0 ? ParkingClock.toLocalDateTime(exitMillis) : null;
     }
 
     public void setExitTime(LocalDateTime exitTime) {
-        this.exitTime = exitTime;
+        this.exitMillis = exitTime != null ? ParkingClock.toEpochMillis(exitTime) : 0;
+    }
+
+    public long getExitMillis() {
+        return exitMillis;
+    }
+
+    public void setExitMillis(long exitMillis) {
+        this.exitMillis = exitMillis;
     }
 
     public ParkingSlot getAssignedSlot() {
@@ -49,8 +65,12 @@ public class Vehicle {
     }
 
     public long getParkingDurationInHours() {
-        LocalDateTime endTime = exitTime != null ? exitTime : LocalDateTime.now();
-        return java.time.Duration.between(entryTime, endTime).toHours();
+        return getParkingDurationMillis() / 3_600_000L;
+    }
+
+    public long getParkingDurationMillis() {
+        long endMillis = exitMillis != 0 ? exitMillis : ParkingClock.getDefault().currentTimeMillis();
+        return endMillis - entryMillis;
     }
 
     @Override
@@ -58,8 +78,8 @@ public class Vehicle {
         return "Vehicle{" +
                 "licensePlate='" + licensePlate + '\'' +
                 ", type=" + type.getDisplayName() +
-                ", entryTime=" + entryTime +
-                ", exitTime=" + exitTime +
+                ", entryTime=" + getEntryTime() +
+                ", exitTime=" + getExitTime() +
                 '}';
     }
 } 
\ No newline at end of file
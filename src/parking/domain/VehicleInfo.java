@@ -2,13 +2,22 @@ package parking.domain;
 
 public class VehicleInfo {
     private Vehicle vehicle;
-    private double currentFee;
+    private long currentFeeCents;
     private long parkingDurationHours;
 
     public VehicleInfo(Vehicle vehicle, double currentFee) {
+        this(vehicle, Math.round(currentFee * 100), vehicle.getParkingDurationInHours());
+    }
+
+    private VehicleInfo(Vehicle vehicle, long currentFeeCents, long parkingDurationHours) {
         this.vehicle = vehicle;
-        this.currentFee = currentFee;
-        this.parkingDurationHours = vehicle.getParkingDurationInHours();
+        this.currentFeeCents = currentFeeCents;
+        this.parkingDurationHours = parkingDurationHours;
+    }
+
+    // A named factory rather than a long overload, so new VehicleInfo(vehicle, 5) stays 5.00
+    public static VehicleInfo ofCents(Vehicle vehicle, long currentFeeCents) {
+        return new VehicleInfo(vehicle, currentFeeCents, vehicle.getParkingDurationInHours());
     }
 
     // Getters
@@ -17,7 +26,11 @@ public class VehicleInfo {
     }
 
     public double getCurrentFee() {
-        return currentFee;
+        return currentFeeCents / 100.0;
+    }
+
+    public long getCurrentFeeInCents() {
+        return currentFeeCents;
     }
 
     public long getParkingDurationHours() {
@@ -31,7 +44,7 @@ public class VehicleInfo {
                 ", vehicleType=" + vehicle.getType().getDisplayName() +
                 ", entryTime=" + vehicle.getEntryTime() +
                 ", parkingDurationHours=" + parkingDurationHours +
-                ", currentFee=" + currentFee +
+                ", currentFee=" + getCurrentFee() +
                 '}';
     }
 } 
\ No newline at end of file
@@ -0,0 +1,124 @@
+package parking.domain;
+
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.concurrent.locks.Condition;
+import java.util.concurrent.locks.LockSupport;
+import java.util.concurrent.locks.ReentrantLock;
+import java.util.function.BooleanSupplier;
+import java.util.function.LongSupplier;
+
+/**
+ * How a {@link ParkingEventBus} consumer waits for the next event, trading latency against
+ * CPU: busy spin and yielding keep a core busy but react in well under a microsecond,
+ * sleeping and blocking leave the CPU to the gates. Each consumer gets its own instance.
+ */
+public interface WaitStrategy {
+
+    /**
+     * Waits until the bus cursor reaches {@code sequence}, or {@code halted} turns true.
+     *
+     * @return the cursor value last seen (below {@code sequence} only when halted)
+     */
+    long waitFor(long sequence, LongSupplier cursor, BooleanSupplier halted);
+
+    /**
+     * Called by publishers after every publish; only blocking strategies need to act on it.
+     */
+    default void signalAllWhenBlocking() {
+    }
+
+    static WaitStrategy busySpin() {
+        return (sequence, cursor, halted) -> {
+            long available;
+            while ((available = cursor.getAsLong()) < sequence && !halted.getAsBoolean()) {
+                Thread.onSpinWait();
+            }
+            return available;
+        };
+    }
+
+    // Spins briefly, then yields the CPU between checks
+    static WaitStrategy yielding() {
+        return (sequence, cursor, halted) -> {
+            long available;
+            for (int spins = 0; (available = cursor.getAsLong()) < sequence && !halted.getAsBoolean(); spins++) {
+                if (spins < 100) {
+                    Thread.onSpinWait();
+                } else {
+                    Thread.yield();
+                }
+            }
+            return available;
+        };
+    }
+
+    // Spins, yields, then parks for sleepNanos between checks; a few microseconds of extra latency
+    static WaitStrategy sleeping(long sleepNanos) {
+        if (sleepNanos <= 0) {
+            throw new IllegalArgumentException("Sleep time must be positive");
+        }
+        return (sequence, cursor, halted) -> {
+            long available;
+            for (int spins = 0; (available = cursor.getAsLong()) < sequence && !halted.getAsBoolean(); spins++) {
+                if (spins < 100) {
+                    Thread.onSpinWait();
+                } else if (spins < 200) {
+                    Thread.yield();
+                } else {
+                    LockSupport.parkNanos(sleepNanos);
+                }
+            }
+            return available;
+        };
+    }
+
+    static WaitStrategy blocking() {
+        return new BlockingWaitStrategy();
+    }
+
+    /**
+     * Sleeps on a condition until a publisher signals. Publishers only take the lock while a
+     * consumer is actually waiting, so an idle consumer costs the gates one volatile read.
+     */
+    class BlockingWaitStrategy implements WaitStrategy {
+        private static final long MAX_WAIT_NANOS = TimeUnit.MILLISECONDS.toNanos(10);
+
+        private final ReentrantLock lock = new ReentrantLock();
+        private final Condition published = lock.newCondition();
+        private final AtomicInteger waiters = new AtomicInteger();
+
+        @Override
+        public long waitFor(long sequence, LongSupplier cursor, BooleanSupplier halted) {
+            long available = cursor.getAsLong();
+            if (available >= sequence) {
+                return available;
+            }
+            lock.lock();
+            try {
+                waiters.incrementAndGet(); // before re-reading the cursor, so a publish after the read signals us
+                while ((available = cursor.getAsLong()) < sequence && !halted.getAsBoolean()) {
+                    published.awaitNanos(MAX_WAIT_NANOS); // bounded, so close() never waits on a lost signal
+                }
+            } catch (InterruptedException e) {
+                Thread.currentThread().interrupt();
+            } finally {
+                waiters.decrementAndGet();
+                lock.unlock();
+            }
+            return available;
+        }
+
+        @Override
+        public void signalAllWhenBlocking() {
+            if (waiters.get() > 0) {
+                lock.lock();
+                try {
+                    published.signalAll();
+                } finally {
+                    lock.unlock();
+                }
+            }
+        }
+    }
+}
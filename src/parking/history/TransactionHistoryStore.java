@@ -0,0 +1,394 @@
+package parking.history;
+
+import parking.domain.*;
+
+import java.lang.invoke.MethodHandles;
+import java.lang.invoke.VarHandle;
+import java.nio.charset.StandardCharsets;
+import java.util.Arrays;
+import java.util.Map;
+import java.util.concurrent.ConcurrentHashMap;
+
+/**
+ * Column store of completed ParkingTransactions.
+ *
+ * Records are kept in fixed-size chunks of primitive columns (entry/exit epoch millis, fee in
+ * cents, vehicle type ordinal, dictionary-encoded slot, plate hash + plate bytes), so tens of
+ * millions of records cost a few dozen bytes each and no object per record. A record is
+ * addressed by its index (0 = oldest) and read back through the column accessors.
+ *
+ * Plate and slot lookups do not scan: each record also stores the index of the previous record
+ * with the same plate hash and the same slot (two int columns), and the store keeps the newest
+ * record index per plate hash (an open-addressing table of primitives) and per slot code, so a
+ * lookup walks only the records of that key.
+ *
+ * Attach it behind a lossless {@link AsyncParkingLotListener} so the unpark path only enqueues,
+ * and waits for room rather than losing a record when the store falls behind:
+ * <pre>
+ *   parkingLot.addListener(AsyncParkingLotListener.lossless(historyStore, "history"));
+ * </pre>
+ * There is one writer at a time; readers never lock and see every record whose index is
+ * below {@link #size()}.
+ */
+public class TransactionHistoryStore implements ParkingLotListener {
+    private static final int CHUNK_BITS = 16;
+    private static final int CHUNK_SIZE = 1 << CHUNK_BITS; // records per chunk
+    private static final int CHUNK_MASK = CHUNK_SIZE - 1;
+    private static final int NONE = -1;
+    // Chain heads are written with release and read with acquire, so a reader that sees a head
+    // also sees the chain columns of that record
+    private static final VarHandle HEADS = MethodHandles.arrayElementVarHandle(int[].class);
+
+    private volatile Chunk[] chunks = new Chunk[16];
+    private volatile int size;
+
+    // Slot dictionary: slotId -> code, and code -> slotId
+    private final Map<String, Integer> slotCodes = new ConcurrentHashMap<>();
+    private volatile String[] slotIds = new String[1024];
+    private volatile int[] slotHeads = newHeads(1024); // slot code -> newest record index
+
+    // Plate hash -> newest record index, open addressing with linear probing
+    private volatile PlateHeads plateHeads = new PlateHeads(1024);
+    private int distinctPlates;
+
+    @Override
+    public void onVehicleUnparked(ParkingTransaction transaction) {
+        append(transaction);
+    }
+
+    public synchronized void append(ParkingTransaction transaction) {
+        Vehicle vehicle = transaction.getVehicle();
+        append(vehicle.getEntryMillis(), transaction.getExitMillis(),
+                transaction.getFeeInCents(), vehicle.getType(), transaction.getSlot().getSlotId(),
+                vehicle.getLicensePlate(), transaction.getNumericTransactionId());
+    }
+
+    public synchronized void append(long entryMillis, long exitMillis, long feeCents, VehicleType vehicleType,
+                                    String slotId, String licensePlate, long transactionId) {
+        int index = size;
+        Chunk chunk = chunkForAppend(index);
+        int row = index & CHUNK_MASK;
+        chunk.entryMillis[row] = entryMillis;
+        chunk.exitMillis[row] = exitMillis;
+        chunk.feeCents[row] = feeCents;
+        chunk.transactionIds[row] = transactionId;
+        chunk.vehicleTypes[row] = (byte) vehicleType.ordinal();
+        int slotCode = slotCode(slotId);
+        long plateHash = plateHash(licensePlate);
+        chunk.slotCodes[row] = slotCode;
+        chunk.plateHashes[row] = plateHash;
+        chunk.appendPlate(row, licensePlate.getBytes(StandardCharsets.UTF_8));
+        linkSlot(slotCode, index, chunk, row);
+        linkPlate(plateHash, index, chunk, row);
+        chunk.minExitMillis = Math.min(chunk.minExitMillis, exitMillis);
+        chunk.maxExitMillis = Math.max(chunk.maxExitMillis, exitMillis);
+        size = index + 1; // publishes the row to readers
+    }
+
+    public int size() {
+        return size;
+    }
+
+    /**
+     * Indexes of records whose exit time is in [fromMillis, toMillis), oldest first.
+     * Chunks whose exit-time range misses the query are skipped without being scanned.
+     */
+    public int[] findByExitTime(long fromMillis, long toMillis) {
+        int count = size;
+        Chunk[] published = chunks;
+        IndexCollector result = new IndexCollector();
+        for (int c = 0; c * CHUNK_SIZE < count; c++) {
+            Chunk chunk = published[c];
+            if (chunk.maxExitMillis < fromMillis || chunk.minExitMillis >= toMillis) {
+                continue;
+            }
+            int rows = Math.min(CHUNK_SIZE, count - c * CHUNK_SIZE);
+            long[] exits = chunk.exitMillis;
+            for (int row = 0; row < rows; row++) {
+                if (exits[row] >= fromMillis && exits[row] < toMillis) {
+                    result.add((c << CHUNK_BITS) | row);
+                }
+            }
+        }
+        return result.toArray();
+    }
+
+    /**
+     * Indexes of the plate's records, oldest first. Walks the plate's chain only.
+     */
+    public int[] findByLicensePlate(String licensePlate) {
+        int count = size;
+        long hash = plateHash(licensePlate);
+        byte[] plate = licensePlate.getBytes(StandardCharsets.UTF_8);
+        IndexCollector result = new IndexCollector();
+        for (int index = plateHeads.head(hash); index != NONE; ) {
+            Chunk chunk = chunks[index >>> CHUNK_BITS];
+            int row = index & CHUNK_MASK;
+            // Newer records than the size read above may already be linked; they are skipped
+            if (index < count && chunk.plateHashes[row] == hash && chunk.plateEquals(row, plate)) {
+                result.add(index);
+            }
+            index = chunk.previousByPlate[row];
+        }
+        return result.toArrayReversed();
+    }
+
+    /**
+     * Indexes of the slot's records, oldest first. Walks the slot's chain only.
+     */
+    public int[] findBySlotId(String slotId) {
+        int count = size;
+        Integer slotCode = slotCodes.get(slotId);
+        IndexCollector result = new IndexCollector();
+        if (slotCode == null) {
+            return result.toArray();
+        }
+        int[] heads = slotHeads;
+        int code = slotCode;
+        int index = code < heads.length ? (int) HEADS.getAcquire(heads, code) : NONE;
+        while (index != NONE) {
+            Chunk chunk = chunks[index >>> CHUNK_BITS];
+            int row = index & CHUNK_MASK;
+            if (index < count) {
+                result.add(index);
+            }
+            index = chunk.previousBySlot[row];
+        }
+        return result.toArrayReversed();
+    }
+
+    // Column accessors by record index
+    public long getEntryMillis(int index) {
+        return chunks[index >>> CHUNK_BITS].entryMillis[index & CHUNK_MASK];
+    }
+
+    public long getExitMillis(int index) {
+        return chunks[index >>> CHUNK_BITS].exitMillis[index & CHUNK_MASK];
+    }
+
+    public long getFeeCents(int index) {
+        return chunks[index >>> CHUNK_BITS].feeCents[index & CHUNK_MASK];
+    }
+
+    public long getTransactionId(int index) {
+        return chunks[index >>> CHUNK_BITS].transactionIds[index & CHUNK_MASK];
+    }
+
+    public VehicleType getVehicleType(int index) {
+        return VehicleType.values()[chunks[index >>> CHUNK_BITS].vehicleTypes[index & CHUNK_MASK]];
+    }
+
+    public String getSlotId(int index) {
+        return slotIds[chunks[index >>> CHUNK_BITS].slotCodes[index & CHUNK_MASK]];
+    }
+
+    public String getLicensePlate(int index) {
+        return chunks[index >>> CHUNK_BITS].plate(index & CHUNK_MASK);
+    }
+
+    /**
+     * Rough heap footprint of the stored records, for capacity planning.
+     */
+    public long estimatedBytes() {
+        long bytes = 0;
+        for (Chunk chunk : chunks) {
+            if (chunk != null) {
+                bytes += chunk.estimatedBytes();
+            }
+        }
+        return bytes + (long) slotHeads.length * Integer.BYTES + plateHeads.estimatedBytes();
+    }
+
+    // Writer only
+    private Chunk chunkForAppend(int index) {
+        int c = index >>> CHUNK_BITS;
+        Chunk[] current = chunks;
+        if (c == current.length) {
+            current = Arrays.copyOf(current, current.length * 2);
+            chunks = current;
+        }
+        if (current[c] == null) {
+            current[c] = new Chunk();
+        }
+        return current[c];
+    }
+
+    // Writer only
+    private int slotCode(String slotId) {
+        Integer code = slotCodes.get(slotId);
+        if (code != null) {
+            return code;
+        }
+        int newCode = slotCodes.size();
+        String[] ids = slotIds;
+        if (newCode == ids.length) {
+            ids = Arrays.copyOf(ids, ids.length * 2);
+        }
+        ids[newCode] = slotId;
+        slotIds = ids;
+        int[] heads = slotHeads;
+        if (newCode == heads.length) {
+            int[] grown = newHeads(heads.length * 2);
+            System.arraycopy(heads, 0, grown, 0, heads.length);
+            slotHeads = grown;
+        }
+        slotCodes.put(slotId, newCode); // after the id is readable by code
+        return newCode;
+    }
+
+    // Writer only; the record's chain column is set before it becomes the slot's head
+    private void linkSlot(int slotCode, int index, Chunk chunk, int row) {
+        int[] heads = slotHeads;
+        chunk.previousBySlot[row] = heads[slotCode];
+        HEADS.setRelease(heads, slotCode, index);
+    }
+
+    // Writer only
+    private void linkPlate(long plateHash, int index, Chunk chunk, int row) {
+        PlateHeads table = plateHeads;
+        int at = table.find(plateHash);
+        if (table.heads[at] == NONE) {
+            if (2 * (distinctPlates + 1) > table.capacity()) {
+                table = table.grow();
+                plateHeads = table;
+                at = table.find(plateHash);
+            }
+            distinctPlates++;
+            table.keys[at] = plateHash;
+        }
+        chunk.previousByPlate[row] = table.heads[at];
+        HEADS.setRelease(table.heads, at, index);
+    }
+
+    private static int[] newHeads(int length) {
+        int[] heads = new int[length];
+        Arrays.fill(heads, NONE);
+        return heads;
+    }
+
+    // 64-bit FNV-1a over the plate's characters
+    static long plateHash(String licensePlate) {
+        long hash = 0xcbf29ce484222325L;
+        for (int i = 0; i < licensePlate.length(); i++) {
+            hash ^= licensePlate.charAt(i);
+            hash *= 0x100000001b3L;
+        }
+        return hash;
+    }
+
+    private static class Chunk {
+        final long[] entryMillis = new long[CHUNK_SIZE];
+        final long[] exitMillis = new long[CHUNK_SIZE];
+        final long[] feeCents = new long[CHUNK_SIZE];
+        final long[] transactionIds = new long[CHUNK_SIZE];
+        final long[] plateHashes = new long[CHUNK_SIZE];
+        final int[] slotCodes = new int[CHUNK_SIZE];
+        final int[] previousByPlate = new int[CHUNK_SIZE]; // previous record with this plate hash, or NONE
+        final int[] previousBySlot = new int[CHUNK_SIZE];  // previous record in this slot, or NONE
+        final byte[] vehicleTypes = new byte[CHUNK_SIZE];
+        final int[] plateEnds = new int[CHUNK_SIZE]; // plate bytes of row r are [end(r-1), end(r))
+        volatile byte[] plateBytes = new byte[CHUNK_SIZE * 8];
+        long minExitMillis = Long.MAX_VALUE;
+        long maxExitMillis = Long.MIN_VALUE;
+
+        void appendPlate(int row, byte[] plate) {
+            int start = row == 0 ? 0 : plateEnds[row - 1];
+            byte[] bytes = plateBytes;
+            if (start + plate.length > bytes.length) {
+                bytes = Arrays.copyOf(bytes, Math.max(bytes.length * 2, start + plate.length));
+            }
+            System.arraycopy(plate, 0, bytes, start, plate.length);
+            plateBytes = bytes;
+            plateEnds[row] = start + plate.length;
+        }
+
+        boolean plateEquals(int row, byte[] plate) {
+            int start = row == 0 ? 0 : plateEnds[row - 1];
+            return Arrays.equals(plateBytes, start, plateEnds[row], plate, 0, plate.length);
+        }
+
+        String plate(int row) {
+            int start = row == 0 ? 0 : plateEnds[row - 1];
+            return new String(plateBytes, start, plateEnds[row] - start, StandardCharsets.UTF_8);
+        }
+
+        long estimatedBytes() {
+            return CHUNK_SIZE * (5L * Long.BYTES + 4L * Integer.BYTES + 1) + plateBytes.length;
+        }
+    }
+
+    /**
+     * Plate hash -> newest record index. A slot is taken once its head is set (released after
+     * the key), and keys never move except into a new table, so readers probe without locking.
+     */
+    private static class PlateHeads {
+        final long[] keys;
+        final int[] heads;
+        final int mask;
+
+        PlateHeads(int capacity) {
+            this.keys = new long[capacity];
+            this.heads = newHeads(capacity);
+            this.mask = capacity - 1;
+        }
+
+        int capacity() {
+            return keys.length;
+        }
+
+        // Position of the hash, or of the empty slot where it would go
+        int find(long hash) {
+            int at = (int) (hash ^ (hash >>> 32)) & mask;
+            while ((int) HEADS.getAcquire(heads, at) != NONE && keys[at] != hash) {
+                at = (at + 1) & mask;
+            }
+            return at;
+        }
+
+        int head(long hash) {
+            return (int) HEADS.getAcquire(heads, find(hash));
+        }
+
+        PlateHeads grow() {
+            PlateHeads grown = new PlateHeads(keys.length * 2);
+            for (int i = 0; i < keys.length; i++) {
+                if (heads[i] != NONE) {
+                    int at = grown.find(keys[i]);
+                    grown.keys[at] = keys[i];
+                    grown.heads[at] = heads[i];
+                }
+            }
+            return grown;
+        }
+
+        long estimatedBytes() {
+            return (long) keys.length * (Long.BYTES + Integer.BYTES);
+        }
+    }
+
+    // Growable int array for query results
+    private static class IndexCollector {
+        private int[] indexes = new int[16];
+        private int count;
+
+        void add(int index) {
+            if (count == indexes.length) {
+                indexes = Arrays.copyOf(indexes, count * 2);
+            }
+            indexes[count++] = index;
+        }
+
+        int[] toArray() {
+            return Arrays.copyOf(indexes, count);
+        }
+
+        // For chains, which are collected newest first
+        int[] toArrayReversed() {
+            int[] result = new int[count];
+            for (int i = 0; i < count; i++) {
+                result[i] = indexes[count - 1 - i];
+            }
+            return result;
+        }
+    }
+}
@@ -0,0 +1,140 @@
+package parking.metrics;
+
+import parking.domain.ParkingBatchResult;
+
+import java.util.EnumMap;
+import java.util.Map;
+import java.util.concurrent.atomic.LongAdder;
+
+/**
+ * Latency, outcome and in-flight instrumentation for ParkingController.
+ *
+ * Each API has a {@link LatencyHistogram}, a success counter, failure counters by
+ * {@link ErrorCause} and an in-flight gauge. All of them are striped or atomic, so recording never
+ * takes a lock and {@link #snapshot()} can be polled while traffic is flowing.
+ *
+ * When disabled, {@link #start(ParkingApi)} and the record methods return after reading one
+ * volatile flag, without calling {@code System.nanoTime()} or touching any counter.
+ * Metrics can be switched on and off at runtime.
+ */
+public class ControllerMetrics {
+    private static final ErrorCause[] CAUSES = ErrorCause.values();
+
+    private final ApiMetrics[] apis = new ApiMetrics[ParkingApi.values().length];
+    private volatile boolean enabled;
+
+    public ControllerMetrics(boolean enabled) {
+        this.enabled = enabled;
+        for (int i = 0; i < apis.length; i++) {
+            apis[i] = new ApiMetrics();
+        }
+    }
+
+    public boolean isEnabled() {
+        return enabled;
+    }
+
+    public void setEnabled(boolean enabled) {
+        this.enabled = enabled;
+    }
+
+    /**
+     * Marks a call as in flight.
+     *
+     * @return the start timestamp to pass to the matching record call (0 when disabled)
+     */
+    public long start(ParkingApi api) {
+        if (!enabled) {
+            return 0;
+        }
+        apis[api.ordinal()].inFlight.increment();
+        return System.nanoTime();
+    }
+
+    public void recordSuccess(ParkingApi api, long startNanos) {
+        if (startNanos == 0) {
+            return; // started while disabled
+        }
+        ApiMetrics metrics = finish(api, startNanos);
+        metrics.successes.increment();
+    }
+
+    public void recordFailure(ParkingApi api, long startNanos, Exception exception) {
+        if (startNanos == 0) {
+            return;
+        }
+        ApiMetrics metrics = finish(api, startNanos);
+        metrics.failures[ErrorCause.of(exception).ordinal()].increment();
+    }
+
+    /**
+     * Counts the failed items of a batch call by cause; the call itself is recorded separately.
+     */
+    public void recordBatchItems(ParkingApi api, ParkingBatchResult result) {
+        if (!enabled || result == null) {
+            return;
+        }
+        ApiMetrics metrics = apis[api.ordinal()];
+        metrics.batchItems.add(result.size());
+        for (int i = 0; i < result.size(); i++) {
+            if (!result.isSuccess(i)) {
+                metrics.batchItemFailures[ErrorCause.of(result.getFailure(i)).ordinal()].increment();
+            }
+        }
+    }
+
+    public ControllerMetricsSnapshot snapshot() {
+        Map<ParkingApi, ControllerMetricsSnapshot.ApiSnapshot> snapshots = new EnumMap<>(ParkingApi.class);
+        for (ParkingApi api : ParkingApi.values()) {
+            ApiMetrics metrics = apis[api.ordinal()];
+            snapshots.put(api, new ControllerMetricsSnapshot.ApiSnapshot(metrics.successes.sum(),
+                    sums(metrics.failures), metrics.inFlight.sum(), metrics.batchItems.sum(),
+                    sums(metrics.batchItemFailures), metrics.latency));
+        }
+        return new ControllerMetricsSnapshot(snapshots);
+    }
+
+    public void reset() {
+        for (ApiMetrics metrics : apis) {
+            metrics.latency.reset();
+            metrics.successes.reset();
+            metrics.batchItems.reset();
+            for (int i = 0; i < CAUSES.length; i++) {
+                metrics.failures[i].reset();
+                metrics.batchItemFailures[i].reset();
+            }
+        }
+    }
+
+    private ApiMetrics finish(ParkingApi api, long startNanos) {
+        ApiMetrics metrics = apis[api.ordinal()];
+        metrics.latency.recordNanos(System.nanoTime() - startNanos);
+        metrics.inFlight.decrement();
+        return metrics;
+    }
+
+    private static long[] sums(LongAdder[] adders) {
+        long[] values = new long[adders.length];
+        for (int i = 0; i < adders.length; i++) {
+            values[i] = adders[i].sum();
+        }
+        return values;
+    }
+
+    private static class ApiMetrics {
+        final LatencyHistogram latency = new LatencyHistogram();
+        final LongAdder successes = new LongAdder();
+        final LongAdder[] failures = newAdders();
+        final LongAdder inFlight = new LongAdder();
+        final LongAdder batchItems = new LongAdder();
+        final LongAdder[] batchItemFailures = newAdders();
+
+        private static LongAdder[] newAdders() {
+            LongAdder[] adders = new LongAdder[CAUSES.length];
+            for (int i = 0; i < adders.length; i++) {
+                adders[i] = new LongAdder();
+            }
+            return adders;
+        }
+    }
+}
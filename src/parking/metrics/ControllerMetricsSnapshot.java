@@ -0,0 +1,142 @@
+package parking.metrics;
+
+import java.util.EnumMap;
+import java.util.Map;
+
+/**
+ * Point-in-time view of {@link ControllerMetrics}. Counters are copied when the snapshot is
+ * taken; latency percentiles are computed from the histogram at that moment.
+ */
+public class ControllerMetricsSnapshot {
+    private final Map<ParkingApi, ApiSnapshot> apis;
+
+    ControllerMetricsSnapshot(Map<ParkingApi, ApiSnapshot> apis) {
+        this.apis = apis;
+    }
+
+    public ApiSnapshot get(ParkingApi api) {
+        return apis.get(api);
+    }
+
+    @Override
+    public String toString() {
+        StringBuilder sb = new StringBuilder();
+        sb.append("Controller Metrics:\n");
+        for (Map.Entry<ParkingApi, ApiSnapshot> entry : apis.entrySet()) {
+            ApiSnapshot api = entry.getValue();
+            if (api.getCalls() == 0 && api.getInFlight() == 0) {
+                continue;
+            }
+            sb.append(String.format("%-22s %s%n", entry.getKey(), api));
+        }
+        return sb.toString();
+    }
+
+    public static class ApiSnapshot {
+        private final long successes;
+        private final long[] failures;
+        private final long inFlight;
+        private final long batchItems;
+        private final long[] batchItemFailures;
+        private final long p50Nanos;
+        private final long p90Nanos;
+        private final long p99Nanos;
+        private final long p999Nanos;
+        private final long maxNanos;
+        private final double meanNanos;
+
+        ApiSnapshot(long successes, long[] failures, long inFlight, long batchItems, long[] batchItemFailures,
+                    LatencyHistogram latency) {
+            this.successes = successes;
+            this.failures = failures;
+            this.inFlight = inFlight;
+            this.batchItems = batchItems;
+            this.batchItemFailures = batchItemFailures;
+            this.p50Nanos = latency.getPercentileNanos(50);
+            this.p90Nanos = latency.getPercentileNanos(90);
+            this.p99Nanos = latency.getPercentileNanos(99);
+            this.p999Nanos = latency.getPercentileNanos(99.9);
+            this.maxNanos = latency.getMaxNanos();
+            this.meanNanos = latency.getMeanNanos();
+        }
+
+        // Getters
+        public long getCalls() {
+            return successes + getFailures();
+        }
+
+        public long getSuccesses() {
+            return successes;
+        }
+
+        public long getFailures() {
+            long total = 0;
+            for (long count : failures) {
+                total += count;
+            }
+            return total;
+        }
+
+        public long getFailures(ErrorCause cause) {
+            return failures[cause.ordinal()];
+        }
+
+        public Map<ErrorCause, Long> getFailuresByCause() {
+            return toMap(failures);
+        }
+
+        public long getInFlight() {
+            return inFlight;
+        }
+
+        public long getBatchItems() {
+            return batchItems;
+        }
+
+        public Map<ErrorCause, Long> getBatchItemFailuresByCause() {
+            return toMap(batchItemFailures);
+        }
+
+        public long getP50Nanos() {
+            return p50Nanos;
+        }
+
+        public long getP90Nanos() {
+            return p90Nanos;
+        }
+
+        public long getP99Nanos() {
+            return p99Nanos;
+        }
+
+        public long getP999Nanos() {
+            return p999Nanos;
+        }
+
+        public long getMaxNanos() {
+            return maxNanos;
+        }
+
+        public double getMeanNanos() {
+            return meanNanos;
+        }
+
+        private static Map<ErrorCause, Long> toMap(long[] counts) {
+            Map<ErrorCause, Long> byCause = new EnumMap<>(ErrorCause.class);
+            for (ErrorCause cause : ErrorCause.values()) {
+                if (counts[cause.ordinal()] > 0) {
+                    byCause.put(cause, counts[cause.ordinal()]);
+                }
+            }
+            return byCause;
+        }
+
+        @Override
+        public String toString() {
+            String text = String.format("calls=%d ok=%d failed=%s inFlight=%d p50=%dns p99=%dns p999=%dns max=%dns",
+                    getCalls(), successes, getFailuresByCause(), inFlight, p50Nanos, p99Nanos, p999Nanos, maxNanos);
+            return batchItems == 0 ? text
+                    : text + " items=" + batchItems + " itemFailures=" + getBatchItemFailuresByCause();
+        }
+    }
+}
@@ -0,0 +1,50 @@
+package parking.metrics;
+
+import parking.domain.ParkingFailure;
+import parking.domain.ParkingStateException;
+
+/**
+ * Why a controller call (or one item of a batch) failed.
+ *
+ * Read from the {@link ParkingFailure} the domain attaches to its refusals
+ * ({@link ParkingStateException}, failed batch items); invalid arguments count as
+ * INVALID_REQUEST and anything else as OTHER. Messages are never inspected.
+ */
+public enum ErrorCause {
+    LOT_FULL,
+    ALREADY_PARKED,
+    NOT_PARKED,
+    ALREADY_RESERVED,
+    NOT_RESERVED,
+    SLOT_UNAVAILABLE,
+    INVALID_REQUEST,
+    OTHER;
+
+    public static ErrorCause of(Exception exception) {
+        return of(ParkingStateException.failureOf(exception));
+    }
+
+    public static ErrorCause of(ParkingFailure failure) {
+        if (failure == null) {
+            return OTHER;
+        }
+        switch (failure) {
+            case LOT_FULL:
+                return LOT_FULL;
+            case ALREADY_PARKED:
+                return ALREADY_PARKED;
+            case NOT_PARKED:
+                return NOT_PARKED;
+            case ALREADY_RESERVED:
+                return ALREADY_RESERVED;
+            case NOT_RESERVED:
+                return NOT_RESERVED;
+            case SLOT_UNAVAILABLE:
+                return SLOT_UNAVAILABLE;
+            case INVALID_REQUEST:
+                return INVALID_REQUEST;
+            default:
+                return OTHER;
+        }
+    }
+}
@@ -0,0 +1,100 @@
+package parking.metrics;
+
+import java.util.concurrent.atomic.AtomicLongArray;
+import java.util.concurrent.atomic.LongAccumulator;
+import java.util.concurrent.atomic.LongAdder;
+
+/**
+ * Lock-free latency histogram with log-linear buckets.
+ *
+ * Each power of two is split into 32 linear sub-buckets, so a recorded value is reported within
+ * about 3% of its true value over the whole range of a long, in a fixed 15 KB table. Recording is
+ * a single atomic increment and never allocates, so it can sit on a hot path and be shared by
+ * any number of threads; percentiles are read from the live counts.
+ */
+public class LatencyHistogram {
+    private static final int SUB_BUCKET_BITS = 5;
+    private static final int SUB_BUCKETS = 1 << SUB_BUCKET_BITS;
+    private static final int BUCKET_COUNT = (64 - SUB_BUCKET_BITS) * SUB_BUCKETS;
+
+    private final AtomicLongArray counts = new AtomicLongArray(BUCKET_COUNT);
+    private final LongAdder totalCount = new LongAdder();
+    private final LongAdder totalNanos = new LongAdder();
+    private final LongAccumulator maxNanos = new LongAccumulator(Math::max, 0);
+
+    public void recordNanos(long nanos) {
+        long value = Math.max(0, nanos);
+        counts.incrementAndGet(bucketOf(value));
+        totalCount.increment();
+        totalNanos.add(value);
+        maxNanos.accumulate(value);
+    }
+
+    public long getCount() {
+        return totalCount.sum();
+    }
+
+    public long getMaxNanos() {
+        return maxNanos.get();
+    }
+
+    public double getMeanNanos() {
+        long count = totalCount.sum();
+        return count == 0 ? 0 : (double) totalNanos.sum() / count;
+    }
+
+    /**
+     * The smallest recorded value such that {@code percentile}% of recordings are at or below it,
+     * to bucket precision.
+     *
+     * @param percentile 0 to 100, e.g. 99.9
+     */
+    public long getPercentileNanos(double percentile) {
+        long[] snapshot = new long[BUCKET_COUNT];
+        long count = 0;
+        for (int i = 0; i < BUCKET_COUNT; i++) {
+            snapshot[i] = counts.get(i);
+            count += snapshot[i];
+        }
+        if (count == 0) {
+            return 0;
+        }
+        long rank = Math.max(1, (long) Math.ceil(count * percentile / 100.0));
+        long seen = 0;
+        for (int i = 0; i < BUCKET_COUNT; i++) {
+            seen += snapshot[i];
+            if (seen >= rank) {
+                return Math.min(highestValueIn(i), getMaxNanos());
+            }
+        }
+        return getMaxNanos();
+    }
+
+    public void reset() {
+        for (int i = 0; i < BUCKET_COUNT; i++) {
+            counts.set(i, 0);
+        }
+        totalCount.reset();
+        totalNanos.reset();
+        maxNanos.reset();
+    }
+
+    // Values below 2 * SUB_BUCKETS map to themselves; above that, exponent then top SUB_BUCKET_BITS + 1 bits
+    static int bucketOf(long value) {
+        int exponent = Math.max(0, 63 - Long.numberOfLeadingZeros(value) - SUB_BUCKET_BITS);
+        return exponent * SUB_BUCKETS + (int) (value >>> exponent);
+    }
+
+    static long highestValueIn(int bucket) {
+        int exponent = bucket < 2 * SUB_BUCKETS ? 0 : bucket / SUB_BUCKETS - 1;
+        long subBucket = bucket - (long) exponent * SUB_BUCKETS;
+        return ((subBucket + 1) << exponent) - 1;
+    }
+
+    @Override
+    public String toString() {
+        return String.format("count=%d, mean=%.0fns, p50=%dns, p99=%dns, p99.9=%dns, max=%dns",
+                getCount(), getMeanNanos(), getPercentileNanos(50), getPercentileNanos(99),
+                getPercentileNanos(99.9), getMaxNanos());
+    }
+}
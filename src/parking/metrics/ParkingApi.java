@@ -0,0 +1,17 @@
+package parking.metrics;
+
+/**
+ * The ParkingController operations that are instrumented.
+ */
+public enum ParkingApi {
+    PARK_VEHICLE,
+    UNPARK_VEHICLE,
+    GET_VEHICLE_INFO,
+    PARK_VEHICLES,
+    UNPARK_VEHICLES,
+    GET_PARKING_LOT_STATUS,
+    RESERVE_SLOT,
+    CANCEL_RESERVATION,
+    SUBSCRIBE_OCCUPANCY,
+    UNSUBSCRIBE_OCCUPANCY
+}
@@ -0,0 +1,162 @@
+package parking.occupancy;
+
+import parking.domain.VehicleType;
+
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+
+/**
+ * The (floor, slot type) counts that changed since the previous delta a subscriber received.
+ * Counts that moved and came back within the interval are not reported. The first delta of a
+ * subscription carries every count it covers, with no previous value, as the baseline.
+ */
+public class OccupancyDelta {
+    private final long timestampMillis;
+    private final List<Change> changes;
+    private final int merged; // deltas folded into this one because the subscriber fell behind
+
+    OccupancyDelta(long timestampMillis, List<Change> changes) {
+        this(timestampMillis, changes, 1);
+    }
+
+    private OccupancyDelta(long timestampMillis, List<Change> changes, int merged) {
+        this.timestampMillis = timestampMillis;
+        this.changes = Collections.unmodifiableList(changes);
+        this.merged = merged;
+    }
+
+    /**
+     * This delta followed by {@code next}, as one: each count goes from its value before this
+     * delta to its value after {@code next}.
+     */
+    OccupancyDelta conflate(OccupancyDelta next) {
+        Map<Long, Change> byKey = new LinkedHashMap<>();
+        for (Change change : changes) {
+            byKey.put(change.key(), change);
+        }
+        for (Change change : next.changes) {
+            Change earlier = byKey.get(change.key());
+            byKey.put(change.key(), earlier == null ? change : earlier.followedBy(change));
+        }
+        List<Change> combined = new ArrayList<>(byKey.size());
+        for (Change change : byKey.values()) {
+            if (!change.isNoOp()) {
+                combined.add(change);
+            }
+        }
+        return new OccupancyDelta(next.timestampMillis, combined, merged + next.merged);
+    }
+
+    // Getters
+    public long getTimestampMillis() {
+        return timestampMillis;
+    }
+
+    public List<Change> getChanges() {
+        return changes;
+    }
+
+    public boolean isEmpty() {
+        return changes.isEmpty();
+    }
+
+    public int getMergedDeltas() {
+        return merged;
+    }
+
+    @Override
+    public String toString() {
+        return "OccupancyDelta{" +
+                "timestampMillis=" + timestampMillis +
+                ", changes=" + changes +
+                ", merged=" + merged +
+                '}';
+    }
+
+    /**
+     * Old and new counts of one slot type on one floor.
+     */
+    public static class Change {
+        private final int floorNumber;
+        private final VehicleType slotType;
+        private final int previousAvailable;   // previous counts are -1 in a baseline
+        private final int previousOccupied;
+        private final int previousReserved;
+        private final int available;
+        private final int occupied;
+        private final int reserved;
+
+        Change(int floorNumber, VehicleType slotType, int previousAvailable, int previousOccupied, int previousReserved,
+               int available, int occupied, int reserved) {
+            this.floorNumber = floorNumber;
+            this.slotType = slotType;
+            this.previousAvailable = previousAvailable;
+            this.previousOccupied = previousOccupied;
+            this.previousReserved = previousReserved;
+            this.available = available;
+            this.occupied = occupied;
+            this.reserved = reserved;
+        }
+
+        long key() {
+            return (long) floorNumber * VehicleType.values().length + slotType.ordinal();
+        }
+
+        Change followedBy(Change next) {
+            return new Change(floorNumber, slotType, previousAvailable, previousOccupied, previousReserved,
+                    next.available, next.occupied, next.reserved);
+        }
+
+        // Only a conflated change can end where it started; a baseline is never a no-op
+        boolean isNoOp() {
+            return previousAvailable == available && previousOccupied == occupied && previousReserved == reserved;
+        }
+
+        // Getters
+        public int getFloorNumber() {
+            return floorNumber;
+        }
+
+        public VehicleType getSlotType() {
+            return slotType;
+        }
+
+        public boolean isBaseline() {
+            return previousAvailable < 0;
+        }
+
+        public int getPreviousAvailable() {
+            return previousAvailable;
+        }
+
+        public int getPreviousOccupied() {
+            return previousOccupied;
+        }
+
+        public int getPreviousReserved() {
+            return previousReserved;
+        }
+
+        public int getAvailable() {
+            return available;
+        }
+
+        public int getOccupied() {
+            return occupied;
+        }
+
+        public int getReserved() {
+            return reserved;
+        }
+
+        @Override
+        public String toString() {
+            return "floor " + floorNumber + " " + slotType.getDisplayName() + ": available "
+                    + (isBaseline() ? "" : previousAvailable + " -> ") + available
+                    + ", occupied " + occupied + ", reserved " + reserved;
+        }
+    }
+}
@@ -0,0 +1,178 @@
+package parking.occupancy;
+
+import parking.domain.ListenerErrorHandler;
+import parking.domain.ParkingClock;
+import parking.domain.ParkingFloor;
+import parking.domain.ParkingLot;
+import parking.domain.VehicleType;
+import parking.util.VirtualThreads;
+
+import java.time.Duration;
+import java.util.List;
+import java.util.Map;
+import java.util.Set;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicLong;
+import java.util.concurrent.locks.LockSupport;
+
+/**
+ * Pushes occupancy changes to subscribers (e.g. display boards) instead of having each of them
+ * poll {@code getParkingLotStatus()} for a full snapshot.
+ *
+ * A single publisher thread wakes when the next subscription is due, reads the floors'
+ * per-type counters once for every subscription due at that moment (O(floors x vehicle
+ * types), no slot scan) and sends each one only the counts that differ from what it was last
+ * sent. Nothing is added to the gate path: parks and unparks already maintain the counters.
+ * Changes within one interval are coalesced, so a subscriber gets at most one delta per
+ * interval, and nothing at all while its counts stay the same. Deltas reach listeners through
+ * one delivery executor shared by all subscriptions (virtual threads where available), so
+ * idle subscribers cost no thread. Listener exceptions are counted per subscription and
+ * passed to the feed's {@link ListenerErrorHandler}.
+ */
+public class OccupancyFeed implements AutoCloseable {
+    public static final int DEFAULT_BUFFER_CAPACITY = 16;
+    private static final int COUNTS_PER_TYPE = 3;
+    private static final long IDLE_PARK_NANOS = TimeUnit.SECONDS.toNanos(1);
+
+    private final ParkingLot parkingLot;
+    private final int bufferCapacity;
+    private final ListenerErrorHandler<OccupancySubscription> errorHandler;
+    private final Map<Long, OccupancySubscription> subscriptions = new ConcurrentHashMap<>();
+    private final AtomicLong nextSubscriptionId = new AtomicLong(1);
+    private final Thread publisher;
+    private final ExecutorService deliveryExecutor = VirtualThreads.newThreadPerTaskExecutor("occupancy-delivery");
+    private volatile boolean closed;
+
+    public OccupancyFeed(ParkingLot parkingLot) {
+        this(parkingLot, DEFAULT_BUFFER_CAPACITY);
+    }
+
+    /**
+     * @param bufferCapacity deltas each subscriber may have pending before new ones are conflated
+     */
+    public OccupancyFeed(ParkingLot parkingLot, int bufferCapacity) {
+        this(parkingLot, bufferCapacity, ListenerErrorHandler.ignore());
+    }
+
+    public OccupancyFeed(ParkingLot parkingLot, int bufferCapacity,
+                         ListenerErrorHandler<OccupancySubscription> errorHandler) {
+        if (bufferCapacity <= 0) {
+            throw new IllegalArgumentException("Buffer capacity must be positive");
+        }
+        if (errorHandler == null) {
+            throw new IllegalArgumentException("Error handler cannot be null");
+        }
+        this.parkingLot = parkingLot;
+        this.bufferCapacity = bufferCapacity;
+        this.errorHandler = errorHandler;
+        this.publisher = new Thread(this::publishLoop, "occupancy-feed");
+        this.publisher.setDaemon(true);
+        this.publisher.start();
+    }
+
+    /**
+     * Registers a listener for the given floors and slot types (null or empty for all). Its
+     * first delta is the baseline of every count it covers; after that it receives the counts
+     * that changed, at most once per {@code interval}.
+     */
+    public OccupancySubscription subscribe(Set<Integer> floorNumbers, Set<VehicleType> slotTypes,
+                                           Duration interval, OccupancyListener listener) {
+        if (closed) {
+            throw new IllegalStateException("Occupancy feed is closed");
+        }
+        if (interval == null || interval.isNegative() || interval.isZero()) {
+            throw new IllegalArgumentException("Interval cannot be null and must be positive");
+        }
+        if (listener == null) {
+            throw new IllegalArgumentException("Listener cannot be null");
+        }
+        long subscriptionId = nextSubscriptionId.getAndIncrement();
+        OccupancySubscription subscription = new OccupancySubscription(subscriptionId, this, floorNumbers,
+                slotTypes, interval, listener, bufferCapacity, errorHandler, deliveryExecutor, System.nanoTime());
+        subscriptions.put(subscriptionId, subscription);
+        LockSupport.unpark(publisher); // baseline right away
+        return subscription;
+    }
+
+    /**
+     * @return false if there is no such subscription
+     */
+    public boolean unsubscribe(long subscriptionId) {
+        OccupancySubscription subscription = subscriptions.remove(subscriptionId);
+        if (subscription == null) {
+            return false;
+        }
+        subscription.stop();
+        return true;
+    }
+
+    public int getSubscriptionCount() {
+        return subscriptions.size();
+    }
+
+    /**
+     * Stops the publisher and every subscription; pending deltas are still delivered.
+     */
+    @Override
+    public void close() {
+        closed = true;
+        LockSupport.unpark(publisher);
+        try {
+            publisher.join();
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+        }
+        for (Long subscriptionId : subscriptions.keySet()) {
+            unsubscribe(subscriptionId);
+        }
+        deliveryExecutor.shutdown();
+    }
+
+    private void publishLoop() {
+        while (!closed) {
+            long now = System.nanoTime();
+            long nextDue = now + IDLE_PARK_NANOS;
+            int[] floorNumbers = null;
+            int[][] counts = null;
+            long timestampMillis = 0;
+            for (OccupancySubscription subscription : subscriptions.values()) {
+                if (subscription.getNextDueNanos() - now <= 0) {
+                    if (counts == null) {
+                        parkingLot.expireReservations(); // so expired holds are not reported as reserved
+                        List<ParkingFloor> floors = parkingLot.getFloors();
+                        floorNumbers = new int[floors.size()];
+                        counts = new int[floors.size()][];
+                        for (int i = 0; i < floors.size(); i++) {
+                            floorNumbers[i] = floors.get(i).getFloorNumber();
+                            counts[i] = readCounts(floors.get(i));
+                        }
+                        timestampMillis = ParkingClock.getDefault().currentTimeMillis();
+                    }
+                    subscription.publish(floorNumbers, counts, timestampMillis, now);
+                }
+                if (subscription.getNextDueNanos() - nextDue < 0) {
+                    nextDue = subscription.getNextDueNanos();
+                }
+            }
+            long sleepNanos = nextDue - System.nanoTime();
+            if (sleepNanos > 0) {
+                LockSupport.parkNanos(this, sleepNanos);
+            }
+        }
+    }
+
+    // Available, occupied and reserved count of each slot type, from the floor's counters;
+    // available is derived from the other two as read, so the three always add up to the total
+    private static int[] readCounts(ParkingFloor floor) {
+        int[] counts = new int[VehicleType.values().length * COUNTS_PER_TYPE];
+        for (VehicleType slotType : VehicleType.values()) {
+            int at = slotType.ordinal() * COUNTS_PER_TYPE;
+            counts[at + 1] = floor.getOccupiedSlotsCount(slotType);
+            counts[at + 2] = floor.getReservedSlotsCount(slotType);
+            counts[at] = floor.getTotalSlots(slotType) - counts[at + 1] - counts[at + 2];
+        }
+        return counts;
+    }
+}
@@ -0,0 +1,11 @@
+package parking.occupancy;
+
+/**
+ * Receives the occupancy changes of an {@link OccupancySubscription}, on the subscription's
+ * own delivery thread, one delta at a time.
+ */
+@FunctionalInterface
+public interface OccupancyListener {
+
+    void onOccupancyChanged(OccupancyDelta delta);
+}
@@ -0,0 +1,245 @@
+package parking.occupancy;
+
+import parking.domain.ListenerErrorHandler;
+import parking.domain.VehicleType;
+
+import java.time.Duration;
+import java.util.ArrayDeque;
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.EnumSet;
+import java.util.HashMap;
+import java.util.HashSet;
+import java.util.List;
+import java.util.Map;
+import java.util.Set;
+import java.util.concurrent.Executor;
+
+/**
+ * One client's registration with an {@link OccupancyFeed}: the floors and slot types it
+ * watches, how often it may be sent a delta, and where deltas go.
+ *
+ * Deltas wait in a buffer of bounded size until a task on the feed's shared delivery executor
+ * hands them to the listener. At most one such task runs per subscription, so the listener gets
+ * its deltas one at a time and in order, and no thread is tied up while nothing is pending. A listener that cannot keep up never holds up the feed or the lot: once
+ * the buffer is full, each new delta is conflated into the newest pending one, so the client
+ * gets fewer, larger deltas that still add up to the same counts.
+ */
+public class OccupancySubscription implements AutoCloseable {
+    private static final int COUNTS_PER_TYPE = 3; // available, occupied, reserved
+
+    private final long subscriptionId;
+    private final OccupancyFeed feed;
+    private final Set<Integer> floorNumbers;   // empty = every floor
+    private final Set<VehicleType> slotTypes;
+    private final long intervalNanos;
+    private final OccupancyListener listener;
+    private final int bufferCapacity;
+    private final ListenerErrorHandler<OccupancySubscription> errorHandler;
+    private final ArrayDeque<OccupancyDelta> pending;
+    private final Executor deliveryExecutor;
+    private boolean draining;       // a delivery task is scheduled or running; guarded by pending
+    private Thread drainingThread;  // the thread running it, once started; guarded by pending
+    private final Map<Integer, int[]> lastSent = new HashMap<>(); // floor -> counts by type; feed thread only
+    private long nextDueNanos;                                    // feed thread only
+    private long conflatedDeltas;
+    private long deliveredDeltas;
+    private long failedDeltas;
+    private volatile boolean closed;
+
+    OccupancySubscription(long subscriptionId, OccupancyFeed feed, Set<Integer> floorNumbers,
+                          Set<VehicleType> slotTypes, Duration interval, OccupancyListener listener,
+                          int bufferCapacity, ListenerErrorHandler<OccupancySubscription> errorHandler,
+                          Executor deliveryExecutor, long firstDueNanos) {
+        this.subscriptionId = subscriptionId;
+        this.feed = feed;
+        this.floorNumbers = floorNumbers == null ? Collections.emptySet() : new HashSet<>(floorNumbers);
+        this.slotTypes = slotTypes == null || slotTypes.isEmpty()
+                ? EnumSet.allOf(VehicleType.class) : EnumSet.copyOf(slotTypes);
+        this.intervalNanos = interval.toNanos();
+        this.listener = listener;
+        this.bufferCapacity = bufferCapacity;
+        this.errorHandler = errorHandler;
+        this.pending = new ArrayDeque<>(bufferCapacity);
+        this.deliveryExecutor = deliveryExecutor;
+        this.nextDueNanos = firstDueNanos;
+    }
+
+    /**
+     * Stops deliveries and removes the subscription from its feed. Deltas already pending are
+     * still delivered.
+     */
+    @Override
+    public void close() {
+        feed.unsubscribe(subscriptionId);
+    }
+
+    // Called by the feed once the subscription is no longer published to; waits for pending
+    // deltas to be delivered, unless called from the listener itself
+    void stop() {
+        synchronized (pending) {
+            closed = true;
+            while (draining && drainingThread != Thread.currentThread()) {
+                try {
+                    pending.wait();
+                } catch (InterruptedException e) {
+                    Thread.currentThread().interrupt();
+                    return;
+                }
+            }
+        }
+    }
+
+    long getNextDueNanos() {
+        return nextDueNanos;
+    }
+
+    /**
+     * Feed thread: compares the counts read at {@code nowNanos} with what this subscriber was
+     * last sent, and queues the difference, if any. At most once per interval.
+     */
+    void publish(int[] floorNumbersRead, int[][] countsRead, long timestampMillis, long nowNanos) {
+        nextDueNanos = nowNanos + intervalNanos;
+        List<OccupancyDelta.Change> changes = new ArrayList<>();
+        for (int i = 0; i < floorNumbersRead.length; i++) {
+            int floorNumber = floorNumbersRead[i];
+            if (!floorNumbers.isEmpty() && !floorNumbers.contains(floorNumber)) {
+                continue;
+            }
+            int[] counts = countsRead[i];
+            int[] sent = lastSent.get(floorNumber);
+            for (VehicleType slotType : slotTypes) {
+                int at = slotType.ordinal() * COUNTS_PER_TYPE;
+                if (sent == null) {
+                    if (counts[at] + counts[at + 1] + counts[at + 2] == 0) {
+                        continue; // the floor has no slots of this type
+                    }
+                    changes.add(new OccupancyDelta.Change(floorNumber, slotType, -1, -1, -1,
+                            counts[at], counts[at + 1], counts[at + 2]));
+                } else if (sent[at] != counts[at] || sent[at + 1] != counts[at + 1] || sent[at + 2] != counts[at + 2]) {
+                    changes.add(new OccupancyDelta.Change(floorNumber, slotType, sent[at], sent[at + 1], sent[at + 2],
+                            counts[at], counts[at + 1], counts[at + 2]));
+                }
+            }
+            lastSent.put(floorNumber, counts);
+        }
+        if (!changes.isEmpty()) {
+            offer(new OccupancyDelta(timestampMillis, changes));
+        }
+    }
+
+    private void offer(OccupancyDelta delta) {
+        synchronized (pending) {
+            if (closed) {
+                return;
+            }
+            if (pending.size() < bufferCapacity) {
+                pending.addLast(delta);
+            } else {
+                OccupancyDelta conflated = pending.pollLast().conflate(delta);
+                conflatedDeltas++;
+                if (!conflated.isEmpty()) {
+                    pending.addLast(conflated);
+                }
+            }
+            if (!draining && !pending.isEmpty()) {
+                draining = true;
+                deliveryExecutor.execute(this::deliverPending);
+            }
+        }
+    }
+
+    // Delivery task: hands over pending deltas until there are none left
+    private void deliverPending() {
+        synchronized (pending) {
+            drainingThread = Thread.currentThread();
+        }
+        while (true) {
+            OccupancyDelta delta;
+            synchronized (pending) {
+                delta = pending.pollFirst();
+                if (delta == null) {
+                    draining = false;
+                    drainingThread = null;
+                    pending.notifyAll(); // wakes stop()
+                    return;
+                }
+            }
+            boolean failed = false;
+            try {
+                listener.onOccupancyChanged(delta);
+            } catch (RuntimeException e) {
+                failed = true;
+                try {
+                    errorHandler.onListenerError(this, e);
+                } catch (RuntimeException ignored) {
+                    // delivery goes on whatever the handler does
+                }
+            }
+            synchronized (pending) {
+                if (failed) {
+                    failedDeltas++;
+                } else {
+                    deliveredDeltas++;
+                }
+            }
+        }
+    }
+
+    // Getters
+    public long getSubscriptionId() {
+        return subscriptionId;
+    }
+
+    public Set<Integer> getFloorNumbers() {
+        return Collections.unmodifiableSet(floorNumbers);
+    }
+
+    public Set<VehicleType> getSlotTypes() {
+        return Collections.unmodifiableSet(slotTypes);
+    }
+
+    public Duration getInterval() {
+        return Duration.ofNanos(intervalNanos);
+    }
+
+    public boolean isClosed() {
+        return closed;
+    }
+
+    public int getPendingDeltas() {
+        synchronized (pending) {
+            return pending.size();
+        }
+    }
+
+    // Deltas folded into a pending one because the buffer was full
+    public long getConflatedDeltas() {
+        synchronized (pending) {
+            return conflatedDeltas;
+        }
+    }
+
+    public long getDeliveredDeltas() {
+        synchronized (pending) {
+            return deliveredDeltas;
+        }
+    }
+
+    // Deltas the listener threw on
+    public long getFailedDeltas() {
+        synchronized (pending) {
+            return failedDeltas;
+        }
+    }
+
+    @Override
+    public String toString() {
+        return "OccupancySubscription{" +
+                "subscriptionId=" + subscriptionId +
+                ", floorNumbers=" + (floorNumbers.isEmpty() ? "all" : floorNumbers) +
+                ", slotTypes=" + slotTypes +
+                ", interval=" + getInterval() +
+                '}';
+    }
+}
@@ -0,0 +1,568 @@
+package parking.persistence;
+
+import parking.domain.*;
+
+import java.io.IOException;
+import java.io.UncheckedIOException;
+import java.nio.ByteBuffer;
+import java.nio.channels.FileChannel;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.StandardOpenOption;
+import java.util.LinkedHashMap;
+import java.util.Map;
+import java.util.zip.CRC32;
+
+/**
+ * Append-only write-ahead journal of park, unpark and transfer events.
+ *
+ * Attach it with {@link ParkingLot#setJournal}: the lot appends each record before the change
+ * takes effect. Gates only copy their record into an in-memory buffer; a single flusher thread
+ * writes whatever has accumulated and forces it to disk (group commit), so one fsync covers
+ * every gate that appended meanwhile. With {@code syncOnAppend} a gate waits, after releasing
+ * the plate's lock stripe, until the records appended so far are durable before returning.
+ *
+ * Record layout: int bodyLength | int crc32(body) | body, where body is
+ * byte type | long transactionId | string plate | type-specific fields (see the append* methods).
+ * A torn or corrupt tail left by a crash is detected by the length/CRC check and cut off.
+ *
+ * On startup, call {@link #recover(Path, ParkingLot)} on a lot with its floors and slots set
+ * up, then {@link #open(Path, boolean)} and attach the journal. Close it only after the gates
+ * have stopped; appends to a closed journal fail.
+ *
+ * If a write or fsync fails, the journal stops: the batch that failed and everything appended
+ * after it are kept in memory, {@link #checkWritable()} refuses new operations with an
+ * IllegalStateException, and {@link #getFailure()} reports the error until {@link #retry()} gets
+ * the kept records on disk. An operation already past that check when the write failed still
+ * has its record appended, so every change the lot applied is in the journal after a retry.
+ */
+public class ParkingJournal implements ParkingLotJournal, AutoCloseable {
+    static final byte PARKED = 1;
+    static final byte UNPARKED = 2;
+    static final byte TRANSFERRED = 3;
+
+    private static final int HEADER_BYTES = 8;
+    private static final int INITIAL_BUFFER_BYTES = 64 * 1024;
+
+    private final FileChannel channel;
+    private final boolean syncOnAppend;
+    private Thread flusher; // replaced by retry() after a failure
+
+    // Guarded by this: records appended but not yet handed to the flusher
+    private ByteBuffer pending = ByteBuffer.allocate(INITIAL_BUFFER_BYTES);
+    private ByteBuffer spare = ByteBuffer.allocate(INITIAL_BUFFER_BYTES);
+    private final CRC32 crc = new CRC32();
+    private int recordStart;
+    private long appendedSequence;
+    private long appendedBytes;
+    private volatile boolean closed; // also read by checkWritable() without the lock
+    private ByteBuffer failedBatch; // records the flusher could not write, kept for retry()
+
+    // Guarded by durableLock; failure is also read by appenders without it
+    private final Object durableLock = new Object();
+    private long durableSequence;
+    private long durableBytes; // journal length covered by the last successful fsync
+    private volatile IOException failure;
+
+    private ParkingJournal(FileChannel channel, long validBytes, boolean syncOnAppend) {
+        this.channel = channel;
+        this.syncOnAppend = syncOnAppend;
+        this.appendedBytes = validBytes;
+        this.durableBytes = validBytes;
+        this.flusher = startFlusher();
+    }
+
+    private Thread startFlusher() {
+        Thread thread = new Thread(this::flushLoop, "parking-journal-flusher");
+        thread.setDaemon(true);
+        thread.start();
+        return thread;
+    }
+
+    /**
+     * Opens the journal for appending, cutting off any torn record at the end.
+     *
+     * @param syncOnAppend if true, park/unpark/transfer return only once their record is on disk,
+     *                     and throw an UncheckedIOException if it could not be written
+     */
+    public static ParkingJournal open(Path file, boolean syncOnAppend) throws IOException {
+        FileChannel channel = FileChannel.open(file, StandardOpenOption.CREATE,
+                StandardOpenOption.READ, StandardOpenOption.WRITE);
+        long validBytes = scan(channel, null);
+        channel.truncate(validBytes);
+        channel.position(validBytes);
+        return new ParkingJournal(channel, validBytes, syncOnAppend);
+    }
+
+    /**
+     * Replays the journal into a lot whose floors and slots are already set up, restoring every
+     * vehicle that was parked when the journal ends.
+     *
+     * @return the number of vehicles restored
+     */
+    public static int recover(Path file, ParkingLot parkingLot) throws IOException {
+        return recover(file, 0, parkingLot);
+    }
+
+    /**
+     * Same as {@link #recover(Path, ParkingLot)}, starting at a byte offset (e.g. the journal
+     * position recorded in a snapshot) and applying the events on top of the lot's current state.
+     * Attach the journal and listeners only after recovery; replayed changes are not reported to them.
+     */
+    public static int recover(Path file, long fromOffset, ParkingLot parkingLot) throws IOException {
+        if (!Files.exists(file)) {
+            return 0;
+        }
+        Map<String, ParkedVehicle> finalStates = new LinkedHashMap<>();
+        try (FileChannel channel = FileChannel.open(file, StandardOpenOption.READ)) {
+            channel.position(fromOffset);
+            scan(channel, finalStates);
+        }
+
+        // Pass 1: take out every vehicle whose journaled end state differs from what the lot holds,
+        // so that pass 2 never finds a target slot still occupied by a vehicle that later moved away
+        Map<String, ParkingTransaction> active = parkingLot.getActiveTransactions();
+        for (Map.Entry<String, ParkedVehicle> entry : finalStates.entrySet()) {
+            ParkingTransaction current = active.get(entry.getKey());
+            ParkedVehicle state = entry.getValue();
+            if (current == null) {
+                continue;
+            }
+            if (state.transactionId == current.getNumericTransactionId() && state.vehicleType == null) {
+                // Only transferred within the replayed range: carry the rest over from the lot
+                state.vehicleType = current.getVehicle().getType();
+                state.entryTimeMillis = current.getVehicle().getEntryMillis();
+            }
+            if (state.unparked || state.transactionId != current.getNumericTransactionId()
+                    || !current.getSlot().getSlotId().equals(state.slotId)) {
+                parkingLot.unparkVehicle(entry.getKey());
+            } else {
+                state.unparked = true; // already where the journal says; nothing to restore
+            }
+        }
+
+        // Pass 2: put back everything the journal ends with as parked
+        int restored = 0;
+        for (Map.Entry<String, ParkedVehicle> entry : finalStates.entrySet()) {
+            ParkedVehicle state = entry.getValue();
+            if (state.unparked || state.vehicleType == null) {
+                continue;
+            }
+            parkingLot.restoreParkedVehicle(entry.getKey(), state.vehicleType, state.slotId,
+                    state.transactionId, state.entryTimeMillis);
+            restored++;
+        }
+        return restored;
+    }
+
+    @Override
+    public void checkWritable() {
+        if (closed) {
+            throw new IllegalStateException("Journal is closed");
+        }
+        if (failure != null) {
+            throw new IllegalStateException("Journal write failed; changes are rejected until retry()", failure);
+        }
+    }
+
+    @Override
+    public void appendParked(ParkingTransaction transaction) {
+        Vehicle vehicle = transaction.getVehicle();
+        byte[] plate = utf8(vehicle.getLicensePlate());
+        byte[] slotId = utf8(transaction.getSlot().getSlotId());
+        synchronized (this) {
+            ByteBuffer body = beginRecord(1 + 8 + stringBytes(plate) + 1 + stringBytes(slotId) + 8);
+            body.put(PARKED);
+            body.putLong(transaction.getNumericTransactionId());
+            putString(body, plate);
+            body.put((byte) vehicle.getType().ordinal());
+            putString(body, slotId);
+            body.putLong(vehicle.getEntryMillis());
+            endRecord();
+        }
+    }
+
+    @Override
+    public void appendUnparked(ParkingTransaction transaction, long exitMillis, long feeCents) {
+        byte[] plate = utf8(transaction.getVehicle().getLicensePlate());
+        synchronized (this) {
+            ByteBuffer body = beginRecord(1 + 8 + stringBytes(plate) + 8 + 8);
+            body.put(UNPARKED);
+            body.putLong(transaction.getNumericTransactionId());
+            putString(body, plate);
+            body.putLong(exitMillis);
+            body.putLong(feeCents);
+            endRecord();
+        }
+    }
+
+    @Override
+    public void appendTransferred(ParkingTransaction transaction, ParkingSlot toSlot) {
+        byte[] plate = utf8(transaction.getVehicle().getLicensePlate());
+        byte[] slotId = utf8(toSlot.getSlotId());
+        synchronized (this) {
+            ByteBuffer body = beginRecord(1 + 8 + stringBytes(plate) + stringBytes(slotId));
+            body.put(TRANSFERRED);
+            body.putLong(transaction.getNumericTransactionId());
+            putString(body, plate);
+            putString(body, slotId);
+            endRecord();
+        }
+    }
+
+    @Override
+    public void awaitDurable() {
+        if (syncOnAppend) {
+            sync();
+        }
+    }
+
+    /**
+     * Byte offset just past the last appended record. Records before this offset are in the
+     * journal once {@link #sync()} returns.
+     */
+    public synchronized long position() {
+        return appendedBytes;
+    }
+
+    /**
+     * Blocks until every record appended so far is on disk.
+     */
+    public void sync() {
+        long sequence;
+        synchronized (this) {
+            sequence = appendedSequence;
+        }
+        awaitDurable(sequence);
+    }
+
+    /**
+     * The write error that stopped the journal, or null while it is writing normally.
+     */
+    public IOException getFailure() {
+        return failure;
+    }
+
+    // Records appended but not yet on disk; after a failure, the ones retry() would write
+    public long getUnwrittenRecords() {
+        long appended;
+        synchronized (this) {
+            appended = appendedSequence;
+        }
+        synchronized (durableLock) {
+            return appended - durableSequence;
+        }
+    }
+
+    /**
+     * After a write failure, rewrites the failed batch and every record appended since, from the
+     * end of the last durable write, and resumes accepting changes.
+     * Does nothing if the journal has not failed.
+     *
+     * @throws IOException if writing fails again; the records stay kept for another retry
+     */
+    public void retry() throws IOException {
+        if (failure == null) {
+            return;
+        }
+        joinFlusher(); // it exits right after reporting the failure
+        synchronized (this) {
+            if (closed) {
+                throw new IllegalStateException("Journal is closed");
+            }
+            if (pending.position() > 0) {
+                ByteBuffer merged = ByteBuffer.allocate(failedBatch.remaining() + pending.position());
+                merged.put(failedBatch);
+                pending.flip();
+                merged.put(pending);
+                pending.clear();
+                merged.flip();
+                failedBatch = merged;
+            }
+            long fromBytes;
+            synchronized (durableLock) {
+                fromBytes = durableBytes;
+            }
+            try {
+                channel.truncate(fromBytes); // cut off whatever part of the failed batch did get written
+                channel.position(fromBytes);
+                while (failedBatch.hasRemaining()) {
+                    channel.write(failedBatch);
+                }
+                channel.force(false);
+            } catch (IOException e) {
+                failedBatch.rewind();
+                throw e;
+            }
+            failedBatch = null;
+            spare = ByteBuffer.allocate(INITIAL_BUFFER_BYTES);
+            synchronized (durableLock) {
+                durableSequence = appendedSequence;
+                durableBytes = appendedBytes;
+                failure = null;
+                durableLock.notifyAll();
+            }
+            flusher = startFlusher();
+        }
+    }
+
+    /**
+     * Flushes what has been appended and closes the file.
+     *
+     * @throws IOException if the journal has failed and records were never written
+     */
+    @Override
+    public void close() throws IOException {
+        IOException error = null;
+        try {
+            sync();
+        } catch (UncheckedIOException e) {
+            error = e.getCause();
+        }
+        synchronized (this) {
+            closed = true;
+            notifyAll();
+        }
+        joinFlusher();
+        channel.close();
+        if (error != null) {
+            throw new IOException("Journal closed with " + getUnwrittenRecords() + " records never written", error);
+        }
+    }
+
+    private void joinFlusher() {
+        Thread thread;
+        synchronized (this) {
+            thread = flusher;
+        }
+        try {
+            thread.join();
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+        }
+    }
+
+    // Caller holds this; reserves room for a record and returns the buffer positioned at its body.
+    // After a write failure records are still taken, for retry(); checkWritable() keeps new ones out
+    private ByteBuffer beginRecord(int bodyBytes) {
+        if (closed) {
+            throw new IllegalStateException("Journal is closed");
+        }
+        if (pending.remaining() < HEADER_BYTES + bodyBytes) {
+            ByteBuffer grown = ByteBuffer.allocate(Math.max(pending.capacity() * 2, pending.position() + HEADER_BYTES + bodyBytes));
+            pending.flip();
+            grown.put(pending);
+            pending = grown;
+        }
+        recordStart = pending.position();
+        pending.putInt(bodyBytes);
+        pending.putInt(0); // CRC, filled in by endRecord
+        return pending;
+    }
+
+    // Caller holds this; seals the record started by beginRecord and wakes the flusher
+    private void endRecord() {
+        int bodyStart = recordStart + HEADER_BYTES;
+        int end = pending.position();
+        crc.reset();
+        crc.update(pending.array(), bodyStart, end - bodyStart);
+        pending.putInt(recordStart + 4, (int) crc.getValue());
+        appendedBytes += end - recordStart;
+        appendedSequence++;
+        notifyAll();
+    }
+
+    private void awaitDurable(long sequence) {
+        synchronized (durableLock) {
+            while (durableSequence < sequence) {
+                if (failure != null) {
+                    throw new UncheckedIOException("Journal write failed; unwritten records are kept for retry()", failure);
+                }
+                try {
+                    durableLock.wait();
+                } catch (InterruptedException e) {
+                    Thread.currentThread().interrupt();
+                    throw new IllegalStateException("Interrupted while waiting for journal sync", e);
+                }
+            }
+        }
+    }
+
+    private void flushLoop() {
+        while (true) {
+            ByteBuffer toWrite;
+            long sequence;
+            long bytes;
+            synchronized (this) {
+                while (pending.position() == 0 && !closed) {
+                    try {
+                        wait();
+                    } catch (InterruptedException e) {
+                        return;
+                    }
+                }
+                if (pending.position() == 0) {
+                    return; // closed and drained
+                }
+                toWrite = pending;
+                pending = spare;
+                spare = null;
+                sequence = appendedSequence;
+                bytes = appendedBytes;
+            }
+
+            IOException error = null;
+            try {
+                toWrite.flip();
+                while (toWrite.hasRemaining()) {
+                    channel.write(toWrite);
+                }
+                channel.force(false);
+            } catch (IOException e) {
+                error = e;
+            }
+
+            if (error != null) {
+                toWrite.rewind(); // keep the whole batch for retry()
+                synchronized (this) {
+                    failedBatch = toWrite;
+                }
+                synchronized (durableLock) {
+                    failure = error;
+                    durableLock.notifyAll();
+                }
+                return;
+            }
+            toWrite.clear();
+            synchronized (this) {
+                spare = toWrite;
+            }
+            synchronized (durableLock) {
+                durableSequence = sequence;
+                durableBytes = bytes;
+                durableLock.notifyAll();
+            }
+        }
+    }
+
+    /**
+     * Reads records from the channel's position until the end or the first torn/corrupt record.
+     * If {@code parked} is given, folds each record into it (plate -> latest state).
+     *
+     * @return the offset just past the last valid record
+     */
+    private static long scan(FileChannel channel, Map<String, ParkedVehicle> parked) throws IOException {
+        ByteBuffer header = ByteBuffer.allocate(HEADER_BYTES);
+        ByteBuffer body = ByteBuffer.allocate(256);
+        CRC32 crc = new CRC32();
+        long offset = channel.position();
+        while (true) {
+            header.clear();
+            if (readFully(channel, header) < HEADER_BYTES) {
+                return offset;
+            }
+            header.flip();
+            int bodyBytes = header.getInt();
+            int expectedCrc = header.getInt();
+            if (bodyBytes <= 0 || bodyBytes > 64 * 1024) {
+                return offset;
+            }
+            if (body.capacity() < bodyBytes) {
+                body = ByteBuffer.allocate(bodyBytes);
+            }
+            body.clear().limit(bodyBytes);
+            if (readFully(channel, body) < bodyBytes) {
+                return offset;
+            }
+            crc.reset();
+            crc.update(body.array(), 0, bodyBytes);
+            if ((int) crc.getValue() != expectedCrc) {
+                return offset;
+            }
+            body.flip();
+            if (parked != null) {
+                apply(body, parked);
+            }
+            offset += HEADER_BYTES + bodyBytes;
+        }
+    }
+
+    private static void apply(ByteBuffer body, Map<String, ParkedVehicle> parked) {
+        byte type = body.get();
+        long transactionId = body.getLong();
+        String licensePlate = getString(body);
+        switch (type) {
+            case PARKED: {
+                ParkedVehicle vehicle = new ParkedVehicle();
+                vehicle.transactionId = transactionId;
+                vehicle.vehicleType = VehicleType.values()[body.get()];
+                vehicle.slotId = getString(body);
+                vehicle.entryTimeMillis = body.getLong();
+                parked.remove(licensePlate); // keep map order = order of last park
+                parked.put(licensePlate, vehicle);
+                break;
+            }
+            case UNPARKED: {
+                ParkedVehicle vehicle = new ParkedVehicle();
+                vehicle.unparked = true;
+                parked.put(licensePlate, vehicle);
+                break;
+            }
+            case TRANSFERRED: {
+                String slotId = getString(body);
+                ParkedVehicle vehicle = parked.get(licensePlate);
+                if (vehicle == null) {
+                    vehicle = new ParkedVehicle(); // parked before the replayed range
+                    vehicle.transactionId = transactionId;
+                    parked.put(licensePlate, vehicle);
+                }
+                vehicle.slotId = slotId;
+                break;
+            }
+            default:
+                throw new IllegalStateException("Unknown journal record type " + type);
+        }
+    }
+
+    private static int readFully(FileChannel channel, ByteBuffer buffer) throws IOException {
+        int total = 0;
+        while (buffer.hasRemaining()) {
+            int read = channel.read(buffer);
+            if (read < 0) {
+                break;
+            }
+            total += read;
+        }
+        return total;
+    }
+
+    private static byte[] utf8(String value) {
+        return value.getBytes(StandardCharsets.UTF_8);
+    }
+
+    private static int stringBytes(byte[] value) {
+        return 2 + value.length;
+    }
+
+    private static void putString(ByteBuffer buffer, byte[] value) {
+        buffer.putShort((short) value.length);
+        buffer.put(value);
+    }
+
+    private static String getString(ByteBuffer buffer) {
+        int length = buffer.getShort() & 0xFFFF;
+        String value = new String(buffer.array(), buffer.arrayOffset() + buffer.position(), length, StandardCharsets.UTF_8);
+        buffer.position(buffer.position() + length);
+        return value;
+    }
+
+    // Latest journaled state of one plate during replay
+    private static class ParkedVehicle {
+        long transactionId;
+        VehicleType vehicleType;
+        String slotId;
+        long entryTimeMillis;
+        boolean unparked;
+    }
+}
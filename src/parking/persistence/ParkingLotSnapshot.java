@@ -0,0 +1,261 @@
+package parking.persistence;
+
+import parking.domain.*;
+
+import java.io.BufferedOutputStream;
+import java.io.DataOutputStream;
+import java.io.IOException;
+import java.io.OutputStream;
+import java.nio.ByteBuffer;
+import java.nio.MappedByteBuffer;
+import java.nio.channels.FileChannel;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.StandardCopyOption;
+import java.nio.file.StandardOpenOption;
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.CompletableFuture;
+import java.util.zip.CRC32;
+import java.util.zip.CheckedOutputStream;
+
+/**
+ * Binary checkpoint of a ParkingLot: floors, slots, and the active transactions (which is
+ * also the slot occupancy).
+ *
+ * Layout (big-endian):
+ * <pre>
+ * int magic | short version | long journalOffset | string lotId | int totalSlots | int floorCount
+ * per floor:   int floorNumber | byte storage | [slot table: string slotIdPrefix | int capacity]
+ *              | int slotCount | per slot: byte slotType | [slot objects: string slotId]
+ * int activeCount
+ * per vehicle: string plate | byte vehicleType | string slotId | long transactionId | long entryMillis
+ * int crc32 of everything before it
+ * </pre>
+ * Strings are a short length followed by UTF-8 bytes. Storage is 0 for a floor of ParkingSlot
+ * objects and 1 for a slot-table floor ({@link ParkingFloor#withSlotTable}), which is rebuilt as
+ * one; its slot IDs follow from the prefix and are not stored. Version 1 snapshots (no storage
+ * byte, every floor of slot objects) can still be loaded.
+ *
+ * Writing reads the live lot through its concurrent structures, so gates keep running while a
+ * snapshot is taken. The copy is therefore fuzzy; when a journal is given, its position is taken
+ * before any state is read, at a point where every record before it has been applied (see
+ * {@link ParkingLot#withChangesPaused}), and stored in the snapshot; and replaying the journal from there
+ * ({@link ParkingJournal#recover(Path, long, ParkingLot)}) brings the loaded lot up to date.
+ */
+public class ParkingLotSnapshot {
+    private static final int MAGIC = 0x504C534E; // "PLSN"
+    private static final short VERSION = 2;
+    private static final byte SLOT_OBJECTS = 0;
+    private static final byte SLOT_TABLE = 1;
+
+    private final ParkingLot parkingLot;
+    private final long journalOffset;
+    private final List<String> skippedPlates;
+
+    private ParkingLotSnapshot(ParkingLot parkingLot, long journalOffset, List<String> skippedPlates) {
+        this.parkingLot = parkingLot;
+        this.journalOffset = journalOffset;
+        this.skippedPlates = Collections.unmodifiableList(skippedPlates);
+    }
+
+    public ParkingLot getParkingLot() {
+        return parkingLot;
+    }
+
+    /**
+     * Offset in the journal from which to replay on top of this snapshot (0 if none was given).
+     */
+    public long getJournalOffset() {
+        return journalOffset;
+    }
+
+    /**
+     * Plates of vehicles in the snapshot that could not be put back because their slot was
+     * already taken. Empty unless the snapshot was fuzzy; if not, the loaded lot is missing
+     * these vehicles until the journal is replayed from {@link #getJournalOffset()}.
+     */
+    public List<String> getSkippedPlates() {
+        return skippedPlates;
+    }
+
+    // True if the loaded lot is incomplete without a journal replay
+    public boolean requiresJournalReplay() {
+        return !skippedPlates.isEmpty();
+    }
+
+    /**
+     * Writes the snapshot on a background thread; the lot keeps serving meanwhile.
+     *
+     * @return completes with the snapshot size in bytes
+     */
+    public static CompletableFuture<Long> writeAsync(ParkingLot parkingLot, ParkingJournal journal, Path file) {
+        CompletableFuture<Long> result = new CompletableFuture<>();
+        Thread writer = new Thread(() -> {
+            try {
+                result.complete(write(parkingLot, journal, file));
+            } catch (Throwable e) {
+                result.completeExceptionally(e);
+            }
+        }, "parking-snapshot-writer");
+        writer.setDaemon(true);
+        writer.start();
+        return result;
+    }
+
+    /**
+     * Writes the snapshot to a temporary file next to {@code file} and renames it into place,
+     * so a crash mid-write never leaves a half-written snapshot behind.
+     *
+     * @param journal the lot's journal, or null
+     * @return the snapshot size in bytes
+     */
+    public static long write(ParkingLot parkingLot, ParkingJournal journal, Path file) throws IOException {
+        long journalOffset = 0;
+        if (journal != null) {
+            journalOffset = parkingLot.withChangesPaused(journal::position);
+            journal.sync();
+        }
+
+        Path temp = file.resolveSibling(file.getFileName() + ".tmp");
+        CRC32 crc = new CRC32();
+        try (OutputStream fileOut = Files.newOutputStream(temp);
+             DataOutputStream out = new DataOutputStream(new CheckedOutputStream(new BufferedOutputStream(fileOut, 1 << 16), crc))) {
+            out.writeInt(MAGIC);
+            out.writeShort(VERSION);
+            out.writeLong(journalOffset);
+            writeString(out, parkingLot.getParkingLotId());
+
+            List<ParkingFloor> floors = parkingLot.getFloors();
+            int totalSlots = 0;
+            for (ParkingFloor floor : floors) {
+                totalSlots += floor.getTotalSlots();
+            }
+            out.writeInt(totalSlots);
+            out.writeInt(floors.size());
+            for (ParkingFloor floor : floors) {
+                int slotCount = floor.getTotalSlots();
+                boolean slotTable = floor.usesSlotTable();
+                out.writeInt(floor.getFloorNumber());
+                out.writeByte(slotTable ? SLOT_TABLE : SLOT_OBJECTS);
+                if (slotTable) {
+                    writeString(out, floor.getSlotIdPrefix());
+                    out.writeInt(floor.getSlotTableCapacity());
+                }
+                out.writeInt(slotCount);
+                for (int position = 0; position < slotCount; position++) {
+                    out.writeByte(floor.getSlotType(position).ordinal());
+                    if (!slotTable) {
+                        writeString(out, floor.getSlotId(position));
+                    }
+                }
+            }
+
+            Map<String, ParkingTransaction> active = parkingLot.getActiveTransactions();
+            out.writeInt(active.size());
+            for (ParkingTransaction transaction : active.values()) {
+                Vehicle vehicle = transaction.getVehicle();
+                writeString(out, vehicle.getLicensePlate());
+                out.writeByte(vehicle.getType().ordinal());
+                writeString(out, transaction.getSlot().getSlotId());
+                out.writeLong(transaction.getNumericTransactionId());
+                out.writeLong(vehicle.getEntryMillis());
+            }
+            out.flush();
+            new DataOutputStream(fileOut).writeInt((int) crc.getValue());
+        }
+        try (FileChannel channel = FileChannel.open(temp, StandardOpenOption.WRITE)) {
+            channel.force(true);
+        }
+        Files.move(temp, file, StandardCopyOption.REPLACE_EXISTING, StandardCopyOption.ATOMIC_MOVE);
+        return Files.size(file);
+    }
+
+    /**
+     * Maps the snapshot into memory and rebuilds the lot from it. A vehicle whose slot turns out
+     * to be taken (possible only in a fuzzy snapshot) is skipped and listed in
+     * {@link #getSkippedPlates()}; replaying the journal from {@link #getJournalOffset()} puts it back.
+     */
+    public static ParkingLotSnapshot load(Path file) throws IOException {
+        try (FileChannel channel = FileChannel.open(file, StandardOpenOption.READ)) {
+            MappedByteBuffer buffer = channel.map(FileChannel.MapMode.READ_ONLY, 0, channel.size());
+            if (buffer.limit() < 4) {
+                throw new IOException("Snapshot " + file + " is truncated");
+            }
+
+            CRC32 crc = new CRC32();
+            ByteBuffer content = buffer.duplicate();
+            content.limit(buffer.limit() - 4);
+            crc.update(content);
+            if ((int) crc.getValue() != buffer.getInt(buffer.limit() - 4)) {
+                throw new IOException("Snapshot " + file + " is corrupt (checksum mismatch)");
+            }
+
+            short version = buffer.getInt() == MAGIC ? buffer.getShort() : 0;
+            if (version != 1 && version != VERSION) {
+                throw new IOException("Not a version 1-" + VERSION + " parking lot snapshot: " + file);
+            }
+            long journalOffset = buffer.getLong();
+            byte[] scratch = new byte[256];
+            String parkingLotId = readString(buffer, scratch);
+            ParkingLot parkingLot = new ParkingLot(parkingLotId, buffer.getInt());
+
+            VehicleType[] types = VehicleType.values();
+            int floorCount = buffer.getInt();
+            for (int f = 0; f < floorCount; f++) {
+                int floorNumber = buffer.getInt();
+                byte storage = version == 1 ? SLOT_OBJECTS : buffer.get();
+                if (storage == SLOT_TABLE) {
+                    String slotIdPrefix = readString(buffer, scratch);
+                    ParkingFloor floor = ParkingFloor.withSlotTable(floorNumber, slotIdPrefix, buffer.getInt());
+                    int slotCount = buffer.getInt();
+                    for (int s = 0; s < slotCount; s++) {
+                        floor.addParkingSlot(types[buffer.get()]);
+                    }
+                    parkingLot.addFloor(floor);
+                    continue;
+                }
+                int slotCount = buffer.getInt();
+                ParkingFloor floor = new ParkingFloor(floorNumber, slotCount);
+                for (int s = 0; s < slotCount; s++) {
+                    VehicleType slotType = types[buffer.get()];
+                    floor.addParkingSlot(new ParkingSlot(readString(buffer, scratch), slotType, floorNumber));
+                }
+                parkingLot.addFloor(floor);
+            }
+
+            int activeCount = buffer.getInt();
+            List<String> skippedPlates = new ArrayList<>();
+            for (int i = 0; i < activeCount; i++) {
+                String licensePlate = readString(buffer, scratch);
+                VehicleType vehicleType = types[buffer.get()];
+                String slotId = readString(buffer, scratch);
+                long transactionId = buffer.getLong();
+                long entryMillis = buffer.getLong();
+                try {
+                    parkingLot.restoreParkedVehicle(licensePlate, vehicleType, slotId, transactionId, entryMillis);
+                } catch (IllegalStateException e) {
+                    // Slot read mid-transfer; the journal holds the final placement
+                    skippedPlates.add(licensePlate);
+                }
+            }
+            return new ParkingLotSnapshot(parkingLot, journalOffset, skippedPlates);
+        }
+    }
+
+    private static void writeString(DataOutputStream out, String value) throws IOException {
+        byte[] bytes = value.getBytes(StandardCharsets.UTF_8);
+        out.writeShort(bytes.length);
+        out.write(bytes);
+    }
+
+    private static String readString(ByteBuffer buffer, byte[] scratch) {
+        int length = buffer.getShort() & 0xFFFF;
+        byte[] bytes = length <= scratch.length ? scratch : new byte[length];
+        buffer.get(bytes, 0, length);
+        return new String(bytes, 0, length, StandardCharsets.UTF_8);
+    }
+}
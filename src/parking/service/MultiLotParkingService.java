@@ -0,0 +1,202 @@
+package parking.service;
+
+import parking.domain.*;
+
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ForkJoinPool;
+import java.util.concurrent.RecursiveTask;
+
+/**
+ * Service Layer - one service for many independent parking lots
+ *
+ * Each lot is a shard with its own ParkingService and ParkingLot, and therefore its own plate
+ * locks, slot indexes and counters; requests for different lots never contend. Requests are
+ * routed either by lot ID or, when the caller has no preference, by a hash of the plate.
+ *
+ * A city-wide plate registry (plate -> lot) keeps a vehicle in at most one lot at a time and
+ * routes unpark, info and transfer requests to the lot the vehicle is in.
+ */
+public class MultiLotParkingService {
+    private static final int STATUS_LOTS_PER_TASK = 4;
+
+    private final Map<String, ParkingService> servicesByLotId = new ConcurrentHashMap<>();
+    private volatile ParkingService[] shards = new ParkingService[0];
+    private volatile String[] shardLotIds = new String[0];
+    private final Map<String, String> lotIdByPlate = new ConcurrentHashMap<>();
+    private final ForkJoinPool forkJoinPool;
+
+    public MultiLotParkingService() {
+        this(ForkJoinPool.commonPool());
+    }
+
+    public MultiLotParkingService(ForkJoinPool forkJoinPool) {
+        this.forkJoinPool = forkJoinPool;
+    }
+
+    /**
+     * Adds a lot as a new shard. Lots are expected to be registered at startup; plate-hash
+     * routing of new parkings changes when the number of lots does.
+     */
+    public synchronized void addParkingLot(ParkingLot parkingLot) {
+        String lotId = parkingLot.getParkingLotId();
+        if (servicesByLotId.containsKey(lotId)) {
+            throw new IllegalArgumentException("Parking lot " + lotId + " is already registered");
+        }
+        ParkingService service = new ParkingService(parkingLot);
+        for (String licensePlate : parkingLot.getParkedVehicles().keySet()) {
+            lotIdByPlate.put(licensePlate, lotId);
+        }
+        servicesByLotId.put(lotId, service);
+
+        int count = shards.length;
+        ParkingService[] newShards = Arrays.copyOf(shards, count + 1);
+        String[] newLotIds = Arrays.copyOf(shardLotIds, count + 1);
+        newShards[count] = service;
+        newLotIds[count] = lotId;
+        shardLotIds = newLotIds;
+        shards = newShards;
+    }
+
+    /**
+     * Service Layer: Parks in the lot chosen by the plate's hash
+     */
+    public ParkingTransaction parkVehicle(String licensePlate, VehicleType vehicleType) {
+        validatePlate(licensePlate);
+        String[] lotIds = shardLotIds;
+        if (lotIds.length == 0) {
+            throw new IllegalStateException("No parking lots registered");
+        }
+        return parkVehicle(lotIds[Math.floorMod(licensePlate.hashCode(), lotIds.length)], licensePlate, vehicleType);
+    }
+
+    /**
+     * Service Layer: Parks in the given lot
+     * - Claims the plate city-wide first, so one vehicle cannot be parked in two lots
+     * - Releases the claim if the lot rejects the vehicle
+     */
+    public ParkingTransaction parkVehicle(String lotId, String licensePlate, VehicleType vehicleType) {
+        validatePlate(licensePlate);
+        ParkingService service = serviceFor(lotId);
+        String currentLotId = lotIdByPlate.putIfAbsent(licensePlate, lotId);
+        if (currentLotId != null) {
+            throw new ParkingStateException(ParkingFailure.ALREADY_PARKED, "Vehicle " + licensePlate + " is already parked in lot " + currentLotId);
+        }
+        try {
+            return service.parkVehicle(licensePlate, vehicleType);
+        } catch (RuntimeException e) {
+            lotIdByPlate.remove(licensePlate, lotId);
+            throw e;
+        }
+    }
+
+    /**
+     * Service Layer: Unparks from whichever lot the vehicle is in
+     */
+    public ParkingTransaction unparkVehicle(String licensePlate) {
+        String lotId = lotIdOf(licensePlate);
+        ParkingTransaction transaction = serviceFor(lotId).unparkVehicle(licensePlate);
+        lotIdByPlate.remove(licensePlate, lotId);
+        return transaction;
+    }
+
+    public VehicleInfo getVehicleInfo(String licensePlate) {
+        return serviceFor(lotIdOf(licensePlate)).getVehicleInfo(licensePlate);
+    }
+
+    /**
+     * Service Layer: Moves a vehicle to another slot of the lot it is parked in
+     */
+    public ParkingTransaction transferVehicle(String licensePlate, String newSlotId) {
+        return serviceFor(lotIdOf(licensePlate)).transferVehicle(licensePlate, newSlotId);
+    }
+
+    public ParkingLotStatus getParkingLotStatus(String lotId) {
+        return serviceFor(lotId).getParkingLotStatus();
+    }
+
+    /**
+     * Service Layer: City-wide status
+     * Lot statuses are read in parallel on the fork/join pool and merged pairwise.
+     */
+    public ParkingLotStatus getCityStatus() {
+        ParkingService[] current = shards;
+        if (current.length == 0) {
+            return new ParkingLotStatus(new int[VehicleType.values().length], new int[VehicleType.values().length], 0);
+        }
+        return forkJoinPool.invoke(new StatusTask(current, 0, current.length));
+    }
+
+    /**
+     * Lot the vehicle is currently parked in, if any.
+     */
+    public String findLotOfVehicle(String licensePlate) {
+        return lotIdByPlate.get(licensePlate);
+    }
+
+    // Getters
+    public List<String> getParkingLotIds() {
+        return new ArrayList<>(List.of(shardLotIds));
+    }
+
+    public ParkingService getParkingService(String lotId) {
+        return serviceFor(lotId);
+    }
+
+    private ParkingService serviceFor(String lotId) {
+        ParkingService service = lotId == null ? null : servicesByLotId.get(lotId);
+        if (service == null) {
+            throw new IllegalArgumentException("Parking lot " + lotId + " not found");
+        }
+        return service;
+    }
+
+    private String lotIdOf(String licensePlate) {
+        validatePlate(licensePlate);
+        String lotId = lotIdByPlate.get(licensePlate);
+        if (lotId == null) {
+            throw new ParkingStateException(ParkingFailure.NOT_PARKED, "Vehicle " + licensePlate + " is not parked");
+        }
+        return lotId;
+    }
+
+    private static void validatePlate(String licensePlate) {
+        if (licensePlate == null || licensePlate.trim().isEmpty()) {
+            throw new IllegalArgumentException("License plate cannot be null or empty");
+        }
+    }
+
+    // Splits the shard range until it is small enough to read directly
+    private static class StatusTask extends RecursiveTask<ParkingLotStatus> {
+        private static final long serialVersionUID = 1L;
+
+        private final ParkingService[] shards;
+        private final int from;
+        private final int to;
+
+        StatusTask(ParkingService[] shards, int from, int to) {
+            this.shards = shards;
+            this.from = from;
+            this.to = to;
+        }
+
+        @Override
+        protected ParkingLotStatus compute() {
+            if (to - from <= STATUS_LOTS_PER_TASK) {
+                ParkingLotStatus status = shards[from].getParkingLotStatus();
+                for (int i = from + 1; i < to; i++) {
+                    status = status.merge(shards[i].getParkingLotStatus());
+                }
+                return status;
+            }
+            int middle = (from + to) >>> 1;
+            StatusTask left = new StatusTask(shards, from, middle);
+            left.fork();
+            ParkingLotStatus right = new StatusTask(shards, middle, to).compute();
+            return left.join().merge(right);
+        }
+    }
+}
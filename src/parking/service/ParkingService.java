@@ -1,7 +1,14 @@
 package parking.service;
 
 import parking.domain.*;
+import parking.occupancy.OccupancyFeed;
+import parking.occupancy.OccupancyListener;
+import parking.occupancy.OccupancySubscription;
+import java.time.Duration;
+import java.util.ArrayList;
+import java.util.List;
 import java.util.Map;
+import java.util.Set;
 
 /**
  * Service Layer - Application Services
@@ -15,6 +22,7 @@ import java.util.Map;
  */
 public class ParkingService {
     private ParkingLot parkingLot;
+    private OccupancyFeed occupancyFeed; // started with the first subscription
 
     public ParkingService(ParkingLot parkingLot) {
         this.parkingLot = parkingLot;
@@ -59,6 +67,161 @@ public class ParkingService {
         return parkingLot.unparkVehicle(licensePlate);
     }
 
+    /**
+     * Service Layer: Orchestrates a burst of parkings (e.g. a convoy at one gate)
+     * - Validates each item; invalid items fail individually instead of failing the batch
+     * - Delegates the valid items to the domain layer in a single pass
+     * - Merges both into one result in request order
+     */
+    public ParkingBatchResult parkVehicles(List<String> licensePlates, List<VehicleType> vehicleTypes) {
+        // Service Layer: Input validation
+        if (licensePlates == null || vehicleTypes == null || licensePlates.size() != vehicleTypes.size()) {
+            throw new IllegalArgumentException("License plates and vehicle types must be non-null lists of the same size");
+        }
+
+        ParkingBatchResult result = new ParkingBatchResult(licensePlates.size());
+        List<Vehicle> vehicles = new ArrayList<>(licensePlates.size());
+        int[] requestIndexes = new int[licensePlates.size()];
+        for (int i = 0; i < licensePlates.size(); i++) {
+            String licensePlate = licensePlates.get(i);
+            if (licensePlate == null || licensePlate.trim().isEmpty()) {
+                result.recordFailure(i, ParkingFailure.INVALID_REQUEST, "License plate cannot be null or empty");
+            } else if (vehicleTypes.get(i) == null) {
+                result.recordFailure(i, ParkingFailure.INVALID_REQUEST, "Vehicle type cannot be null");
+            } else {
+                requestIndexes[vehicles.size()] = i;
+                vehicles.add(new Vehicle(licensePlate, vehicleTypes.get(i)));
+            }
+        }
+
+        // Service Layer: Delegate to domain layer
+        mergeBatchResult(parkingLot.parkVehicles(vehicles), requestIndexes, result);
+        return result;
+    }
+
+    /**
+     * Service Layer: Orchestrates a burst of unparkings (e.g. a shift change)
+     */
+    public ParkingBatchResult unparkVehicles(List<String> licensePlates) {
+        // Service Layer: Input validation
+        if (licensePlates == null) {
+            throw new IllegalArgumentException("License plates cannot be null");
+        }
+
+        ParkingBatchResult result = new ParkingBatchResult(licensePlates.size());
+        List<String> validPlates = new ArrayList<>(licensePlates.size());
+        int[] requestIndexes = new int[licensePlates.size()];
+        for (int i = 0; i < licensePlates.size(); i++) {
+            String licensePlate = licensePlates.get(i);
+            if (licensePlate == null || licensePlate.trim().isEmpty()) {
+                result.recordFailure(i, ParkingFailure.INVALID_REQUEST, "License plate cannot be null or empty");
+            } else {
+                requestIndexes[validPlates.size()] = i;
+                validPlates.add(licensePlate);
+            }
+        }
+
+        // Service Layer: Delegate to domain layer
+        mergeBatchResult(parkingLot.unparkVehicles(validPlates), requestIndexes, result);
+        return result;
+    }
+
+    private void mergeBatchResult(ParkingBatchResult domainResult, int[] requestIndexes, ParkingBatchResult result) {
+        for (int i = 0; i < domainResult.size(); i++) {
+            if (domainResult.isSuccess(i)) {
+                result.recordSuccess(requestIndexes[i], domainResult.getTransaction(i));
+            } else {
+                result.recordFailure(requestIndexes[i], domainResult.getFailure(i), domainResult.getFailureReason(i));
+            }
+        }
+    }
+
+    /**
+     * Service Layer: Orchestrates a pre-booking
+     * - Validates input
+     * - Delegates to domain layer, which holds a slot for the plate until it parks
+     *   or the hold time runs out
+     */
+    public SlotReservation reserveSlot(String licensePlate, VehicleType vehicleType, Duration holdTime) {
+        // Service Layer: Input validation
+        if (licensePlate == null || licensePlate.trim().isEmpty()) {
+            throw new IllegalArgumentException("License plate cannot be null or empty");
+        }
+        if (vehicleType == null) {
+            throw new IllegalArgumentException("Vehicle type cannot be null");
+        }
+        if (holdTime == null || holdTime.isNegative() || holdTime.isZero()) {
+            throw new IllegalArgumentException("Hold time cannot be null and must be positive");
+        }
+
+        // Service Layer: Delegate to domain layer
+        return parkingLot.reserveSlot(licensePlate, vehicleType, holdTime.toMillis());
+    }
+
+    /**
+     * Service Layer: Orchestrates a booking cancellation
+     */
+    public SlotReservation cancelReservation(String licensePlate) {
+        // Service Layer: Input validation
+        if (licensePlate == null || licensePlate.trim().isEmpty()) {
+            throw new IllegalArgumentException("License plate cannot be null or empty");
+        }
+
+        // Service Layer: Delegate to domain layer
+        return parkingLot.cancelReservation(licensePlate);
+    }
+
+    /**
+     * Service Layer: Registers a display board (or any client) for occupancy changes
+     * - Validates input
+     * - Starts the occupancy feed on first use
+     * - The client is pushed coalesced deltas instead of polling getParkingLotStatus()
+     */
+    public OccupancySubscription subscribeOccupancy(Set<Integer> floorNumbers, Set<VehicleType> slotTypes,
+                                                    Duration interval, OccupancyListener listener) {
+        // Service Layer: Input validation
+        if (interval == null || interval.isNegative() || interval.isZero()) {
+            throw new IllegalArgumentException("Interval cannot be null and must be positive");
+        }
+        if (listener == null) {
+            throw new IllegalArgumentException("Listener cannot be null");
+        }
+
+        return occupancyFeed().subscribe(floorNumbers, slotTypes, interval, listener);
+    }
+
+    /**
+     * Service Layer: Ends an occupancy subscription
+     */
+    public void unsubscribeOccupancy(long subscriptionId) {
+        OccupancyFeed feed;
+        synchronized (this) {
+            feed = occupancyFeed; // not started just to report an unknown subscription
+        }
+        if (feed == null || !feed.unsubscribe(subscriptionId)) {
+            throw new IllegalStateException("Occupancy subscription " + subscriptionId + " not found");
+        }
+    }
+
+    private synchronized OccupancyFeed occupancyFeed() {
+        if (occupancyFeed == null) {
+            occupancyFeed = new OccupancyFeed(parkingLot);
+        }
+        return occupancyFeed;
+    }
+
+    // Ends every occupancy subscription; a later subscribe starts a new feed
+    private void closeOccupancyFeed() {
+        OccupancyFeed feed;
+        synchronized (this) {
+            feed = occupancyFeed;
+            occupancyFeed = null;
+        }
+        if (feed != null) {
+            feed.close();
+        }
+    }
+
     /**
      * Service Layer: Orchestrates vehicle info retrieval
      * - Validates input
@@ -87,7 +250,8 @@ public class ParkingService {
 
     /**
      * Service Layer: Business operation that spans multiple domain objects
-     * This is a good example of service layer orchestration
+     * The move itself is a single domain operation: the vehicle keeps its
+     * active transaction (and entry time) and only its slot changes
      */
     public ParkingTransaction transferVehicle(String licensePlate, String newSlotId) {
         // Service Layer: Input validation
@@ -98,35 +262,8 @@ public class ParkingService {
             throw new IllegalArgumentException("New slot ID cannot be null or empty");
         }
 
-        // Service Layer: Business logic that requires coordination
-        // 1. First unpark the vehicle
-        ParkingTransaction currentTransaction = parkingLot.unparkVehicle(licensePlate);
-        
-        // 2. Find the new slot
-        ParkingSlot newSlot = findSlotById(newSlotId);
-        if (newSlot == null) {
-            throw new IllegalArgumentException("Slot " + newSlotId + " not found");
-        }
-        
-        // 3. Repark the vehicle in the new slot
-        Vehicle vehicle = currentTransaction.getVehicle();
-        vehicle.setEntryTime(java.time.LocalDateTime.now()); // Reset entry time
-        return parkingLot.parkVehicle(vehicle);
-    }
-
-    /**
-     * Service Layer: Utility method to find slot by ID
-     * This is application-specific logic that doesn't belong in domain layer
-     */
-    private ParkingSlot findSlotById(String slotId) {
-        for (ParkingFloor floor : parkingLot.getFloors()) {
-            for (ParkingSlot slot : floor.getParkingSlots()) {
-                if (slot.getSlotId().equals(slotId)) {
-                    return slot;
-                }
-            }
-        }
-        return null;
+        // Service Layer: Delegate to domain layer
+        return parkingLot.transferVehicle(licensePlate, newSlotId);
     }
 
     /**
@@ -149,6 +286,9 @@ public class ParkingService {
             transaction.completeTransaction(fee);
         }
         
+        // 3. Stop pushing occupancy to display boards
+        closeOccupancyFeed();
+
         // Service Layer: Could add logging, notifications, etc.
         System.out.println("Parking lot closed. All vehicles have been processed.");
     }
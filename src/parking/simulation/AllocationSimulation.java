@@ -0,0 +1,246 @@
+package parking.simulation;
+
+import parking.domain.*;
+
+import java.time.LocalDate;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.PriorityQueue;
+import java.util.Random;
+
+/**
+ * Compares slot allocation strategies on identical traffic: how many vehicles of each type a
+ * lot admits, over the whole run and during the peak (rush) hours, when a vehicle that finds
+ * no slot is turned away.
+ *
+ * Arrivals, vehicle types and dwell times come from a {@link SimulationConfig} and are drawn
+ * once from its seed, so every strategy sees exactly the same vehicles. The run is a
+ * discrete-event simulation in simulated time on a single thread (a {@link ManualParkingClock}
+ * is the lot's clock while it runs), so it takes seconds however many days are simulated.
+ *
+ * Usage: AllocationSimulation [slots] [simulatedHours] [arrivalsPerHour]
+ */
+public class AllocationSimulation {
+    private static final long HOUR_MILLIS = 3_600_000L;
+
+    private final SimulationConfig config;
+    private final int slots;
+    private final List<Arrival> arrivals;
+
+    public AllocationSimulation(SimulationConfig config, int slots) {
+        this.config = config;
+        this.slots = slots;
+        this.arrivals = generateArrivals(config);
+    }
+
+    /**
+     * Runs the traffic through a fresh lot that uses the given strategy.
+     */
+    public Result run(SlotAllocationStrategy strategy) {
+        long startMillis = ParkingClock.toEpochMillis(LocalDate.now().atTime(config.getStartHourOfDay(), 0));
+        ManualParkingClock clock = new ManualParkingClock(startMillis);
+        ParkingClock previousClock = ParkingClock.getDefault();
+        ParkingClock.setDefault(clock);
+        try {
+            ParkingLot parkingLot = createParkingLot(slots);
+            parkingLot.setSlotAllocationStrategy(strategy);
+            Result result = new Result(strategy.getClass().getSimpleName());
+            PriorityQueue<Departure> departures = new PriorityQueue<>();
+            for (Arrival arrival : arrivals) {
+                while (!departures.isEmpty() && departures.peek().millis <= arrival.millis) {
+                    Departure departure = departures.poll();
+                    clock.setTimeMillis(startMillis + departure.millis);
+                    parkingLot.unparkVehicle(departure.licensePlate);
+                }
+                clock.setTimeMillis(startMillis + arrival.millis);
+                boolean peak = isPeak(arrival.millis);
+                try {
+                    parkingLot.parkVehicle(new Vehicle(arrival.licensePlate, arrival.vehicleType));
+                    departures.add(new Departure(arrival.millis + arrival.dwellMillis, arrival.licensePlate));
+                    result.record(arrival.vehicleType, peak, true);
+                } catch (IllegalStateException e) {
+                    result.record(arrival.vehicleType, peak, false);
+                }
+            }
+            return result;
+        } finally {
+            ParkingClock.setDefault(previousClock);
+        }
+    }
+
+    private boolean isPeak(long simulatedMillis) {
+        int hourOfDay = (int) ((config.getStartHourOfDay() + simulatedMillis / HOUR_MILLIS) % 24);
+        return config.arrivalsPerHourAt(hourOfDay) >= config.peakArrivalsPerHour();
+    }
+
+    // Poisson arrivals following the rush hours, generated by thinning against the peak rate
+    private static List<Arrival> generateArrivals(SimulationConfig config) {
+        Random random = new Random(config.getSeed());
+        VehicleType[] types = VehicleType.values();
+        double[] cumulativeShares = new double[types.length];
+        double total = 0;
+        for (VehicleType type : types) {
+            total += config.getVehicleMix().getOrDefault(type, 0.0);
+            cumulativeShares[type.ordinal()] = total;
+        }
+
+        List<Arrival> arrivals = new ArrayList<>();
+        double durationMillis = config.getSimulatedHours() * HOUR_MILLIS;
+        double peakRate = config.peakArrivalsPerHour();
+        double time = 0;
+        while (true) {
+            time += -Math.log(1 - random.nextDouble()) / peakRate * HOUR_MILLIS;
+            if (time >= durationMillis) {
+                return arrivals;
+            }
+            int hourOfDay = (int) ((config.getStartHourOfDay() + (long) (time / HOUR_MILLIS)) % 24);
+            if (random.nextDouble() * peakRate > config.arrivalsPerHourAt(hourOfDay)) {
+                continue;
+            }
+            double pick = random.nextDouble() * total;
+            VehicleType vehicleType = types[types.length - 1];
+            for (VehicleType type : types) {
+                if (pick < cumulativeShares[type.ordinal()]) {
+                    vehicleType = type;
+                    break;
+                }
+            }
+            long dwellMillis = Math.max(1, config.getDwellTime(vehicleType).sampleMillis(random));
+            arrivals.add(new Arrival((long) time, "SIM-" + arrivals.size(), vehicleType, dwellMillis));
+        }
+    }
+
+    // 20% motorcycle, 70% car and 10% bus slots, 500 slots per floor
+    private static ParkingLot createParkingLot(int slots) {
+        ParkingLot parkingLot = new ParkingLot("SIM", slots);
+        int slotsPerFloor = 500;
+        for (int floorNumber = 1; (floorNumber - 1) * slotsPerFloor < slots; floorNumber++) {
+            int floorSlots = Math.min(slotsPerFloor, slots - (floorNumber - 1) * slotsPerFloor);
+            ParkingFloor floor = new ParkingFloor(floorNumber, floorSlots);
+            for (int i = 0; i < floorSlots; i++) {
+                int bucket = i % 10;
+                VehicleType slotType = bucket < 2 ? VehicleType.MOTORCYCLE : bucket < 9 ? VehicleType.CAR : VehicleType.BUS;
+                floor.addParkingSlot(new ParkingSlot("F" + floorNumber + "-" + i, slotType, floorNumber));
+            }
+            parkingLot.addFloor(floor);
+        }
+        return parkingLot;
+    }
+
+    private static class Arrival {
+        final long millis;
+        final String licensePlate;
+        final VehicleType vehicleType;
+        final long dwellMillis;
+
+        Arrival(long millis, String licensePlate, VehicleType vehicleType, long dwellMillis) {
+            this.millis = millis;
+            this.licensePlate = licensePlate;
+            this.vehicleType = vehicleType;
+            this.dwellMillis = dwellMillis;
+        }
+    }
+
+    private static class Departure implements Comparable<Departure> {
+        final long millis;
+        final String licensePlate;
+
+        Departure(long millis, String licensePlate) {
+            this.millis = millis;
+            this.licensePlate = licensePlate;
+        }
+
+        @Override
+        public int compareTo(Departure other) {
+            return Long.compare(millis, other.millis);
+        }
+    }
+
+    /**
+     * Admitted and turned-away vehicles per type, overall and during peak hours.
+     */
+    public static class Result {
+        private final String strategy;
+        private final long[] admitted = new long[VehicleType.values().length];
+        private final long[] rejected = new long[VehicleType.values().length];
+        private final long[] peakAdmitted = new long[VehicleType.values().length];
+        private final long[] peakRejected = new long[VehicleType.values().length];
+
+        Result(String strategy) {
+            this.strategy = strategy;
+        }
+
+        void record(VehicleType vehicleType, boolean peak, boolean wasAdmitted) {
+            (wasAdmitted ? admitted : rejected)[vehicleType.ordinal()]++;
+            if (peak) {
+                (wasAdmitted ? peakAdmitted : peakRejected)[vehicleType.ordinal()]++;
+            }
+        }
+
+        public long getAdmitted(VehicleType vehicleType) {
+            return admitted[vehicleType.ordinal()];
+        }
+
+        public long getRejected(VehicleType vehicleType) {
+            return rejected[vehicleType.ordinal()];
+        }
+
+        public long getPeakAdmitted(VehicleType vehicleType) {
+            return peakAdmitted[vehicleType.ordinal()];
+        }
+
+        public long getPeakRejected(VehicleType vehicleType) {
+            return peakRejected[vehicleType.ordinal()];
+        }
+
+        public long getTotalAdmitted() {
+            long total = 0;
+            for (long count : admitted) {
+                total += count;
+            }
+            return total;
+        }
+
+        public long getTotalPeakAdmitted() {
+            long total = 0;
+            for (long count : peakAdmitted) {
+                total += count;
+            }
+            return total;
+        }
+
+        @Override
+        public String toString() {
+            StringBuilder sb = new StringBuilder();
+            sb.append(strategy).append(": admitted ").append(getTotalAdmitted())
+              .append(", at peak ").append(getTotalPeakAdmitted()).append("\n");
+            for (VehicleType type : VehicleType.values()) {
+                sb.append(String.format("  %-10s admitted %6d rejected %6d | peak admitted %6d rejected %6d%n",
+                        type.getDisplayName(), getAdmitted(type), getRejected(type),
+                        getPeakAdmitted(type), getPeakRejected(type)));
+            }
+            return sb.toString();
+        }
+    }
+
+    public static void main(String[] args) {
+        int slots = args.length > 0 ? Integer.parseInt(args[0]) : 1_000;
+        double simulatedHours = args.length > 1 ? Double.parseDouble(args[1]) : 24 * 7;
+        double arrivalsPerHour = args.length > 2 ? Double.parseDouble(args[2]) : 200;
+
+        SimulationConfig config = SimulationConfig.builder()
+                .simulatedHours(simulatedHours)
+                .arrivalsPerHour(arrivalsPerHour)
+                .build();
+        AllocationSimulation simulation = new AllocationSimulation(config, slots);
+        System.out.println("slots=" + slots + ", simulatedHours=" + simulatedHours
+                + ", arrivalsPerHour=" + arrivalsPerHour + ", arrivals=" + simulation.arrivals.size());
+        Result firstFit = simulation.run(new FirstFitAllocationStrategy());
+        Result bestFit = simulation.run(new BestFitAllocationStrategy());
+        System.out.print(firstFit);
+        System.out.print(bestFit);
+        long gained = bestFit.getTotalPeakAdmitted() - firstFit.getTotalPeakAdmitted();
+        System.out.printf("best-fit admits %+d vehicles at peak (%+.1f%%)%n",
+                gained, 100.0 * gained / Math.max(1, firstFit.getTotalPeakAdmitted()));
+    }
+}
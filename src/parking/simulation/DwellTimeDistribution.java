@@ -0,0 +1,39 @@
+package parking.simulation;
+
+import java.util.Random;
+
+/**
+ * How long a simulated vehicle stays parked, in simulated milliseconds.
+ */
+public interface DwellTimeDistribution {
+    long sampleMillis(Random random);
+
+    static DwellTimeDistribution fixed(double minutes) {
+        long millis = minutesToMillis(minutes);
+        return random -> millis;
+    }
+
+    static DwellTimeDistribution uniform(double minMinutes, double maxMinutes) {
+        if (maxMinutes < minMinutes) {
+            throw new IllegalArgumentException("Maximum dwell time must not be below the minimum");
+        }
+        return random -> minutesToMillis(minMinutes + random.nextDouble() * (maxMinutes - minMinutes));
+    }
+
+    static DwellTimeDistribution exponential(double meanMinutes) {
+        return random -> minutesToMillis(-meanMinutes * Math.log(1 - random.nextDouble()));
+    }
+
+    /**
+     * Right-skewed stays typical of car parks: most are near the median, a few last much longer.
+     *
+     * @param sigma spread of the underlying normal distribution (0.5 to 1 is realistic)
+     */
+    static DwellTimeDistribution logNormal(double medianMinutes, double sigma) {
+        return random -> minutesToMillis(medianMinutes * Math.exp(sigma * random.nextGaussian()));
+    }
+
+    private static long minutesToMillis(double minutes) {
+        return Math.max(1, Math.round(minutes * 60_000));
+    }
+}
@@ -0,0 +1,222 @@
+package parking.simulation;
+
+import parking.domain.VehicleType;
+
+import java.util.ArrayList;
+import java.util.EnumMap;
+import java.util.List;
+import java.util.Map;
+
+/**
+ * Traffic model for {@link TrafficSimulator}. Build with {@link #builder()}; every setting has
+ * a default, so {@code SimulationConfig.builder().build()} gives a one-day run with morning and
+ * evening rush hours.
+ */
+public class SimulationConfig {
+    private final double arrivalsPerHour;
+    private final List<RushHour> rushHours;
+    private final Map<VehicleType, Double> vehicleMix;
+    private final Map<VehicleType, DwellTimeDistribution> dwellTimes;
+    private final double simulatedHours;
+    private final int startHourOfDay;
+    private final double timeScale;
+    private final double infoQueryProbability;
+    private final double statusQueriesPerHour;
+    private final long seed;
+
+    private SimulationConfig(Builder builder) {
+        this.arrivalsPerHour = builder.arrivalsPerHour;
+        this.rushHours = List.copyOf(builder.rushHours);
+        this.vehicleMix = new EnumMap<>(builder.vehicleMix);
+        this.dwellTimes = new EnumMap<>(builder.dwellTimes);
+        this.simulatedHours = builder.simulatedHours;
+        this.startHourOfDay = builder.startHourOfDay;
+        this.timeScale = builder.timeScale;
+        this.infoQueryProbability = builder.infoQueryProbability;
+        this.statusQueriesPerHour = builder.statusQueriesPerHour;
+        this.seed = builder.seed;
+    }
+
+    public static Builder builder() {
+        return new Builder();
+    }
+
+    /**
+     * Arrival rate at the given simulated hour of day, rush-hour multipliers applied.
+     */
+    public double arrivalsPerHourAt(int hourOfDay) {
+        double rate = arrivalsPerHour;
+        for (RushHour rushHour : rushHours) {
+            if (rushHour.covers(hourOfDay)) {
+                rate *= rushHour.multiplier;
+            }
+        }
+        return rate;
+    }
+
+    public double peakArrivalsPerHour() {
+        double peak = 0;
+        for (int hour = 0; hour < 24; hour++) {
+            peak = Math.max(peak, arrivalsPerHourAt(hour));
+        }
+        return peak;
+    }
+
+    // Getters
+    public Map<VehicleType, Double> getVehicleMix() {
+        return vehicleMix;
+    }
+
+    public DwellTimeDistribution getDwellTime(VehicleType vehicleType) {
+        return dwellTimes.get(vehicleType);
+    }
+
+    public double getSimulatedHours() {
+        return simulatedHours;
+    }
+
+    public int getStartHourOfDay() {
+        return startHourOfDay;
+    }
+
+    public double getTimeScale() {
+        return timeScale;
+    }
+
+    public double getInfoQueryProbability() {
+        return infoQueryProbability;
+    }
+
+    public double getStatusQueriesPerHour() {
+        return statusQueriesPerHour;
+    }
+
+    public long getSeed() {
+        return seed;
+    }
+
+    private static class RushHour {
+        private final int startHour;
+        private final int endHour;
+        private final double multiplier;
+
+        RushHour(int startHour, int endHour, double multiplier) {
+            this.startHour = startHour;
+            this.endHour = endHour;
+            this.multiplier = multiplier;
+        }
+
+        boolean covers(int hourOfDay) {
+            return startHour <= endHour
+                    ? hourOfDay >= startHour && hourOfDay < endHour
+                    : hourOfDay >= startHour || hourOfDay < endHour; // wraps past midnight
+        }
+    }
+
+    public static class Builder {
+        private double arrivalsPerHour = 600;
+        private final List<RushHour> rushHours = new ArrayList<>();
+        private final Map<VehicleType, Double> vehicleMix = new EnumMap<>(VehicleType.class);
+        private final Map<VehicleType, DwellTimeDistribution> dwellTimes = new EnumMap<>(VehicleType.class);
+        private boolean defaultRushHours = true;
+        private double simulatedHours = 24;
+        private int startHourOfDay = 0;
+        private double timeScale = 3600;
+        private double infoQueryProbability = 0.2;
+        private double statusQueriesPerHour = 60;
+        private long seed = 42;
+
+        private Builder() {
+            vehicleMix.put(VehicleType.MOTORCYCLE, 0.25);
+            vehicleMix.put(VehicleType.CAR, 0.70);
+            vehicleMix.put(VehicleType.BUS, 0.05);
+            dwellTimes.put(VehicleType.MOTORCYCLE, DwellTimeDistribution.logNormal(60, 0.8));
+            dwellTimes.put(VehicleType.CAR, DwellTimeDistribution.logNormal(120, 0.8));
+            dwellTimes.put(VehicleType.BUS, DwellTimeDistribution.exponential(45));
+        }
+
+        /** Off-peak Poisson arrival rate, in vehicles per simulated hour. */
+        public Builder arrivalsPerHour(double arrivalsPerHour) {
+            if (arrivalsPerHour <= 0) {
+                throw new IllegalArgumentException("Arrival rate must be positive");
+            }
+            this.arrivalsPerHour = arrivalsPerHour;
+            return this;
+        }
+
+        /**
+         * Multiplies the arrival rate during [startHour, endHour) of each simulated day. The first
+         * call replaces the default 08-10 and 17-19 rush hours.
+         */
+        public Builder rushHour(int startHour, int endHour, double multiplier) {
+            if (startHour < 0 || startHour > 23 || endHour < 0 || endHour > 24 || multiplier <= 0) {
+                throw new IllegalArgumentException("Invalid rush hour " + startHour + "-" + endHour + " x" + multiplier);
+            }
+            if (defaultRushHours) {
+                rushHours.clear();
+                defaultRushHours = false;
+            }
+            rushHours.add(new RushHour(startHour, endHour, multiplier));
+            return this;
+        }
+
+        /** Relative share of arrivals of this type; shares need not add up to 1. */
+        public Builder vehicleShare(VehicleType vehicleType, double share) {
+            if (share < 0) {
+                throw new IllegalArgumentException("Vehicle share cannot be negative");
+            }
+            vehicleMix.put(vehicleType, share);
+            return this;
+        }
+
+        public Builder dwellTime(VehicleType vehicleType, DwellTimeDistribution distribution) {
+            dwellTimes.put(vehicleType, distribution);
+            return this;
+        }
+
+        public Builder simulatedHours(double simulatedHours) {
+            this.simulatedHours = simulatedHours;
+            return this;
+        }
+
+        public Builder startHourOfDay(int startHourOfDay) {
+            this.startHourOfDay = startHourOfDay;
+            return this;
+        }
+
+        /** Simulated seconds per wall-clock second, e.g. 3600 runs an hour of traffic per second. */
+        public Builder timeScale(double timeScale) {
+            if (timeScale <= 0) {
+                throw new IllegalArgumentException("Time scale must be positive");
+            }
+            this.timeScale = timeScale;
+            return this;
+        }
+
+        /** Chance that a parked vehicle's driver looks up their charges once during the stay. */
+        public Builder infoQueryProbability(double infoQueryProbability) {
+            this.infoQueryProbability = infoQueryProbability;
+            return this;
+        }
+
+        /** Lot status polls (e.g. from entrance displays) per simulated hour. */
+        public Builder statusQueriesPerHour(double statusQueriesPerHour) {
+            this.statusQueriesPerHour = statusQueriesPerHour;
+            return this;
+        }
+
+        public Builder seed(long seed) {
+            this.seed = seed;
+            return this;
+        }
+
+        public SimulationConfig build() {
+            if (defaultRushHours) {
+                rushHours.clear();
+                rushHours.add(new RushHour(8, 10, 3.0));
+                rushHours.add(new RushHour(17, 19, 2.5));
+            }
+            return new SimulationConfig(this);
+        }
+    }
+}
@@ -0,0 +1,124 @@
+package parking.simulation;
+
+import parking.metrics.LatencyHistogram;
+
+import java.util.EnumMap;
+import java.util.Map;
+import java.util.concurrent.atomic.LongAdder;
+
+/**
+ * Outcome of a {@link TrafficSimulator} run: per-API call counts, failures and latency
+ * percentiles, plus the park rejection rate (lot full) and overall throughput.
+ */
+public class SimulationReport {
+    public enum Api {
+        PARK, UNPARK, VEHICLE_INFO, STATUS
+    }
+
+    private final Map<Api, LatencyHistogram> latencies = new EnumMap<>(Api.class);
+    private final Map<Api, LongAdder> failures = new EnumMap<>(Api.class);
+    private final LongAdder rejectedParks = new LongAdder();
+    private final LatencyHistogram dispatchLag = new LatencyHistogram();
+    private final boolean virtualThreads;
+    private double simulatedHours;
+    private long wallNanos;
+    private int parkedAtEnd;
+
+    SimulationReport(boolean virtualThreads) {
+        this.virtualThreads = virtualThreads;
+        for (Api api : Api.values()) {
+            latencies.put(api, new LatencyHistogram());
+            failures.put(api, new LongAdder());
+        }
+    }
+
+    void record(Api api, long nanos, boolean success) {
+        latencies.get(api).recordNanos(nanos);
+        if (!success) {
+            failures.get(api).increment();
+        }
+    }
+
+    void recordRejectedPark() {
+        rejectedParks.increment();
+    }
+
+    void recordDispatchLag(long nanos) {
+        dispatchLag.recordNanos(nanos);
+    }
+
+    void finish(double simulatedHours, long wallNanos, int parkedAtEnd) {
+        this.simulatedHours = simulatedHours;
+        this.wallNanos = wallNanos;
+        this.parkedAtEnd = parkedAtEnd;
+    }
+
+    // Getters
+    public LatencyHistogram getLatency(Api api) {
+        return latencies.get(api);
+    }
+
+    public long getCalls(Api api) {
+        return latencies.get(api).getCount();
+    }
+
+    public long getFailures(Api api) {
+        return failures.get(api).sum();
+    }
+
+    public long getRejectedParks() {
+        return rejectedParks.sum();
+    }
+
+    /**
+     * Share of park attempts turned away because no compatible slot was free.
+     */
+    public double getRejectionRate() {
+        long attempts = getCalls(Api.PARK);
+        return attempts == 0 ? 0 : (double) getRejectedParks() / attempts;
+    }
+
+    public long getTotalCalls() {
+        long total = 0;
+        for (Api api : Api.values()) {
+            total += getCalls(api);
+        }
+        return total;
+    }
+
+    public double getThroughputPerSecond() {
+        return wallNanos == 0 ? 0 : getTotalCalls() * 1_000_000_000.0 / wallNanos;
+    }
+
+    /**
+     * How late calls were handed to the executor relative to their simulated time, in wall
+     * nanoseconds. A growing lag means the load generator, not the lot, was the bottleneck.
+     */
+    public LatencyHistogram getDispatchLag() {
+        return dispatchLag;
+    }
+
+    public int getParkedAtEnd() {
+        return parkedAtEnd;
+    }
+
+    @Override
+    public String toString() {
+        StringBuilder sb = new StringBuilder();
+        sb.append(String.format("Simulated %.1f h in %.1f s wall (%s)%n", simulatedHours, wallNanos / 1e9,
+                virtualThreads ? "virtual threads" : "platform threads, virtual threads unavailable"));
+        sb.append(String.format("Throughput: %,.0f calls/s, %d calls in total%n", getThroughputPerSecond(), getTotalCalls()));
+        sb.append(String.format("Park rejections: %d of %d (%.2f%%), %d vehicles parked at end%n",
+                getRejectedParks(), getCalls(Api.PARK), getRejectionRate() * 100, parkedAtEnd));
+        for (Api api : Api.values()) {
+            LatencyHistogram latency = latencies.get(api);
+            sb.append(String.format("%-13s calls=%-8d failures=%-6d p50=%6.1fus p99=%7.1fus p999=%8.1fus max=%8.1fus%n",
+                    api, latency.getCount(), getFailures(api), latency.getPercentileNanos(50) / 1e3,
+                    latency.getPercentileNanos(99) / 1e3, latency.getPercentileNanos(99.9) / 1e3,
+                    latency.getMaxNanos() / 1e3));
+        }
+        sb.append(String.format("Dispatch lag: p99=%.1fms max=%.1fms%n",
+                dispatchLag.getPercentileNanos(99) / 1e6, dispatchLag.getMaxNanos() / 1e6));
+        return sb.toString();
+    }
+}
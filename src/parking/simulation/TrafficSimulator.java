@@ -0,0 +1,258 @@
+package parking.simulation;
+
+import parking.api.*;
+import parking.domain.*;
+import parking.metrics.ControllerMetrics;
+import parking.service.ParkingService;
+import parking.util.VirtualThreads;
+
+import java.time.LocalDate;
+import java.util.Map;
+import java.util.Random;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.PriorityBlockingQueue;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.locks.LockSupport;
+
+/**
+ * Drives a ParkingController with synthetic traffic in accelerated simulated time.
+ *
+ * Arrivals are a Poisson process whose rate follows the configured rush hours (generated by
+ * thinning against the peak rate); each arriving vehicle gets a type from the configured mix and
+ * a dwell time from its type's distribution, and is unparked when that time is up. Some drivers
+ * look up their charges during the stay, and entrance displays poll the lot status.
+ *
+ * A single dispatcher thread maps simulated time onto wall time ({@link SimulationConfig#getTimeScale()})
+ * and hands each call to a thread-per-task executor (virtual threads where available), so
+ * concurrent gates are modelled by concurrent threads. Every call's latency is recorded per API.
+ * Vehicles still parked when the simulated period ends are left in the lot.
+ *
+ * Usage: TrafficSimulator [slots] [simulatedHours] [timeScale] [arrivalsPerHour]
+ */
+public class TrafficSimulator {
+    private static final long HOUR_MILLIS = 3_600_000L;
+    private static final long MAX_IDLE_NANOS = TimeUnit.MILLISECONDS.toNanos(1);
+
+    private final ParkingController controller;
+    private final SimulationConfig config;
+    private final Random random;
+    private final VehicleType[] vehicleTypes = VehicleType.values();
+    private final double[] cumulativeShares;
+    private final PriorityBlockingQueue<ScheduledCall> scheduled = new PriorityBlockingQueue<>();
+    private long sequence;
+
+    public TrafficSimulator(ParkingController controller, SimulationConfig config) {
+        this.controller = controller;
+        this.config = config;
+        this.random = new Random(config.getSeed());
+        this.cumulativeShares = new double[vehicleTypes.length];
+        double total = 0;
+        for (VehicleType type : vehicleTypes) {
+            total += config.getVehicleMix().getOrDefault(type, 0.0);
+            cumulativeShares[type.ordinal()] = total;
+        }
+        if (total <= 0) {
+            throw new IllegalArgumentException("Vehicle mix must give at least one type a positive share");
+        }
+    }
+
+    /**
+     * Runs the simulation. While it runs, the domain's default {@link ParkingClock} follows
+     * simulated time (starting today at the configured hour), so entry/exit times, dwell times
+     * and fees are in simulated hours; the previous clock is put back afterwards.
+     */
+    public SimulationReport run() throws InterruptedException {
+        ParkingClock previousClock = ParkingClock.getDefault();
+        long simulatedEpochStart = ParkingClock.toEpochMillis(LocalDate.now().atTime(config.getStartHourOfDay(), 0));
+        long wallStart = System.nanoTime();
+        ParkingClock.setDefault(() -> simulatedEpochStart + simulatedMillisSince(wallStart));
+        try {
+            return simulate(wallStart);
+        } finally {
+            ParkingClock.setDefault(previousClock);
+        }
+    }
+
+    private SimulationReport simulate(long wallStart) throws InterruptedException {
+        ExecutorService executor = VirtualThreads.newThreadPerTaskExecutor("traffic-sim");
+        SimulationReport report = new SimulationReport(VirtualThreads.isAvailable());
+        long durationMillis = (long) (config.getSimulatedHours() * HOUR_MILLIS);
+        double statusInterval = config.getStatusQueriesPerHour() > 0
+                ? HOUR_MILLIS / config.getStatusQueriesPerHour() : Double.MAX_VALUE;
+
+        double nextArrival = nextArrivalAfter(0);
+        double nextStatus = statusInterval;
+        long vehicleCount = 0;
+        while (true) {
+            long now = simulatedMillisSince(wallStart);
+            if (now >= durationMillis) {
+                break;
+            }
+            while (nextArrival <= now) {
+                dispatchArrival(executor, report, (long) nextArrival, now, "SIM-" + vehicleCount++);
+                nextArrival = nextArrivalAfter(nextArrival);
+            }
+            while (nextStatus <= now) {
+                recordLag(report, (long) nextStatus, now);
+                executor.execute(() -> {
+                    long start = System.nanoTime();
+                    ParkingResponse response = controller.getParkingLotStatus();
+                    report.record(SimulationReport.Api.STATUS, System.nanoTime() - start, response.isSuccess());
+                });
+                nextStatus += statusInterval;
+            }
+            ScheduledCall call;
+            while ((call = scheduled.peek()) != null && call.simulatedMillis <= now) {
+                scheduled.poll();
+                recordLag(report, call.simulatedMillis, now);
+                dispatch(executor, report, call);
+            }
+
+            double nextDue = Math.min(nextArrival, nextStatus);
+            call = scheduled.peek();
+            if (call != null) {
+                nextDue = Math.min(nextDue, call.simulatedMillis);
+            }
+            long waitNanos = (long) ((nextDue - now) / config.getTimeScale() * 1_000_000);
+            LockSupport.parkNanos(Math.max(1, Math.min(waitNanos, MAX_IDLE_NANOS)));
+        }
+
+        executor.shutdown();
+        executor.awaitTermination(1, TimeUnit.MINUTES);
+        long wallNanos = System.nanoTime() - wallStart;
+        ParkingResponse status = controller.getParkingLotStatus();
+        int parkedAtEnd = status.isSuccess() ? ((ParkingLotStatus) status.getData()).getTotalParkedVehicles() : -1;
+        report.finish(durationMillis / (double) HOUR_MILLIS, wallNanos, parkedAtEnd);
+        return report;
+    }
+
+    // Dispatcher thread only: all randomness is drawn here, so a seed reproduces the traffic
+    private void dispatchArrival(ExecutorService executor, SimulationReport report, long arrivalMillis,
+                                 long now, String licensePlate) {
+        VehicleType vehicleType = sampleVehicleType();
+        long dwellMillis = config.getDwellTime(vehicleType).sampleMillis(random);
+        long infoMillis = random.nextDouble() < config.getInfoQueryProbability()
+                ? arrivalMillis + (long) (random.nextDouble() * dwellMillis) : -1;
+        recordLag(report, arrivalMillis, now);
+        executor.execute(() -> {
+            long start = System.nanoTime();
+            ParkingResponse response = controller.parkVehicle(new ParkVehicleRequest(licensePlate, vehicleType));
+            long nanos = System.nanoTime() - start;
+            if (response.isSuccess()) {
+                report.record(SimulationReport.Api.PARK, nanos, true);
+                schedule(arrivalMillis + dwellMillis, SimulationReport.Api.UNPARK, licensePlate);
+                if (infoMillis >= 0) {
+                    schedule(infoMillis, SimulationReport.Api.VEHICLE_INFO, licensePlate);
+                }
+            } else if (response.getFailure() == ParkingFailure.LOT_FULL) {
+                report.record(SimulationReport.Api.PARK, nanos, true); // a full lot is a valid answer, not an error
+                report.recordRejectedPark();
+            } else {
+                report.record(SimulationReport.Api.PARK, nanos, false);
+            }
+        });
+    }
+
+    private void dispatch(ExecutorService executor, SimulationReport report, ScheduledCall call) {
+        executor.execute(() -> {
+            long start = System.nanoTime();
+            ParkingResponse response = call.api == SimulationReport.Api.UNPARK
+                    ? controller.unparkVehicle(new UnparkVehicleRequest(call.licensePlate))
+                    : controller.getVehicleInfo(new GetVehicleInfoRequest(call.licensePlate));
+            report.record(call.api, System.nanoTime() - start, response.isSuccess());
+        });
+    }
+
+    private void schedule(long simulatedMillis, SimulationReport.Api api, String licensePlate) {
+        long order;
+        synchronized (scheduled) {
+            order = sequence++;
+        }
+        scheduled.add(new ScheduledCall(simulatedMillis, order, api, licensePlate));
+    }
+
+    private void recordLag(SimulationReport report, long dueMillis, long now) {
+        report.recordDispatchLag((long) ((now - dueMillis) / config.getTimeScale() * 1_000_000));
+    }
+
+    private double nextArrivalAfter(double simulatedMillis) {
+        double peakRate = config.peakArrivalsPerHour();
+        double time = simulatedMillis;
+        while (true) {
+            time += -Math.log(1 - random.nextDouble()) / peakRate * HOUR_MILLIS;
+            int hourOfDay = (int) ((config.getStartHourOfDay() + (long) (time / HOUR_MILLIS)) % 24);
+            if (random.nextDouble() * peakRate <= config.arrivalsPerHourAt(hourOfDay)) {
+                return time;
+            }
+        }
+    }
+
+    private VehicleType sampleVehicleType() {
+        double pick = random.nextDouble() * cumulativeShares[cumulativeShares.length - 1];
+        for (VehicleType type : vehicleTypes) {
+            if (pick < cumulativeShares[type.ordinal()]) {
+                return type;
+            }
+        }
+        return vehicleTypes[vehicleTypes.length - 1];
+    }
+
+    private long simulatedMillisSince(long wallStart) {
+        return (long) ((System.nanoTime() - wallStart) / 1_000_000.0 * config.getTimeScale());
+    }
+
+    private static class ScheduledCall implements Comparable<ScheduledCall> {
+        final long simulatedMillis;
+        final long order;
+        final SimulationReport.Api api;
+        final String licensePlate;
+
+        ScheduledCall(long simulatedMillis, long order, SimulationReport.Api api, String licensePlate) {
+            this.simulatedMillis = simulatedMillis;
+            this.order = order;
+            this.api = api;
+            this.licensePlate = licensePlate;
+        }
+
+        @Override
+        public int compareTo(ScheduledCall other) {
+            int byTime = Long.compare(simulatedMillis, other.simulatedMillis);
+            return byTime != 0 ? byTime : Long.compare(order, other.order);
+        }
+    }
+
+    public static void main(String[] args) throws InterruptedException {
+        int slots = args.length > 0 ? Integer.parseInt(args[0]) : 2_000;
+        double simulatedHours = args.length > 1 ? Double.parseDouble(args[1]) : 24;
+        double timeScale = args.length > 2 ? Double.parseDouble(args[2]) : 3600;
+        double arrivalsPerHour = args.length > 3 ? Double.parseDouble(args[3]) : 600;
+
+        SimulationConfig config = SimulationConfig.builder()
+                .simulatedHours(simulatedHours)
+                .timeScale(timeScale)
+                .arrivalsPerHour(arrivalsPerHour)
+                .build();
+        ParkingController controller = new ParkingController(new ParkingService(createParkingLot(slots)),
+                new ControllerMetrics(true));
+        System.out.println("slots=" + slots + ", arrivalsPerHour=" + arrivalsPerHour + ", timeScale=" + timeScale);
+        System.out.print(new TrafficSimulator(controller, config).run());
+        System.out.print(controller.getMetrics().snapshot());
+    }
+
+    // 20% motorcycle, 75% car and 5% bus slots, 1000 slots per floor
+    private static ParkingLot createParkingLot(int slots) {
+        ParkingLot parkingLot = new ParkingLot("SIM", slots);
+        int slotsPerFloor = 1_000;
+        for (int floorNumber = 1; (floorNumber - 1) * slotsPerFloor < slots; floorNumber++) {
+            int floorSlots = Math.min(slotsPerFloor, slots - (floorNumber - 1) * slotsPerFloor);
+            ParkingFloor floor = new ParkingFloor(floorNumber, floorSlots);
+            for (int i = 0; i < floorSlots; i++) {
+                int bucket = i % 20;
+                VehicleType slotType = bucket < 4 ? VehicleType.MOTORCYCLE : bucket < 19 ? VehicleType.CAR : VehicleType.BUS;
+                floor.addParkingSlot(new ParkingSlot("F" + floorNumber + "-" + i, slotType, floorNumber));
+            }
+            parkingLot.addFloor(floor);
+        }
+        return parkingLot;
+    }
+}